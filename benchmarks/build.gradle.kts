@@ -0,0 +1,43 @@
+plugins {
+    id("java-quality-common-convention")
+    alias(libs.plugins.jmh)
+}
+
+group = "io.github.ecotrip"
+
+repositories {
+    maven {
+        url = uri("https://maven.pkg.github.com/meboo/pi4j-v2-issue26")
+        credentials {
+            username = project.findProperty("gpr.user") as String? ?: System.getenv("GH_PACKAGES_USERNAME")
+            password = project.findProperty("gpr.key") as String? ?: System.getenv("GH_PACKAGES_TOKEN")
+        }
+    }
+    mavenCentral()
+}
+
+dependencies {
+    jmhImplementation(project(":utils"))
+    jmhImplementation(project(":domain"))
+    jmhImplementation(project(":core"))
+    jmhImplementation(project(":room-monitoring"))
+    jmhImplementation(project(":examples"))
+    jmhImplementation(libs.bundles.pi4j)
+    jmhImplementation(libs.pi4j.test)
+    jmhImplementation("com.fasterxml.jackson.core:jackson-databind:2.12.7")
+    jmhImplementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.12.7")
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Allocation rate per operation, together with the throughput
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
+spotbugs {
+    excludeFilter.set(file("config/spotbugs-exclude.xml"));
+}
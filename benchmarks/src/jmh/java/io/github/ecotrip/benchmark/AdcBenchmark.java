@@ -0,0 +1,111 @@
+package io.github.ecotrip.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.io.i2c.I2C;
+import com.pi4j.io.i2c.I2CConfig;
+import com.pi4j.io.i2c.I2CProvider;
+import com.pi4j.plugin.mock.provider.i2c.MockI2C;
+import com.pi4j.plugin.mock.provider.i2c.MockI2CProvider;
+
+import io.github.ecotrip.adapter.AnalogChannel;
+import io.github.ecotrip.adapter.adc.AnalogDigitalConverter;
+import io.github.ecotrip.adapter.adc.Gain;
+import io.github.ecotrip.measure.energy.Voltage;
+
+/**
+ * Single conversion of the ADC against a mocked I2C bus, it includes the conversion delay,
+ * compared with the read of the latest conversion while the ADC is scanning.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AdcBenchmark {
+    @Param({"0", "200"})
+    private int delayToleranceInMicros;
+    private Context pi4j;
+    private I2C i2c;
+    private AnalogDigitalConverter adc;
+    private AnalogDigitalConverter scanningAdc;
+
+    /**
+     * Creates the ADC on a mocked I2C bus.
+     */
+    @Setup
+    public void setup() {
+        pi4j = Pi4J.newContextBuilder().build();
+        var config = I2C.newConfigBuilder(pi4j)
+                .id("adc")
+                .bus(1)
+                .device(0x48)
+                .build();
+        i2c = new FixedConversionI2C(MockI2CProvider.newInstance(), config);
+        var configuration = new AnalogDigitalConverter.Configuration.Builder()
+                .setGain(Gain.GAIN_6_144V)
+                .setConfigRegister(0x01)
+                .setConversionRegister(0x00)
+                .setDelayTolerance(delayToleranceInMicros)
+                .build();
+        adc = new AnalogDigitalConverter(i2c, configuration);
+        scanningAdc = new AnalogDigitalConverter(i2c, configuration);
+        scanningAdc.startScan().join();
+    }
+
+    /**
+     * Releases the mocked bus.
+     */
+    @TearDown
+    public void tearDown() {
+        scanningAdc.stopScan();
+        i2c.close();
+        pi4j.shutdown();
+    }
+
+    @Benchmark
+    public Voltage getData() {
+        return adc.getData(AnalogChannel.A0_IN);
+    }
+
+    @Benchmark
+    public Voltage getScannedData() {
+        return scanningAdc.getData(AnalogChannel.A0_IN);
+    }
+
+    /**
+     * Mocked bus which discards the writes and always returns the same conversion, with the OS bit
+     * of the config register always set, the default mock would queue every written byte.
+     */
+    private static class FixedConversionI2C extends MockI2C {
+        private static final byte[] CONVERSION = {0x12, 0x34};
+        private static final byte[] READY = {(byte) 0x80, 0x00};
+
+        FixedConversionI2C(final I2CProvider provider, final I2CConfig config) {
+            super(provider, config);
+        }
+
+        @Override
+        public int writeRegister(final int register, final byte[] data, final int offset, final int length) {
+            return length;
+        }
+
+        @Override
+        public int readRegister(final int register, final byte[] buffer, final int offset, final int length) {
+            var data = register == 0x00 ? CONVERSION : READY;
+            var read = Math.min(length, data.length);
+            System.arraycopy(data, 0, buffer, offset, read);
+            return read;
+        }
+    }
+}
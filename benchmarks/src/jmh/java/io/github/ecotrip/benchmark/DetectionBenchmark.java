@@ -0,0 +1,66 @@
+package io.github.ecotrip.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.ecotrip.measure.CombinableMeasure;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFactory;
+
+/**
+ * Reductions performed on the detections of a publish cycle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DetectionBenchmark {
+    @Param({"4", "16", "64"})
+    private int size;
+    private DetectionFactory<UUID> detectionFactory;
+    private List<Detection<UUID>> detections;
+    private List<CombinableMeasure> currents;
+
+    /**
+     * Creates the detections to be reduced.
+     */
+    @Setup
+    public void setup() {
+        detectionFactory = DetectionFactory.of(UUID::randomUUID);
+        detections = new ArrayList<>(size);
+        currents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            detections.add(detectionFactory.create(List.of(Current.of(i),
+                    Temperature.of(20 + i % 5, Temperature.Environment.ROOM))));
+            currents.add(Current.of(i));
+        }
+    }
+
+    @Benchmark
+    public Optional<Detection<UUID>> merge() {
+        return detections.stream().reduce(detectionFactory::merge);
+    }
+
+    @Benchmark
+    public Detection<UUID> accumulate() {
+        return detectionFactory.accumulator(size * 2).addAll(detections).build();
+    }
+
+    @Benchmark
+    public Optional<CombinableMeasure> checkAndCombine() {
+        return currents.stream().reduce(CombinableMeasure::checkAndCombine);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.ecotrip.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import io.github.ecotrip.identifier.TimeOrderedUuidGenerator;
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFactory;
+
+/**
+ * Detection creation with the random and the time-ordered identifiers, from as many threads as the sensors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class IdentifierBenchmark {
+    private static final List<Measure> MEASURES = List.of(Current.of(1));
+    private TimeOrderedUuidGenerator timeOrdered;
+    private DetectionFactory<UUID> randomFactory;
+    private DetectionFactory<UUID> timeOrderedFactory;
+
+    /**
+     * Creates a detection factory for each generator.
+     */
+    @Setup
+    public void setup() {
+        timeOrdered = TimeOrderedUuidGenerator.create();
+        randomFactory = DetectionFactory.of(UUID::randomUUID);
+        timeOrderedFactory = DetectionFactory.of(timeOrdered);
+    }
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrderedUuid() {
+        return timeOrdered.get();
+    }
+
+    @Benchmark
+    public Detection<UUID> createWithRandomUuid() {
+        return randomFactory.create(MEASURES);
+    }
+
+    @Benchmark
+    public Detection<UUID> createWithTimeOrderedUuid() {
+        return timeOrderedFactory.create(MEASURES);
+    }
+}
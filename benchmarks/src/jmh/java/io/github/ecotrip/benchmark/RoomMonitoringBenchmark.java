@@ -0,0 +1,97 @@
+package io.github.ecotrip.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.github.ecotrip.RoomMonitoringService;
+import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.execution.Execution;
+import io.github.ecotrip.execution.engine.EngineFactory;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.ambient.Brightness;
+import io.github.ecotrip.measure.ambient.Humidity;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.measure.water.FlowRate;
+import io.github.ecotrip.sensor.DetectionFactory;
+import io.github.ecotrip.serializer.DetectionSerializer;
+import io.github.ecotrip.serializer.JsonSerializer;
+import io.github.ecotrip.usecase.ConsumptionUseCases;
+import io.github.ecotrip.usecase.EnvironmentUseCases;
+
+/**
+ * A complete publish cycle of the {@link RoomMonitoringService}: detection, aggregation of the consumption samples,
+ * merge, serialization and send, with stubbed sensors and output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoomMonitoringBenchmark {
+    private static final int SAMPLING_INTERVAL_MILLIS = 10;
+    private static final int DETECTION_INTERVAL_MILLIS = 3600 * Execution.SECOND_IN_MILLIS;
+    private RoomMonitoringService service;
+    private CompletableFuture<Void> running;
+
+    /**
+     * Creates and starts the service, the consumption sensors are sampled in background.
+     */
+    @Setup
+    public void setup() {
+        // The service logs every message sent
+        Logger.getLogger(Execution.class.toString()).setLevel(Level.WARNING);
+        var detectionFactory = DetectionFactory.of(UUID::randomUUID);
+        var consumptionUseCases = new ConsumptionUseCases.Builder<UUID>()
+                .setCurrentSensor(StubSensor.of(detectionFactory, Current.of(0.731)))
+                .setHotFlowRateSensor(StubSensor.of(detectionFactory, FlowRate.of(2.5, FlowRate.FlowRateType.HOT)))
+                .setColdFlowRateSensor(StubSensor.of(detectionFactory,
+                        FlowRate.of(1.25, FlowRate.FlowRateType.COLD)))
+                .build();
+        var environmentUseCases = new EnvironmentUseCases.Builder<UUID>()
+                .setBrightnessSensor(StubSensor.of(detectionFactory, Brightness.of(350.25)))
+                .setTemperatureAndHumiditySensor(StubSensor.of(detectionFactory,
+                        Temperature.of(21.5, Temperature.Environment.ROOM), Humidity.of(45.3)))
+                .setHotWaterTemperatureSensor(StubSensor.of(detectionFactory,
+                        Temperature.of(48.12, Temperature.Environment.HOT_WATER_PIPE)))
+                .setColdWaterTemperatureSensor(StubSensor.of(detectionFactory,
+                        Temperature.of(14.7, Temperature.Environment.COLD_WATER_PIPE)))
+                .build();
+        var detectionModule = new SimpleModule()
+                .addSerializer(DetectionWrapper.class, new DetectionSerializer(DetectionWrapper.class));
+        service = RoomMonitoringService.of(EngineFactory.createBlockingIoEngine(2, 64), consumptionUseCases,
+                environmentUseCases, detectionFactory, message -> CompletableFuture.completedFuture(null),
+                JsonSerializer.of(new JavaTimeModule(), detectionModule));
+        service.setDetectionInterval(DETECTION_INTERVAL_MILLIS);
+        service.setSamplingInterval(MeasureType.CURRENT, SAMPLING_INTERVAL_MILLIS);
+        service.setSamplingInterval(MeasureType.HOT_FLOW_RATE, SAMPLING_INTERVAL_MILLIS);
+        service.setSamplingInterval(MeasureType.COLD_FLOW_RATE, SAMPLING_INTERVAL_MILLIS);
+        running = service.start();
+    }
+
+    /**
+     * Stops the service.
+     */
+    @TearDown
+    public void tearDown() {
+        running.cancel(false);
+    }
+
+    @Benchmark
+    public Void publish() {
+        return service.publish().join();
+    }
+}
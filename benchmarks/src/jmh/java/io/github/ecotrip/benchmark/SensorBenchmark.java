@@ -0,0 +1,42 @@
+package io.github.ecotrip.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.ecotrip.measure.ambient.Humidity;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFactory;
+
+/**
+ * Validation and wrapping of the measures done by {@link io.github.ecotrip.sensor.Sensor#detect()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SensorBenchmark {
+    private StubSensor sensor;
+
+    /**
+     * Creates a sensor returning valid and invalid measures.
+     */
+    @Setup
+    public void setup() {
+        sensor = StubSensor.of(DetectionFactory.of(UUID::randomUUID),
+                Temperature.of(21, Temperature.Environment.ROOM), Humidity.of(45),
+                Temperature.of(-1, Temperature.Environment.ROOM), Humidity.of(-1));
+    }
+
+    @Benchmark
+    public Detection<UUID> detect() {
+        return sensor.detect().join();
+    }
+}
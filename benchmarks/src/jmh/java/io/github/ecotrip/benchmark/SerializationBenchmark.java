@@ -0,0 +1,129 @@
+package io.github.ecotrip.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.adapter.Serializer;
+import io.github.ecotrip.adapter.serializer.DetectionBinaryDecoder;
+import io.github.ecotrip.adapter.serializer.DetectionBinarySerializer;
+import io.github.ecotrip.adapter.serializer.DetectionJsonWriter;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.ambient.Brightness;
+import io.github.ecotrip.measure.ambient.Humidity;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.measure.water.FlowRate;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFactory;
+import io.github.ecotrip.serializer.DetectionSerializer;
+import io.github.ecotrip.serializer.JsonSerializer;
+
+/**
+ * Serialization of the message sent at the end of every publish cycle, as JSON and in the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+    private Serializer<DetectionWrapper> serializer;
+    private DetectionJsonWriter jsonWriter;
+    private DetectionBinarySerializer binarySerializer;
+    private DetectionBinaryDecoder binaryDecoder;
+    private ByteBuffer binaryBuffer;
+    private DetectionWrapper wrapper;
+
+    /**
+     * Creates the serializers and a complete detection.
+     * Fails if the two JSON outputs differ.
+     */
+    @Setup
+    public void setup() {
+        var detectionModule = new SimpleModule()
+                .addSerializer(DetectionWrapper.class, new DetectionSerializer(DetectionWrapper.class));
+        serializer = JsonSerializer.of(new JavaTimeModule(), detectionModule);
+        var detection = createDetection(DetectionFactory.of(UUID::randomUUID));
+        var statistics = MeasureStatistics.create();
+        for (int i = 0; i < 5; i++) {
+            statistics.add(Current.of(0.731 + i * 0.01));
+        }
+        wrapper = DetectionWrapper.of(detection, 5, UUID.randomUUID().toString(), statistics);
+        jsonWriter = DetectionJsonWriter.create();
+        if (!serializer.serialize(wrapper).equals(jsonWriter.serialize(wrapper))) {
+            throw new IllegalStateException("The JSON writer is not compatible with Jackson");
+        }
+        binarySerializer = DetectionBinarySerializer.create();
+        binaryDecoder = DetectionBinaryDecoder.create();
+        binaryBuffer = ByteBuffer.allocateDirect(DetectionJsonWriter.DEFAULT_CAPACITY);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return serializer.serialize(wrapper);
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() {
+        return serializer.serialize(wrapper).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the JSON into the reused buffer of the writer.
+     * @return the buffer, ready to be read.
+     */
+    @Benchmark
+    public ByteBuffer writeToBuffer() {
+        return jsonWriter.write(wrapper);
+    }
+
+    /**
+     * Binary counterpart of {@link #writeToBuffer()}, the buffer is reused.
+     * @return the buffer, ready to be read.
+     */
+    @Benchmark
+    public ByteBuffer writeBinaryToBuffer() {
+        return encodeBinary();
+    }
+
+    @Benchmark
+    public byte[] serializeBinaryToBytes() {
+        return binarySerializer.serializeToBytes(wrapper);
+    }
+
+    @Benchmark
+    public DetectionWrapper decodeBinary() {
+        return binaryDecoder.decodeSingle(encodeBinary());
+    }
+
+    private ByteBuffer encodeBinary() {
+        binaryBuffer.clear();
+        binarySerializer.serialize(wrapper, binaryBuffer);
+        return binaryBuffer.flip();
+    }
+
+    private static Detection<UUID> createDetection(final DetectionFactory<UUID> factory) {
+        return factory.create(List.of(
+                Brightness.of(350.25),
+                Temperature.of(21.5, Temperature.Environment.ROOM),
+                Humidity.of(45.3),
+                Temperature.of(48.12, Temperature.Environment.HOT_WATER_PIPE),
+                Temperature.of(14.7, Temperature.Environment.COLD_WATER_PIPE),
+                Current.of(0.731),
+                FlowRate.of(2.5, FlowRate.FlowRateType.HOT),
+                FlowRate.of(1.25, FlowRate.FlowRateType.COLD)));
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.ecotrip.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.sensor.DetectionFactory;
+import io.github.ecotrip.sensor.Sensor;
+
+/**
+ * Sensor which always returns the same measures, negative values are considered invalid.
+ */
+public class StubSensor extends Sensor<UUID> {
+    private final CompletableFuture<List<Measure>> measures;
+
+    private StubSensor(final DetectionFactory<UUID> detectionFactory, final List<Measure> measures) {
+        super(UUID.randomUUID(), detectionFactory);
+        this.measures = CompletableFuture.completedFuture(measures);
+    }
+
+    @Override
+    protected CompletableFuture<List<Measure>> measure() {
+        return measures;
+    }
+
+    @Override
+    protected boolean isMeasureValid(final Measure measure) {
+        return measure.getValue() >= 0;
+    }
+
+    /**
+     * Factory method.
+     * @param detectionFactory used to create the detections.
+     * @param measures returned by every measurement.
+     * @return the {@link StubSensor}.
+     */
+    public static StubSensor of(final DetectionFactory<UUID> detectionFactory, final Measure... measures) {
+        return new StubSensor(detectionFactory, List.of(measures));
+    }
+}
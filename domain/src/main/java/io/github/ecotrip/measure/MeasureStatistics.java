@@ -0,0 +1,97 @@
+package io.github.ecotrip.measure;
+
+import java.util.function.BiConsumer;
+
+/**
+ * {@link RunningStatistics} kept for each {@link MeasureType}, indexed by its ordinal.
+ * All the statistics are allocated upfront, so collecting samples does not allocate.
+ * The class is not thread-safe: every thread should collect its own statistics, merged at the end.
+ */
+public class MeasureStatistics {
+    private static final MeasureType[] TYPES = MeasureType.values();
+    private final RunningStatistics[] statistics;
+
+    private MeasureStatistics() {
+        statistics = new RunningStatistics[TYPES.length];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = RunningStatistics.create();
+        }
+    }
+
+    public void add(final MeasureType type, final double value) {
+        statistics[type.ordinal()].add(value);
+    }
+
+    public void add(final Measure measure) {
+        add(measure.getType(), measure.getValue());
+    }
+
+    /**
+     * Adds the statistics collected by another instance, type by type.
+     * @param other statistics, left untouched.
+     */
+    public void merge(final MeasureStatistics other) {
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i].merge(other.statistics[i]);
+        }
+    }
+
+    /**
+     * Gets the live statistics of a type.
+     * @param type of the measures.
+     * @return the statistics, empty if no value of the type has been added.
+     */
+    public RunningStatistics get(final MeasureType type) {
+        return statistics[type.ordinal()];
+    }
+
+    /**
+     * Visits the statistics of the types which have at least a value.
+     * @param consumer of the statistics.
+     */
+    public void forEach(final BiConsumer<MeasureType, RunningStatistics> consumer) {
+        for (MeasureType type : TYPES) {
+            var typeStatistics = statistics[type.ordinal()];
+            if (!typeStatistics.isEmpty()) {
+                consumer.accept(type, typeStatistics);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a value has been added.
+     * @return true if all the statistics are empty.
+     */
+    public boolean isEmpty() {
+        for (RunningStatistics typeStatistics : statistics) {
+            if (!typeStatistics.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes all the values, keeping the allocated statistics.
+     */
+    public void reset() {
+        for (RunningStatistics typeStatistics : statistics) {
+            typeStatistics.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("MeasureStatistics{");
+        forEach((type, typeStatistics) -> builder.append(type.getName()).append('=').append(typeStatistics)
+                .append(", "));
+        if (!isEmpty()) {
+            builder.setLength(builder.length() - 2);
+        }
+        return builder.append('}').toString();
+    }
+
+    public static MeasureStatistics create() {
+        return new MeasureStatistics();
+    }
+}
@@ -13,7 +13,9 @@ public enum MeasureType {
     COLD_FLOW_RATE("cold_flow_rate"),
     CURRENT("current"),
     VOLTAGE("voltage"),
-    RESISTANCE("resistance");
+    RESISTANCE("resistance"),
+    APPARENT_POWER("apparent_power"),
+    CREST_FACTOR("crest_factor");
 
     private final String name;
 
@@ -0,0 +1,153 @@
+package io.github.ecotrip.measure;
+
+/**
+ * Streaming statistics of a sequence of values, updated with the Welford's algorithm.
+ * Only primitive fields are used, so adding a value does not allocate. Two instances can be merged,
+ * e.g. the partial statistics collected by different threads.
+ * The class is not thread-safe.
+ */
+public class RunningStatistics {
+    private long count;
+    private double mean;
+    private double squaredDistances;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    private RunningStatistics() { }
+
+    /**
+     * Adds a value.
+     * @param value to be added.
+     */
+    public void add(final double value) {
+        count++;
+        var delta = value - mean;
+        mean += delta / count;
+        squaredDistances += delta * (value - mean);
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+    }
+
+    /**
+     * Adds all the values summarized by other statistics, using the parallel variant of the algorithm.
+     * @param other statistics, left untouched.
+     */
+    public void merge(final RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            copyFrom(other);
+            return;
+        }
+        var total = count + other.count;
+        var delta = other.mean - mean;
+        mean += delta * other.count / total;
+        squaredDistances += other.squaredDistances + delta * delta * count * other.count / total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        count = total;
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void reset() {
+        count = 0;
+        mean = 0;
+        squaredDistances = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Arithmetic mean of the values.
+     * @return the mean, NaN if there are no values.
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Population variance of the values.
+     * @return the variance, NaN if there are no values.
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : squaredDistances / count;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Creates an independent copy, e.g. to keep the statistics of a window before resetting them.
+     * @return the copy.
+     */
+    public RunningStatistics copy() {
+        var copy = new RunningStatistics();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    private void copyFrom(final RunningStatistics other) {
+        count = other.count;
+        mean = other.mean;
+        squaredDistances = other.squaredDistances;
+        min = other.min;
+        max = other.max;
+    }
+
+    @Override
+    public String toString() {
+        return "RunningStatistics{"
+                + "count=" + count
+                + ", mean=" + getMean()
+                + ", min=" + min
+                + ", max=" + max
+                + ", stddev=" + getStandardDeviation()
+                + '}';
+    }
+
+    public static RunningStatistics create() {
+        return new RunningStatistics();
+    }
+
+    /**
+     * Restores the statistics from their summary, e.g. when they are read back from a message.
+     * @param count of the values.
+     * @param mean of the values.
+     * @param variance is the population variance of the values.
+     * @param min of the values.
+     * @param max of the values.
+     * @return the statistics, empty if the count is zero.
+     */
+    public static RunningStatistics of(final long count, final double mean, final double variance, final double min,
+                                       final double max) {
+        var statistics = new RunningStatistics();
+        if (count > 0) {
+            statistics.count = count;
+            statistics.mean = mean;
+            statistics.squaredDistances = variance * count;
+            statistics.min = min;
+            statistics.max = max;
+        }
+        return statistics;
+    }
+}
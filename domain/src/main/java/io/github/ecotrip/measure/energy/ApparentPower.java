@@ -0,0 +1,38 @@
+package io.github.ecotrip.measure.energy;
+
+import io.github.ecotrip.measure.CombinableMeasure;
+import io.github.ecotrip.measure.MeasureType;
+
+/**
+ * Apparent power measure in volt-amperes (VA)
+ */
+public class ApparentPower extends CombinableMeasure {
+    private ApparentPower(final double value) {
+        super(value, MeasureType.APPARENT_POWER);
+    }
+
+    /**
+     * Factory method
+     * @param voltAmperes apparent power in volt-amperes
+     * @return a new ApparentPower value object
+     */
+    public static ApparentPower of(final double voltAmperes) {
+        return new ApparentPower(voltAmperes);
+    }
+
+    public static ApparentPower of(final Current current, final Voltage voltage) {
+        return new ApparentPower(current.getValue() * voltage.getValue());
+    }
+
+    @Override
+    public String toString() {
+        return "ApparentPower{"
+                + "value=" + getValue() + " VA"
+                + '}';
+    }
+
+    @Override
+    protected CombinableMeasure combine(CombinableMeasure with) {
+        return ApparentPower.of(getValue() + with.getValue());
+    }
+}
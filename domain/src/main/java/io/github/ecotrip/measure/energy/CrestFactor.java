@@ -0,0 +1,29 @@
+package io.github.ecotrip.measure.energy;
+
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureType;
+
+/**
+ * Crest factor of a current, the ratio between its peak and its RMS value
+ */
+public class CrestFactor extends Measure {
+    private CrestFactor(final double value) {
+        super(value, MeasureType.CREST_FACTOR);
+    }
+
+    /**
+     * Factory method
+     * @param ratio between peak and RMS value
+     * @return a new CrestFactor value object
+     */
+    public static CrestFactor of(final double ratio) {
+        return new CrestFactor(ratio);
+    }
+
+    @Override
+    public String toString() {
+        return "CrestFactor{"
+                + "value=" + getValue()
+                + '}';
+    }
+}
@@ -1,11 +1,11 @@
 package io.github.ecotrip.sensor;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 
 import io.github.ecotrip.Entity;
 import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureStatistics;
 
 /**
  * Represents the instance of a measure done at some point.
@@ -18,13 +18,26 @@ public class Detection<ID> extends Entity<ID> {
     private Detection(final ID identifier, final Instant detectionTime, final List<Measure> values) {
         super(identifier);
         this.detectionTime = detectionTime;
-        this.measures = values;
+        this.measures = List.copyOf(values);
     }
 
     public static <ID> Detection<ID> of(final ID identifier, final List<Measure> values) {
         return new Detection<>(identifier, Instant.now(), values);
     }
 
+    /**
+     * Creates a detection done at a given time, for instance when it is read back from a message.
+     * @param identifier of the detection.
+     * @param detectionTime when the measures have been detected.
+     * @param values are the measures.
+     * @param <ID> is the type of the identifier.
+     * @return the detection.
+     */
+    public static <ID> Detection<ID> of(final ID identifier, final Instant detectionTime,
+                                        final List<Measure> values) {
+        return new Detection<>(identifier, detectionTime, values);
+    }
+
     public static <ID> Detection<ID> empty(final ID identifier) {
         return new Detection<>(identifier, Instant.now(), List.of());
     }
@@ -33,8 +46,22 @@ public class Detection<ID> extends Entity<ID> {
         return Instant.from(detectionTime);
     }
 
+    /**
+     * The measures are copied once, when the detection is created.
+     * @return an unmodifiable view of the measures.
+     */
     public List<Measure> getMeasures() {
-        return new ArrayList<>(measures);
+        return measures;
+    }
+
+    /**
+     * Adds all the measures to the statistics.
+     * @param statistics receiving the measures.
+     */
+    public void addTo(final MeasureStatistics statistics) {
+        for (Measure measure : measures) {
+            statistics.add(measure);
+        }
     }
 
     @Override
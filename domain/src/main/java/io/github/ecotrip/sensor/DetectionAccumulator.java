@@ -0,0 +1,97 @@
+package io.github.ecotrip.sensor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.ecotrip.measure.Measure;
+
+/**
+ * Mutable builder which collects the measures of many detections and creates a single {@link Detection}
+ * at the end, instead of merging them in pairs.
+ * Adding a measure costs amortized constant time and only one identifier is generated, by {@link #build()}.
+ * The accumulator is not thread-safe.
+ * @param <ID> uniquely identifies the Detection.
+ */
+public class DetectionAccumulator<ID> {
+    private final DetectionFactory<ID> detectionFactory;
+    private final List<Measure> measures;
+    private int detections;
+
+    private DetectionAccumulator(final DetectionFactory<ID> detectionFactory, final int expectedMeasures) {
+        this.detectionFactory = detectionFactory;
+        this.measures = new ArrayList<>(expectedMeasures);
+    }
+
+    /**
+     * Absorbs the measures of a detection.
+     * @param detection to be added.
+     * @return the accumulator itself.
+     */
+    public DetectionAccumulator<ID> add(final Detection<?> detection) {
+        measures.addAll(detection.getMeasures());
+        detections++;
+        return this;
+    }
+
+    /**
+     * Absorbs the samples of a frame, converting them to {@link Measure} objects.
+     * @param frame to be added.
+     * @return the accumulator itself.
+     */
+    public DetectionAccumulator<ID> add(final DetectionFrame.View frame) {
+        frame.forEach((type, value, timestamp) -> measures.add(Measures.of(type, value)));
+        detections++;
+        return this;
+    }
+
+    /**
+     * Absorbs the measures of all the given detections.
+     * @param detections to be added.
+     * @return the accumulator itself.
+     */
+    public DetectionAccumulator<ID> addAll(final Iterable<? extends Detection<?>> detections) {
+        detections.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * How many detections or frames have been added, including the empty ones.
+     * @return the number of detections.
+     */
+    public int getDetectionCount() {
+        return detections;
+    }
+
+    public int getMeasureCount() {
+        return measures.size();
+    }
+
+    /**
+     * Removes the collected measures, so the accumulator can be reused.
+     */
+    public void clear() {
+        measures.clear();
+        detections = 0;
+    }
+
+    /**
+     * Creates the detection containing all the collected measures, in insertion order.
+     * The accumulator is left untouched.
+     * @return the new Detection, empty when no measure has been collected.
+     */
+    public Detection<ID> build() {
+        return measures.isEmpty() ? detectionFactory.createEmpty() : detectionFactory.create(measures);
+    }
+
+    /**
+     * Factory method to create a {@link DetectionAccumulator} instance.
+     * @param detectionFactory used to create the final detection.
+     * @param expectedMeasures is the initial capacity.
+     * @param <ID> uniquely identifies the Detection.
+     * @return the empty accumulator.
+     */
+    public static <ID> DetectionAccumulator<ID> of(final DetectionFactory<ID> detectionFactory,
+                                                   final int expectedMeasures) {
+        return new DetectionAccumulator<>(detectionFactory, expectedMeasures);
+    }
+}
@@ -2,13 +2,12 @@ package io.github.ecotrip.sensor;
 
 import java.util.List;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import io.github.ecotrip.measure.Measure;
 
 /**
  * Helper class used to facilitate the Detection creation.
+ * The factory does not lock, the identifier generator must be thread-safe.
  * @param <ID>
  */
 public class DetectionFactory<ID> {
@@ -18,10 +17,19 @@ public class DetectionFactory<ID> {
         this.idGenerator = idGenerator;
     }
 
-    public synchronized Detection<ID> create(final List<Measure> measure) {
+    public Detection<ID> create(final List<Measure> measure) {
         return Detection.of(idGenerator.get(), measure);
     }
 
+    /**
+     * Creates a Detection from the samples of a frame, converting them back to {@link Measure} objects.
+     * @param frame containing the samples.
+     * @return the new Detection.
+     */
+    public Detection<ID> create(final DetectionFrame.View frame) {
+        return create(frame.toMeasures());
+    }
+
     /**
      * Creates a new Detection from the passing ones.
      * @param d1 the first Detection to be merged
@@ -29,12 +37,19 @@ public class DetectionFactory<ID> {
      * @return the new Detection containing the measures of both.
      */
     public Detection<ID> merge(Detection<ID> d1, Detection<ID> d2) {
-        var measures = Stream.concat(d1.getMeasures().stream(), d2.getMeasures().stream())
-                .collect(Collectors.toList());
-        return create(measures);
+        return accumulator(d1.getMeasures().size() + d2.getMeasures().size()).add(d1).add(d2).build();
+    }
+
+    /**
+     * Creates an accumulator, which merges many detections into a single one.
+     * @param expectedMeasures is the initial capacity.
+     * @return the empty accumulator.
+     */
+    public DetectionAccumulator<ID> accumulator(final int expectedMeasures) {
+        return DetectionAccumulator.of(this, expectedMeasures);
     }
 
-    public synchronized Detection<ID> createEmpty() {
+    public Detection<ID> createEmpty() {
         return Detection.empty(idGenerator.get());
     }
 
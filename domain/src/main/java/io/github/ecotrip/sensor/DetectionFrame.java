@@ -0,0 +1,281 @@
+package io.github.ecotrip.sensor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+
+/**
+ * Columnar and primitive storage of the measures, an alternative to a list of {@link Measure} objects.
+ * Every {@link MeasureType} owns a column, indexed by its ordinal, made of the values and of the timestamps
+ * in microseconds since the epoch. The columns grow when needed and are reused after {@link #clear()},
+ * so adding a sample does not allocate.
+ * The frame is not thread-safe.
+ */
+public class DetectionFrame {
+    /**
+     * Default number of samples per column before growing.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+    private static final MeasureType[] TYPES = MeasureType.values();
+    private final double[][] values;
+    private final long[][] timestamps;
+    private final int[] sizes;
+    private final View readOnlyView;
+    private int size;
+
+    private DetectionFrame(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.values = new double[TYPES.length][capacity];
+        this.timestamps = new long[TYPES.length][capacity];
+        this.sizes = new int[TYPES.length];
+        this.readOnlyView = new ReadOnlyView(this);
+    }
+
+    /**
+     * Appends a sample to the column of its type.
+     * @param type of the measure.
+     * @param value of the measure.
+     * @param timestampInMicros when the measure has been detected, in microseconds since the epoch.
+     * @return the frame itself.
+     */
+    public DetectionFrame add(final MeasureType type, final double value, final long timestampInMicros) {
+        var column = type.ordinal();
+        var index = sizes[column];
+        if (index == values[column].length) {
+            values[column] = Arrays.copyOf(values[column], index * 2);
+            timestamps[column] = Arrays.copyOf(timestamps[column], index * 2);
+        }
+        values[column][index] = value;
+        timestamps[column][index] = timestampInMicros;
+        sizes[column] = index + 1;
+        size++;
+        return this;
+    }
+
+    public DetectionFrame add(final Measure measure, final Instant detectionTime) {
+        return add(measure.getType(), measure.getValue(), toMicros(detectionTime));
+    }
+
+    /**
+     * Appends all the measures of a {@link Detection}, timestamped with its detection time.
+     * @param detection to be added.
+     * @return the frame itself.
+     */
+    public DetectionFrame add(final Detection<?> detection) {
+        var timestampInMicros = toMicros(detection.getDetectionTime());
+        for (Measure measure : detection.getMeasures()) {
+            add(measure.getType(), measure.getValue(), timestampInMicros);
+        }
+        return this;
+    }
+
+    /**
+     * Removes all the samples, keeping the allocated columns.
+     */
+    public void clear() {
+        Arrays.fill(sizes, 0);
+        size = 0;
+    }
+
+    /**
+     * Read-only view of the frame, it shares the columns so it does not copy anything.
+     * @return the view.
+     */
+    public View view() {
+        return readOnlyView;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int size(final MeasureType type) {
+        return sizes[type.ordinal()];
+    }
+
+    public double getValue(final MeasureType type, final int index) {
+        checkIndex(type, index);
+        return values[type.ordinal()][index];
+    }
+
+    public long getTimestampInMicros(final MeasureType type, final int index) {
+        checkIndex(type, index);
+        return timestamps[type.ordinal()][index];
+    }
+
+    /**
+     * Visits all the samples, grouped by type in ordinal order and then by insertion order.
+     * @param consumer of the samples.
+     */
+    public void forEach(final SampleConsumer consumer) {
+        for (MeasureType type : TYPES) {
+            forEach(type, consumer);
+        }
+    }
+
+    /**
+     * Visits the samples of a single type, in insertion order.
+     * @param type of the samples.
+     * @param consumer of the samples.
+     */
+    public void forEach(final MeasureType type, final SampleConsumer consumer) {
+        var column = type.ordinal();
+        for (int i = 0; i < sizes[column]; i++) {
+            consumer.accept(type, values[column][i], timestamps[column][i]);
+        }
+    }
+
+    /**
+     * Converts the samples into {@link Measure} objects, for the code which requires them.
+     * @return the measures in the same order of {@link #forEach(SampleConsumer)}.
+     */
+    public List<Measure> toMeasures() {
+        var measures = new ArrayList<Measure>(size);
+        forEach((type, value, timestamp) -> measures.add(Measures.of(type, value)));
+        return measures;
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("DetectionFrame{");
+        for (MeasureType type : TYPES) {
+            var column = type.ordinal();
+            if (sizes[column] > 0) {
+                builder.append(type.getName()).append('=')
+                        .append(Arrays.toString(Arrays.copyOf(values[column], sizes[column]))).append(", ");
+            }
+        }
+        if (size > 0) {
+            builder.setLength(builder.length() - 2);
+        }
+        return builder.append('}').toString();
+    }
+
+    private void checkIndex(final MeasureType type, final int index) {
+        if (index < 0 || index >= sizes[type.ordinal()]) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + type.getName());
+        }
+    }
+
+    private static long toMicros(final Instant instant) {
+        return TimeUnit.SECONDS.toMicros(instant.getEpochSecond())
+                + TimeUnit.NANOSECONDS.toMicros(instant.getNano());
+    }
+
+    public static DetectionFrame create() {
+        return new DetectionFrame(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Factory method to create an empty {@link DetectionFrame}.
+     * @param capacity is the initial number of samples per column.
+     * @return the frame.
+     */
+    public static DetectionFrame create(final int capacity) {
+        return new DetectionFrame(capacity);
+    }
+
+    /**
+     * Creates a frame containing the measures of the given detection.
+     * @param detection to be converted.
+     * @return the frame.
+     */
+    public static DetectionFrame of(final Detection<?> detection) {
+        return create().add(detection);
+    }
+
+    /**
+     * Consumes a single sample without boxing it.
+     */
+    @FunctionalInterface
+    public interface SampleConsumer {
+        void accept(MeasureType type, double value, long timestampInMicros);
+    }
+
+    /**
+     * Read access to the samples of a frame, see the frame's methods with the same name.
+     */
+    public interface View {
+        int size();
+
+        int size(MeasureType type);
+
+        double getValue(MeasureType type, int index);
+
+        long getTimestampInMicros(MeasureType type, int index);
+
+        void forEach(SampleConsumer consumer);
+
+        void forEach(MeasureType type, SampleConsumer consumer);
+
+        List<Measure> toMeasures();
+
+        default boolean isEmpty() {
+            return size() == 0;
+        }
+
+        /**
+         * Adds all the samples to the statistics.
+         * @param statistics receiving the samples.
+         */
+        default void addTo(final MeasureStatistics statistics) {
+            forEach((type, value, timestamp) -> statistics.add(type, value));
+        }
+    }
+
+    private static class ReadOnlyView implements View {
+        private final DetectionFrame frame;
+
+        ReadOnlyView(final DetectionFrame frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        public int size() {
+            return frame.size();
+        }
+
+        @Override
+        public int size(final MeasureType type) {
+            return frame.size(type);
+        }
+
+        @Override
+        public double getValue(final MeasureType type, final int index) {
+            return frame.getValue(type, index);
+        }
+
+        @Override
+        public long getTimestampInMicros(final MeasureType type, final int index) {
+            return frame.getTimestampInMicros(type, index);
+        }
+
+        @Override
+        public void forEach(final SampleConsumer consumer) {
+            frame.forEach(consumer);
+        }
+
+        @Override
+        public void forEach(final MeasureType type, final SampleConsumer consumer) {
+            frame.forEach(type, consumer);
+        }
+
+        @Override
+        public List<Measure> toMeasures() {
+            return frame.toMeasures();
+        }
+
+        @Override
+        public String toString() {
+            return frame.toString();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.ecotrip.sensor;
+
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.ambient.Brightness;
+import io.github.ecotrip.measure.ambient.Humidity;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.measure.energy.ApparentPower;
+import io.github.ecotrip.measure.energy.CrestFactor;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.measure.energy.Resistance;
+import io.github.ecotrip.measure.energy.Voltage;
+import io.github.ecotrip.measure.water.FlowRate;
+
+/**
+ * Factory of the concrete {@link Measure}s, kept out of the measure package so that the base class
+ * does not depend on its subclasses.
+ */
+public class Measures {
+    /**
+     * Creates the measure matching the given type, used to rebuild the measures stored as primitives.
+     * @param type of the measure.
+     * @param value of the measure.
+     * @return the new measure.
+     */
+    public static Measure of(final MeasureType type, final double value) {
+        switch (type) {
+        case ROOM_TEMPERATURE:
+            return Temperature.of(value, Temperature.Environment.ROOM);
+        case HOT_WATER_TEMPERATURE:
+            return Temperature.of(value, Temperature.Environment.HOT_WATER_PIPE);
+        case COLD_WATER_TEMPERATURE:
+            return Temperature.of(value, Temperature.Environment.COLD_WATER_PIPE);
+        case HUMIDITY:
+            return Humidity.of(value);
+        case BRIGHTNESS:
+            return Brightness.of(value);
+        case HOT_FLOW_RATE:
+            return FlowRate.of(value, FlowRate.FlowRateType.HOT);
+        case COLD_FLOW_RATE:
+            return FlowRate.of(value, FlowRate.FlowRateType.COLD);
+        case CURRENT:
+            return Current.of(value);
+        case VOLTAGE:
+            return Voltage.of(value);
+        case RESISTANCE:
+            return Resistance.of(value);
+        case APPARENT_POWER:
+            return ApparentPower.of(value);
+        case CREST_FACTOR:
+            return CrestFactor.of(value);
+        default:
+            throw new IllegalArgumentException("Unknown measure type: " + type);
+        }
+    }
+}
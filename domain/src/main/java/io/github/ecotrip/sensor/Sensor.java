@@ -2,6 +2,9 @@ package io.github.ecotrip.sensor;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import io.github.ecotrip.Entity;
@@ -13,18 +16,36 @@ import io.github.ecotrip.measure.Measure;
  */
 public abstract class Sensor<ID> extends Entity<ID> {
     private final DetectionFactory<ID> detectionFactory;
+    private final Executor executor;
 
     protected Sensor(final ID identifier, final DetectionFactory<ID> detectionFactory) {
+        this(identifier, detectionFactory, null);
+    }
+
+    /**
+     * Creates a sensor which performs its blocking reads inside the given executor.
+     * @param identifier of the sensor.
+     * @param detectionFactory used to create the detections.
+     * @param executor used by {@link #measure()}, when null the common pool is used.
+     */
+    protected Sensor(final ID identifier, final DetectionFactory<ID> detectionFactory, final Executor executor) {
         super(identifier);
         this.detectionFactory = detectionFactory;
+        this.executor = executor == null ? ForkJoinPool.commonPool() : executor;
     }
 
     /**
      * Async function used to retrieve the sensor's measurements.
-     * @return the measures wrapped inside a specif Detection object.
+     * @return the measures wrapped inside a specif Detection object. It fails if the executor rejects the read.
      */
     public CompletableFuture<Detection<ID>> detect() {
-        return measure().thenApply(m -> {
+        CompletableFuture<List<Measure>> measures;
+        try {
+            measures = measure();
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return measures.thenApply(m -> {
             var validMeasures = m.stream()
                     .filter(this::isMeasureValid)
                     .collect(Collectors.toUnmodifiableList());
@@ -35,6 +56,14 @@ public abstract class Sensor<ID> extends Entity<ID> {
         });
     }
 
+    /**
+     * The executor where the hardware reads must be performed.
+     * @return the executor.
+     */
+    protected Executor getExecutor() {
+        return executor;
+    }
+
     protected abstract CompletableFuture<List<Measure>> measure();
 
     protected abstract boolean isMeasureValid(Measure measure);
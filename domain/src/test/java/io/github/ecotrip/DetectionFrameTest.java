@@ -0,0 +1,80 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFactory;
+import io.github.ecotrip.sensor.DetectionFrame;
+import io.github.ecotrip.sensor.Measures;
+
+public class DetectionFrameTest {
+    @Test
+    public void testColumns() {
+        var frame = DetectionFrame.create(2);
+        for (int i = 0; i < 5; i++) {
+            frame.add(MeasureType.CURRENT, i, 1000L + i);
+        }
+        frame.add(MeasureType.HUMIDITY, 40, 2000L);
+        assertEquals(6, frame.size());
+        assertEquals(5, frame.size(MeasureType.CURRENT));
+        assertEquals(1, frame.size(MeasureType.HUMIDITY));
+        assertEquals(0, frame.size(MeasureType.BRIGHTNESS));
+        assertEquals(4, frame.getValue(MeasureType.CURRENT, 4));
+        assertEquals(1004L, frame.getTimestampInMicros(MeasureType.CURRENT, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> frame.getValue(MeasureType.BRIGHTNESS, 0));
+
+        var visited = new ArrayList<MeasureType>();
+        frame.view().forEach((type, value, timestamp) -> visited.add(type));
+        assertEquals(List.of(MeasureType.HUMIDITY, MeasureType.CURRENT, MeasureType.CURRENT, MeasureType.CURRENT,
+                MeasureType.CURRENT, MeasureType.CURRENT), visited);
+
+        var view = frame.view();
+        frame.clear();
+        assertTrue(view.isEmpty());
+        assertEquals(0, frame.size());
+        assertEquals(0, view.size(MeasureType.CURRENT));
+        frame.add(MeasureType.CURRENT, 7, 0);
+        assertFalse(view.isEmpty());
+        assertEquals(7, view.getValue(MeasureType.CURRENT, 0));
+    }
+
+    @Test
+    public void testDetectionConversion() {
+        var factory = DetectionFactory.of(UUID::randomUUID);
+        List<Measure> measures = List.of(Temperature.of(20, Temperature.Environment.ROOM), Current.of(5));
+        var detection = factory.create(measures);
+        var frame = DetectionFrame.of(detection);
+        assertEquals(2, frame.size());
+        var instant = detection.getDetectionTime();
+        assertEquals(instant.getEpochSecond() * 1000000 + instant.getNano() / 1000,
+                frame.getTimestampInMicros(MeasureType.CURRENT, 0));
+
+        Detection<UUID> converted = factory.create(frame.view());
+        assertEquals(measures, converted.getMeasures());
+        assertEquals("DetectionFrame{room_temperature=[20.0], current=[5.0]}", frame.toString());
+    }
+
+    @Test
+    public void testMeasureFactory() {
+        for (MeasureType type : MeasureType.values()) {
+            var measure = Measures.of(type, 1);
+            assertEquals(type, measure.getType());
+            assertEquals(1, measure.getValue());
+        }
+        assertEquals(Temperature.of(3, Temperature.Environment.COLD_WATER_PIPE),
+                Measures.of(MeasureType.COLD_WATER_TEMPERATURE, 3));
+    }
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
@@ -14,6 +15,7 @@ import io.github.ecotrip.measure.ambient.Temperature;
 import io.github.ecotrip.measure.energy.Current;
 import io.github.ecotrip.sensor.Detection;
 import io.github.ecotrip.sensor.DetectionFactory;
+import io.github.ecotrip.sensor.DetectionFrame;
 
 public class DetectionTest {
     @Test
@@ -54,4 +56,27 @@ public class DetectionTest {
         var d3 = factory.createEmpty();
         assertEquals(d3.getMeasures(), List.of());
     }
+
+    @Test
+    public void testAccumulator() {
+        var generated = new AtomicInteger();
+        var factory = DetectionFactory.of(generated::incrementAndGet);
+        var d1 = factory.create(List.of(Current.of(15)));
+        var d2 = factory.createEmpty();
+        var d3 = factory.create(List.of(Temperature.of(10, Temperature.Environment.COLD_WATER_PIPE), Current.of(1)));
+        var accumulator = factory.accumulator(4);
+        assertEquals(factory.createEmpty().getMeasures(), accumulator.build().getMeasures());
+
+        generated.set(0);
+        var merged = accumulator.addAll(List.of(d1, d2, d3)).build();
+        assertEquals(1, generated.get());
+        assertEquals(3, accumulator.getDetectionCount());
+        assertEquals(3, accumulator.getMeasureCount());
+        assertEquals(List.of(Current.of(15), Temperature.of(10, Temperature.Environment.COLD_WATER_PIPE),
+                Current.of(1)), merged.getMeasures());
+
+        accumulator.clear();
+        var frame = DetectionFrame.of(d1);
+        assertEquals(d1.getMeasures(), accumulator.add(frame.view()).build().getMeasures());
+    }
 }
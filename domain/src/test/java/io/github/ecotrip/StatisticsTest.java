@@ -0,0 +1,95 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.RunningStatistics;
+import io.github.ecotrip.measure.ambient.Humidity;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFrame;
+
+public class StatisticsTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testRunningStatistics() {
+        var statistics = RunningStatistics.create();
+        assertTrue(Double.isNaN(statistics.getMean()));
+        assertTrue(Double.isNaN(statistics.getVariance()));
+        for (double value : new double[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+            statistics.add(value);
+        }
+        assertEquals(8, statistics.getCount());
+        assertEquals(5, statistics.getMean(), DELTA);
+        assertEquals(4, statistics.getVariance(), DELTA);
+        assertEquals(2, statistics.getStandardDeviation(), DELTA);
+        assertEquals(2, statistics.getMin());
+        assertEquals(9, statistics.getMax());
+
+        var restored = RunningStatistics.of(8, 5, 4, 2, 9);
+        restored.merge(statistics);
+        assertEquals(16, restored.getCount());
+        assertEquals(4, restored.getVariance(), DELTA);
+        assertTrue(RunningStatistics.of(0, 5, 4, 2, 9).isEmpty());
+
+        var copy = statistics.copy();
+        statistics.reset();
+        assertTrue(statistics.isEmpty());
+        assertEquals(8, copy.getCount());
+        statistics.add(-1);
+        assertEquals(-1, statistics.getMin());
+        assertEquals(-1, statistics.getMax());
+    }
+
+    @Test
+    public void testMerge() {
+        var all = RunningStatistics.create();
+        var partials = new ArrayList<RunningStatistics>();
+        for (int p = 0; p < 3; p++) {
+            var partial = RunningStatistics.create();
+            for (int i = 0; i < 100 * (p + 1); i++) {
+                var value = Math.sin(i * (p + 1)) * 10 + p;
+                partial.add(value);
+                all.add(value);
+            }
+            partials.add(partial);
+        }
+        var merged = RunningStatistics.create();
+        merged.merge(RunningStatistics.create());
+        partials.forEach(merged::merge);
+        assertEquals(all.getCount(), merged.getCount());
+        assertEquals(all.getMean(), merged.getMean(), DELTA);
+        assertEquals(all.getVariance(), merged.getVariance(), DELTA);
+        assertEquals(all.getMin(), merged.getMin());
+        assertEquals(all.getMax(), merged.getMax());
+    }
+
+    @Test
+    public void testMeasureStatistics() {
+        var statistics = MeasureStatistics.create();
+        assertTrue(statistics.isEmpty());
+        Detection.of("d1", List.of(Current.of(1), Humidity.of(40))).addTo(statistics);
+        DetectionFrame.create().add(MeasureType.CURRENT, 3, 0).view().addTo(statistics);
+        var other = MeasureStatistics.create();
+        other.add(MeasureType.CURRENT, 5);
+        statistics.merge(other);
+        assertFalse(statistics.isEmpty());
+        assertEquals(3, statistics.get(MeasureType.CURRENT).getCount());
+        assertEquals(3, statistics.get(MeasureType.CURRENT).getMean(), DELTA);
+        assertEquals(40, statistics.get(MeasureType.HUMIDITY).getMean(), DELTA);
+        var visited = new ArrayList<MeasureType>();
+        statistics.forEach((type, s) -> visited.add(type));
+        assertEquals(List.of(MeasureType.HUMIDITY, MeasureType.CURRENT), visited);
+        statistics.reset();
+        assertTrue(statistics.isEmpty());
+    }
+}
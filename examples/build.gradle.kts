@@ -7,7 +7,6 @@ group = "io.github.ecotrip"
 
 application {
     mainClass.set("Application")
-    applicationDefaultJvmArgs = listOf("-Djava.util.concurrent.ForkJoinPool.common.parallelism=8")
 }
 
 repositories {
@@ -1,12 +1,14 @@
 import static io.github.ecotrip.aws.AwsHelpers.buildMqttConnection;
 import static io.github.ecotrip.aws.AwsHelpers.initCommandLineUtils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.pi4j.Pi4J;
 import com.pi4j.io.spi.SpiBus;
 import com.pi4j.io.spi.SpiChipSelect;
@@ -16,10 +18,20 @@ import io.github.ecotrip.Generated;
 import io.github.ecotrip.RoomMonitoringService;
 import io.github.ecotrip.adapter.AnalogChannel;
 import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.adapter.OutputAdapter;
 import io.github.ecotrip.adapter.Serializer;
+import io.github.ecotrip.adapter.output.BatchingOutputAdapter;
+import io.github.ecotrip.adapter.output.Outbox;
+import io.github.ecotrip.adapter.output.PublishWindow;
+import io.github.ecotrip.adapter.serializer.DetectionJsonWriter;
 import io.github.ecotrip.aws.AwsAdapter;
-import io.github.ecotrip.execution.engine.Engine;
+import io.github.ecotrip.execution.Execution;
+import io.github.ecotrip.execution.Futures;
 import io.github.ecotrip.execution.engine.EngineFactory;
+import io.github.ecotrip.execution.engine.InstrumentedEngine;
+import io.github.ecotrip.execution.engine.MissedTickPolicy;
+import io.github.ecotrip.identifier.TimeOrderedUuidGenerator;
+import io.github.ecotrip.measure.MeasureType;
 import io.github.ecotrip.measure.ambient.Temperature;
 import io.github.ecotrip.measure.water.FlowRate;
 import io.github.ecotrip.nfc.Pn532Controller;
@@ -27,8 +39,6 @@ import io.github.ecotrip.nfc.Pn532NfcAdapter;
 import io.github.ecotrip.nfc.channel.Pn532Channel;
 import io.github.ecotrip.object.Pair;
 import io.github.ecotrip.sensor.DetectionFactory;
-import io.github.ecotrip.serializer.DetectionSerializer;
-import io.github.ecotrip.serializer.JsonSerializer;
 import io.github.ecotrip.usecase.AuthorizationUseCases;
 import io.github.ecotrip.usecase.ConsumptionUseCases;
 import io.github.ecotrip.usecase.EnvironmentUseCases;
@@ -36,12 +46,19 @@ import io.github.ecotrip.usecase.EnvironmentUseCases;
 @Generated
 public class Application {
     private static final int I2C_BUS_ONE = 1;
+    private static final int ADC_READY_PIN = 24;
+    private static final int ADC_SCAN_START_TIMEOUT_MILLIS = 5 * Execution.SECOND_IN_MILLIS;
+    private static final int METRICS_LOG_INTERVAL_MILLIS = 60 * Execution.SECOND_IN_MILLIS;
+    private static final int BATCH_FLUSH_TIMEOUT_MILLIS = 5 * Execution.SECOND_IN_MILLIS;
 
     private static final Map<String, Pair<String, String>> commands = Map.of(
             "key", Pair.of("<path", "Path to your key in PEM format."),
             "cert", Pair.of("<path>", "Path to your client certificate in PEM format."),
             "client_id", Pair.of("<int>", "Client id to use (optional, default='test-*')."),
-            "port", Pair.of("<int>", "Port to connect to on the endpoint (optional, default='8883').")
+            "port", Pair.of("<int>", "Port to connect to on the endpoint (optional, default='8883')."),
+            "outbox", Pair.of("<path>", "Directory of the messages not sent yet (optional, default='outbox')."),
+            "batch", Pair.of("<boolean>", "Publish gzip JSON arrays of detections instead of one JSON message per "
+                    + "detection, the consumers must accept them (optional, default='false').")
     );
 
     /**
@@ -53,16 +70,29 @@ public class Application {
         var pi4j = Pi4J.newAutoContext();
 
         // Build sensors and set configurationsAWSIotTimeoutException
-        var detectionFactory = DetectionFactory.of(UUID::randomUUID);
-        var sensorFactory = new DeviceFactory<>(pi4j, detectionFactory, UUID::randomUUID);
+        var idGenerator = TimeOrderedUuidGenerator.create();
+        var detectionFactory = DetectionFactory.of(idGenerator);
+        // Hardware reads are blocking, keep them away from the common pool
+        var ioEngine = InstrumentedEngine.of("io", EngineFactory.createIoEngine());
+        var sensorFactory = new DeviceFactory<>(pi4j, detectionFactory, idGenerator, ioEngine.getContext());
         var bh1750 = sensorFactory.createBH1750(0x23, I2C_BUS_ONE);
-        var ads1105 = sensorFactory.createAds1105(0x48, I2C_BUS_ONE);
+        var ads1105 = sensorFactory.createAds1105(0x48, I2C_BUS_ONE, ADC_READY_PIN);
 
-        var ntc3950Hot = sensorFactory.createNtc3950(() -> ads1105.getData(AnalogChannel.A0_IN),
+        // One thread owns the ADC bus, the sensors read the latest conversions and the current stream;
+        // if the first scan round does not complete in time the sensors use single-shot conversions
+        ads1105.startScan()
+                .orTimeout(ADC_SCAN_START_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .exceptionally(t -> {
+                    Execution.logsError("ADC scan not started, using single-shot conversions: " + t);
+                    ads1105.stopScan();
+                    return null;
+                }).join();
+        var ntc3950Hot = sensorFactory.createNtc3950(ads1105.supplierOf(AnalogChannel.A0_IN),
                 Temperature.Environment.HOT_WATER_PIPE);
-        var ntc3950Cold = sensorFactory.createNtc3950(() -> ads1105.getData(AnalogChannel.A1_IN),
+        var ntc3950Cold = sensorFactory.createNtc3950(ads1105.supplierOf(AnalogChannel.A1_IN),
                 Temperature.Environment.COLD_WATER_PIPE);
-        var acs712 = sensorFactory.createAcs172(() -> ads1105.getData(AnalogChannel.A2_IN));
+        var acs712 = sensorFactory.createAcs172(ads1105.supplierOf(AnalogChannel.A2_IN),
+                ads1105.isScanning() ? ads1105.getSamples(AnalogChannel.A2_IN) : null);
         var chy7Hot = sensorFactory.createChy7(27, FlowRate.FlowRateType.HOT);
         var chy7Cold = sensorFactory.createChy7(22, FlowRate.FlowRateType.COLD);
         var dht22 = sensorFactory.createDht22(17);
@@ -81,40 +111,88 @@ public class Application {
                 .build();
 
         // Create engine to enable asynchronous programming
-        Engine engine = EngineFactory.createScheduledEngine(1);
+        var engine = InstrumentedEngine.of("sensors", EngineFactory.createScheduledEngine(1));
 
         // Create OutputAdapter using awsIotClient
         var cmdUtils = initCommandLineUtils(commands, args);
-        var connection = buildMqttConnection(cmdUtils);
+        var connectionResumed = new CompletableFuture<Outbox<String>>();
+        var connection = buildMqttConnection(cmdUtils, () -> connectionResumed.thenAccept(Outbox::resume));
         var awsAdapter = AwsAdapter.of(connection, cmdUtils.getCommand("thing_name"));
-
-        // Configure Serializer
-        var javaTimeModule = new JavaTimeModule();
-        var detectionModule = new SimpleModule()
-                .addSerializer(DetectionWrapper.class, new DetectionSerializer(DetectionWrapper.class));
-
-        Serializer<DetectionWrapper> serializer = JsonSerializer.of(javaTimeModule, detectionModule);
+        // Bound the publications waiting for the broker's acknowledgement, by number and by size
+        var publishWindow = new PublishWindow.Builder<String, byte[]>()
+                .setDelegate(awsAdapter.asBinaryOutput())
+                .setSizeFunction(payload -> payload.length)
+                .build();
+        // Keep the messages on disk until they are published, they survive the outages and the restarts;
+        // the deliveries are pipelined so that the window, not the outbox, limits the publications
+        var outbox = new Outbox.Builder<String>()
+                .setDirectory(Path.of(cmdUtils.getCommandOrDefault("outbox", "outbox")))
+                .setDelegate(publishWindow)
+                .setExecutor(ioEngine.getContext())
+                .setMaxInFlight(PublishWindow.Builder.DEFAULT_MAX_IN_FLIGHT)
+                .build();
+        connectionResumed.complete(outbox);
+        // Coalesce the detections, a message per minute instead of one per cycle, only when asked since it
+        // changes the published format
+        var batchingAdapter = Boolean.parseBoolean(cmdUtils.getCommandOrDefault("batch", "false"))
+                ? new BatchingOutputAdapter.Builder<String>()
+                        .setDelegate(outbox)
+                        .setExecutor(ioEngine.getContext())
+                        .setCompression(true)
+                        .build()
+                : null;
+        OutputAdapter<String, String> outputAdapter = batchingAdapter != null ? batchingAdapter
+                : message -> outbox.sendMessage(message.getBytes(StandardCharsets.UTF_8));
+
+        // Configure Serializer, same JSON of the Jackson DetectionSerializer without the intermediate objects
+        Serializer<DetectionWrapper> serializer = DetectionJsonWriter.create();
 
         // Create Room Monitoring Service
         var roomMonitoringService = RoomMonitoringService.of(
-                engine,
+                engine.withJobName("room-monitoring"),
                 consumptionUseCases,
                 environmentUseCases,
                 detectionFactory,
-                awsAdapter,
+                outputAdapter,
                 serializer
         );
+        // Report the slow environment measures by exception, with a full snapshot every minute
+        roomMonitoringService.setDeadband(MeasureType.ROOM_TEMPERATURE, 0.2, 0);
+        roomMonitoringService.setDeadband(MeasureType.HUMIDITY, 1, 0);
+        roomMonitoringService.setDeadband(MeasureType.BRIGHTNESS, 5, 0.05);
+        // Stretch the detection cycle while the broker does not keep up; during an outage the outbox keeps
+        // the messages on disk, so its backlog does not stretch the cycle
+        roomMonitoringService.setBackpressure(publishWindow::isSaturated);
 
         // Create the second engine
-        Engine engine2 = EngineFactory.createScheduledEngine(2);
+        var engine2 = InstrumentedEngine.of("authorization", EngineFactory.createScheduledEngine(2));
         // Create NFC adapter
         var nfcChannel = Pn532Channel.createSpi(pi4j, SpiBus.BUS_0, SpiChipSelect.CS_1);
-        var nfcAdapter = Pn532NfcAdapter.of(Pn532Controller.of(nfcChannel), engine2.getContext());
+        var nfcAdapter = Pn532NfcAdapter.of(Pn532Controller.of(nfcChannel), engine2.withJobName("nfc").getContext());
         // Create Authorization Service
         var authorizationUseCases = AuthorizationUseCases.of(awsAdapter, nfcAdapter);
         var authorizationService = AuthorizationService.of(engine2, authorizationUseCases);
-        awsAdapter.addObserver(authorizationService);
-        awsAdapter.addObserver(roomMonitoringService);
+        // Log the engines metrics periodically
+        ioEngine.withJobName("metrics").scheduleAtFixedRate(
+                t -> Execution.logsInfo(ioEngine.snapshot(), engine.snapshot(), engine2.snapshot(),
+                        batchingAdapter != null ? batchingAdapter.getMetrics().snapshot() : ""),
+                METRICS_LOG_INTERVAL_MILLIS, MissedTickPolicy.SKIP);
+        // Shadow updates arrive on the MQTT thread: only the latest token matters to the services
+        awsAdapter.addCoalescingObserver(authorizationService, engine2.withJobName("token").getContext());
+        awsAdapter.addCoalescingObserver(roomMonitoringService, engine.withJobName("token").getContext());
+
+        // Store the pending detections before leaving
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (batchingAdapter != null) {
+                Futures.safeGet(batchingAdapter.shutdown(), BATCH_FLUSH_TIMEOUT_MILLIS);
+            }
+            ads1105.stopScan();
+            try {
+                outbox.close();
+            } catch (IOException e) {
+                Execution.logsError(e);
+            }
+        }));
 
         awsAdapter.connect()
                 .thenCompose(u -> CompletableFuture.allOf(roomMonitoringService.start(), authorizationService.start()))
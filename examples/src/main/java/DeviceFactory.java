@@ -1,13 +1,18 @@
 // import java.util.Arrays;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import com.pi4j.context.Context;
 import com.pi4j.io.gpio.digital.*;
 
 import io.github.ecotrip.Generated;
+import io.github.ecotrip.adapter.AnalogChannel;
 import io.github.ecotrip.adapter.Pi4jProvider;
 import io.github.ecotrip.adapter.adc.AnalogDigitalConverter;
+import io.github.ecotrip.adapter.adc.ChannelSampling;
+import io.github.ecotrip.adapter.adc.DataRate;
 import io.github.ecotrip.adapter.adc.Gain;
+import io.github.ecotrip.adapter.adc.SampleRing;
 import io.github.ecotrip.adapter.builder.I2cBuilder;
 import io.github.ecotrip.adapter.sensor.*;
 import io.github.ecotrip.measure.ambient.Temperature;
@@ -23,20 +28,26 @@ import io.github.ecotrip.sensor.Sensor;
  */
 @Generated
 public class DeviceFactory<ID> {
+    private static final long NTC_SAMPLING_INTERVAL_MILLIS = 10_000;
+    private static final int NTC_OVERSAMPLING = 5;
     private final Context ctx;
     private final DetectionFactory<ID> detectionFactory;
     private final Supplier<ID> identifierGenerator;
+    private final Executor ioExecutor;
 
     /**
      * DeviceFactory constructor
      * @param ctx pi4j context
      * @param detectionFactory
      * @param identifierGenerator
+     * @param ioExecutor where the sensors perform their blocking reads
      */
-    public DeviceFactory(final Context ctx, DetectionFactory<ID> detectionFactory, Supplier<ID> identifierGenerator) {
+    public DeviceFactory(final Context ctx, DetectionFactory<ID> detectionFactory, Supplier<ID> identifierGenerator,
+                         final Executor ioExecutor) {
         this.ctx = ctx;
         this.detectionFactory = detectionFactory;
         this.identifierGenerator = identifierGenerator;
+        this.ioExecutor = ioExecutor;
     }
 
     /**
@@ -56,6 +67,7 @@ public class DeviceFactory<ID> {
                 .setI2C(channel)
                 .setIdentifier(identifierGenerator.get())
                 .setDetectionFactory(detectionFactory)
+                .setExecutor(ioExecutor)
                 .build();
     }
 
@@ -66,6 +78,17 @@ public class DeviceFactory<ID> {
      * @return
      */
     public AnalogDigitalConverter createAds1105(final int pin, final int i2cBus) {
+        return createAds1105(pin, i2cBus, null);
+    }
+
+    /**
+     * create ADS1105 with the ALERT/RDY pin wired to a GPIO
+     * @param pin
+     * @param i2cBus
+     * @param readyPin GPIO address of the ALERT/RDY pin, null to poll the config register
+     * @return
+     */
+    public AnalogDigitalConverter createAds1105(final int pin, final int i2cBus, final Integer readyPin) {
         var channel = new I2cBuilder<ID>(ctx)
                 .setProvider(Pi4jProvider.LINUX_FS_I2C)
                 .setPin(pin)
@@ -73,11 +96,32 @@ public class DeviceFactory<ID> {
                 .setIdentifier(identifierGenerator.get())
                 .build();
 
-        return new AnalogDigitalConverter(channel, new AnalogDigitalConverter.Configuration.Builder()
+        DigitalInput readyInput = null;
+        if (readyPin != null) {
+            // ALERT/RDY is an open-drain output; its pulses last a few microseconds, so the default debounce
+            // of the pin (10 ms) would filter them out
+            readyInput = ctx.create(DigitalInput.newConfigBuilder(ctx)
+                    .id(identifierGenerator.get().toString())
+                    .pull(PullResistance.PULL_UP)
+                    .debounce(0L)
+                    .address(readyPin)
+                    .provider(Pi4jProvider.PIGPIO_DI.getValue())
+                    .build());
+        }
+        var configuration = new AnalogDigitalConverter.Configuration.Builder()
                 .setGain(Gain.GAIN_6_144V)
                 .setConfigRegister(0x01)
                 .setConversionRegister(0x00)
-                .build());
+                .setScanChannels(AnalogChannel.A0_IN, AnalogChannel.A1_IN, AnalogChannel.A2_IN)
+                // the current waveform at the highest rate; a temperature averages the conversions of a whole
+                // mains cycle, which rejects the hum, and pauses the current stream for 20 ms only
+                .setSampling(AnalogChannel.A2_IN, ChannelSampling.continuous(DataRate.SPS_860))
+                .setSampling(AnalogChannel.A0_IN, ChannelSampling.of(DataRate.SPS_250, NTC_OVERSAMPLING,
+                        NTC_SAMPLING_INTERVAL_MILLIS))
+                .setSampling(AnalogChannel.A1_IN, ChannelSampling.of(DataRate.SPS_250, NTC_OVERSAMPLING,
+                        NTC_SAMPLING_INTERVAL_MILLIS))
+                .build();
+        return new AnalogDigitalConverter(channel, configuration, readyInput);
     }
 
     /**
@@ -103,6 +147,7 @@ public class DeviceFactory<ID> {
                 .setConfiguration(ntcConfiguration)
                 .setIdentifier(identifierGenerator.get())
                 .setDetectionFactory(detectionFactory)
+                .setExecutor(ioExecutor)
                 .build();
     }
 
@@ -147,6 +192,7 @@ public class DeviceFactory<ID> {
                 .setChannel(ctx.create(channelConfig))
                 .setIdentifier(identifierGenerator.get())
                 .setDetectionFactory(detectionFactory)
+                .setExecutor(ioExecutor)
                 .build();
     }
 
@@ -156,6 +202,16 @@ public class DeviceFactory<ID> {
      * @return
      */
     public Sensor<ID> createAcs172(final Supplier<Voltage> channel) {
+        return createAcs172(channel, null);
+    }
+
+    /**
+     * create ACS172 reading the stream of a scanning ADC
+     * @param channel
+     * @param samples
+     * @return
+     */
+    public Sensor<ID> createAcs172(final Supplier<Voltage> channel, final SampleRing samples) {
         var acsConfiguration = new AcsSensor.Configuration.Builder()
                 .setReferenceVoltage(Voltage.of(5))
                 .setScaleFactor(AcsSensor.ScaleFactor.ACS_20A)
@@ -163,8 +219,10 @@ public class DeviceFactory<ID> {
 
         return new AcsSensor.Builder<ID>()
                 .setChannel(channel)
+                .setSamples(samples)
                 .setConfiguration(acsConfiguration)
                 .setDetectionFactory(detectionFactory)
+                .setExecutor(ioExecutor)
                 .setIdentifier(identifierGenerator.get())
                 .build();
     }
@@ -1,5 +1,6 @@
 package io.github.ecotrip.aws;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -10,6 +11,8 @@ import org.slf4j.LoggerFactory;
 import io.github.ecotrip.Generated;
 import io.github.ecotrip.adapter.InputAdapter;
 import io.github.ecotrip.adapter.OutputAdapter;
+import io.github.ecotrip.adapter.output.BatchingOutputAdapter;
+import io.github.ecotrip.adapter.output.Outbox;
 import io.github.ecotrip.token.Token;
 import software.amazon.awssdk.crt.mqtt.MqttClientConnection;
 import software.amazon.awssdk.crt.mqtt.MqttMessage;
@@ -42,7 +45,23 @@ public class AwsAdapter extends InputAdapter implements OutputAdapter<String, St
         if (topic.isEmpty()) {
             return CompletableFuture.completedFuture(null);
         }
-        var msg = new MqttMessage(topic, message.getBytes(), QualityOfService.AT_LEAST_ONCE, false);
+        return publish(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Output adapter publishing raw payloads on the same topic of {@link #sendMessage(String)},
+     * e.g. the batches of a {@link BatchingOutputAdapter}. Unlike {@link #sendMessage(String)}, the payloads
+     * are rejected while the topic is unknown, so that an {@link Outbox} keeps them.
+     * @return the binary output adapter.
+     */
+    public OutputAdapter<String, byte[]> asBinaryOutput() {
+        return payload -> topic.isEmpty()
+                ? CompletableFuture.failedFuture(new IllegalStateException("MQTT topic not received yet"))
+                : publish(payload);
+    }
+
+    private CompletableFuture<Void> publish(final byte[] payload) {
+        var msg = new MqttMessage(topic, payload, QualityOfService.AT_LEAST_ONCE, false);
         return connection.publish(msg).thenRun(() -> {});
     }
 
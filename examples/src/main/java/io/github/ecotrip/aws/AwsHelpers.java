@@ -39,6 +39,16 @@ public class AwsHelpers {
      * @return
      */
     public static MqttClientConnection buildMqttConnection(final CommandLineUtils cmdUtils) {
+        return buildMqttConnection(cmdUtils, () -> { });
+    }
+
+    /**
+     * @param cmdUtils
+     * @param onResumed is run when the connection is restored after an interruption
+     * @return
+     */
+    public static MqttClientConnection buildMqttConnection(final CommandLineUtils cmdUtils,
+                                                           final Runnable onResumed) {
         var callbacks = new MqttClientConnectionEvents() {
             @Override
             public void onConnectionInterrupted(int errorCode) {
@@ -50,6 +60,7 @@ public class AwsHelpers {
             @Override
             public void onConnectionResumed(boolean sessionPresent) {
                 LOGGER.info("Connection resumed: " + (sessionPresent ? "existing session" : "clean session"));
+                onResumed.run();
             }
         };
 
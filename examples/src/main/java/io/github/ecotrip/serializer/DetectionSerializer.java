@@ -35,13 +35,35 @@ public class DetectionSerializer extends StdSerializer<DetectionWrapper> {
         jgen.writeObjectField("timestamp", detection.getDetectionTime());
         jgen.writeObjectField("sample_duration", data.getSampleDuration());
         jgen.writeObjectField("stayId", data.getStayId());
+        if (data.isDelta()) {
+            jgen.writeBooleanField("delta", true);
+        }
         jgen.writeObjectFieldStart("measures");
         for (Measure measure : detection.getMeasures()) {
-            var measureValue = measure.getType().equals(MeasureType.CURRENT)
-                    ? measure.getValue() * Current.AC_IN_VOLT : measure.getValue();
-            jgen.writeNumberField(measure.getType().getName(), Double.parseDouble(df.format(measureValue)));
+            jgen.writeNumberField(measure.getType().getName(), format(df, measure.getType(), measure.getValue()));
         }
         jgen.writeEndObject();
+        if (!data.getStatistics().isEmpty()) {
+            jgen.writeObjectFieldStart("statistics");
+            for (MeasureType type : MeasureType.values()) {
+                var statistics = data.getStatistics().get(type);
+                if (!statistics.isEmpty()) {
+                    jgen.writeObjectFieldStart(type.getName());
+                    jgen.writeNumberField("count", statistics.getCount());
+                    jgen.writeNumberField("mean", format(df, type, statistics.getMean()));
+                    jgen.writeNumberField("min", format(df, type, statistics.getMin()));
+                    jgen.writeNumberField("max", format(df, type, statistics.getMax()));
+                    jgen.writeNumberField("stddev", format(df, type, statistics.getStandardDeviation()));
+                    jgen.writeEndObject();
+                }
+            }
+            jgen.writeEndObject();
+        }
         jgen.writeEndObject();
     }
+
+    private static double format(final DecimalFormat df, final MeasureType type, final double value) {
+        var measureValue = type.equals(MeasureType.CURRENT) ? value * Current.AC_IN_VOLT : value;
+        return Double.parseDouble(df.format(measureValue));
+    }
 }
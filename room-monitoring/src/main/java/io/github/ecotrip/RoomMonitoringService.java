@@ -1,27 +1,33 @@
 package io.github.ecotrip;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import io.github.ecotrip.adapter.DetectionWrapper;
 import io.github.ecotrip.adapter.OutputAdapter;
 import io.github.ecotrip.adapter.Serializer;
+import io.github.ecotrip.adapter.output.PublishWindow;
 import io.github.ecotrip.execution.Execution;
 import io.github.ecotrip.execution.Futures;
 import io.github.ecotrip.execution.engine.Engine;
-import io.github.ecotrip.measure.CombinableMeasure;
-import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.execution.engine.MissedTickPolicy;
+import io.github.ecotrip.execution.engine.Tick;
+import io.github.ecotrip.measure.MeasureStatistics;
 import io.github.ecotrip.measure.MeasureType;
-import io.github.ecotrip.measure.energy.Current;
-import io.github.ecotrip.measure.water.FlowRate;
+import io.github.ecotrip.object.ObjectUtils;
 import io.github.ecotrip.pattern.Observer;
+import io.github.ecotrip.pipeline.DeadbandFilter;
+import io.github.ecotrip.pipeline.SensorSampler;
+import io.github.ecotrip.pipeline.WindowSpec;
+import io.github.ecotrip.pipeline.WindowedAggregator;
 import io.github.ecotrip.sensor.Detection;
 import io.github.ecotrip.sensor.DetectionFactory;
+import io.github.ecotrip.sensor.DetectionFrame;
 import io.github.ecotrip.token.Token;
 import io.github.ecotrip.usecase.ConsumptionUseCases;
 import io.github.ecotrip.usecase.EnvironmentUseCases;
@@ -29,28 +35,44 @@ import io.github.ecotrip.usecase.EnvironmentUseCases;
 /**
  * Contains the logic necessary to collect the data from the sensors, serialize
  * the final {@link Detection} and send it through an {@link OutputAdapter}.
+ * Consumption sensors are sampled continuously by a {@link SensorSampler} each,
+ * so the publish cadence does not depend on how slow the single sensors are.
+ * The collected values are aggregated by a {@link WindowedAggregator}, with a window per measure type.
+ * When the output signals backpressure the values are still collected, but the cycle is stretched: the windows
+ * are closed, and the message sent, when the output has room again or when the publication has been deferred
+ * by the maximum number of cycles.
+ * With a {@link DeadbandFilter} the service reports by exception: only the measures which changed more than
+ * their deadband, and their statistics, are sent, with a full snapshot every heartbeat. A snapshot holds the
+ * measures whose window closed in that cycle, the ones with a longer window keep their last reported value.
  */
 public class RoomMonitoringService implements Observer<Token> {
     /**
      * Default sampling interval
      */
     public static final int DEFAULT_DETECT_INTERVAL_SEC = 5;
+    /**
+     * Default sampling interval of the consumption sensors
+     */
+    public static final int DEFAULT_SAMPLING_INTERVAL_MILLIS = Execution.SECOND_IN_MILLIS;
+    /**
+     * Default number of detection intervals a publication can be deferred by the backpressure
+     */
+    public static final int DEFAULT_MAX_DEFERRED_CYCLES = 3;
     private static final int DEFAULT_DETECT_INTERVAL_MILLIS = Execution.SECOND_IN_MILLIS * DEFAULT_DETECT_INTERVAL_SEC;
-    private static final Map<MeasureType, Function<Double, Measure>> measureMap;
-    static {
-        measureMap = new HashMap<>();
-        measureMap.put(MeasureType.CURRENT, Current::of);
-        measureMap.put(MeasureType.COLD_FLOW_RATE, v -> FlowRate.of(v, FlowRate.FlowRateType.COLD));
-        measureMap.put(MeasureType.HOT_FLOW_RATE, v -> FlowRate.of(v, FlowRate.FlowRateType.HOT));
-    }
     private final ConsumptionUseCases<UUID> consumptionUseCases;
     private final EnvironmentUseCases<UUID> environmentUseCases;
     private final DetectionFactory<UUID> detectionFactory;
     private final Engine engine;
     private final OutputAdapter<String, String> outputAdapter;
     private final Serializer<DetectionWrapper> serializer;
+    private final Map<MeasureType, SensorSampler<UUID>> samplers;
+    private final WindowedAggregator aggregator;
+    private final DeadbandFilter deadbandFilter = DeadbandFilter.create();
+    private final MeasureStatistics statistics = MeasureStatistics.create();
+    private BooleanSupplier backpressure = () -> false;
+    private int maxDeferredCycles = DEFAULT_MAX_DEFERRED_CYCLES;
+    private long deferredInMillis;
     private int detectionInterval;
-    private int consumptionRepetitions;
     private String stayId;
 
     private RoomMonitoringService(final Engine engine,
@@ -65,67 +87,213 @@ public class RoomMonitoringService implements Observer<Token> {
         this.detectionFactory = detectionFactory;
         this.outputAdapter = outputAdapter;
         this.serializer = serializer;
+        this.samplers = new EnumMap<>(MeasureType.class);
+        samplers.put(MeasureType.CURRENT, SensorSampler.of(consumptionUseCases::detectCurrent,
+                engine.getContext(), DEFAULT_SAMPLING_INTERVAL_MILLIS));
+        samplers.put(MeasureType.HOT_FLOW_RATE, SensorSampler.of(consumptionUseCases::detectHotFlowRate,
+                engine.getContext(), DEFAULT_SAMPLING_INTERVAL_MILLIS));
+        samplers.put(MeasureType.COLD_FLOW_RATE, SensorSampler.of(consumptionUseCases::detectColdFlowRate,
+                engine.getContext(), DEFAULT_SAMPLING_INTERVAL_MILLIS));
+        this.aggregator = WindowedAggregator.of(
+                WindowSpec.tumbling(DEFAULT_DETECT_INTERVAL_MILLIS, WindowSpec.Aggregation.MEAN));
         setDetectionInterval(DEFAULT_DETECT_INTERVAL_MILLIS);
     }
 
     /**
      * Launches the service using the provided {@link Engine}.
+     * The consumption samplers are started first, then the collected data is published every detection interval,
+     * on the wall-clock multiples of the interval. Detections missed because of an overrun are skipped.
      * @return a {@link CompletableFuture} which represents the process on running state until finish.
      */
     public CompletableFuture<Void> start() {
-        return engine.schedule(() -> {
-            var currentConsumption = computeConsumptionAverage(consumptionUseCases::detectCurrent);
-            var hotFlowRateConsumption = computeConsumptionAverage(consumptionUseCases::detectHotFlowRate);
-            var coldFlowRateConsumption = computeConsumptionAverage(consumptionUseCases::detectColdFlowRate);
-            var futures = List.of(
-                    environmentUseCases.detectRoomBrightness(),
-                    environmentUseCases.detectRoomTemperatureAndHumidity(),
-                    environmentUseCases.detectHotWaterTemperature(),
-                    environmentUseCases.detectColdWaterTemperature(),
-                    currentConsumption, coldFlowRateConsumption, hotFlowRateConsumption
-            );
-            Futures.thenAll(futures, this::sendData, DEFAULT_DETECT_INTERVAL_MILLIS);
-        }, detectionInterval);
+        samplers.values().forEach(SensorSampler::start);
+        var publishing = engine.scheduleAtFixedRate(this::publish, detectionInterval, MissedTickPolicy.SKIP);
+        publishing.whenComplete((u, t) -> samplers.values().forEach(SensorSampler::stop));
+        return publishing;
     }
 
-
+    /**
+     * Changes how often the detections are published, which is also the default aggregation window.
+     * @param intervalInMillis is the time between two consecutive publications.
+     */
     public void setDetectionInterval(int intervalInMillis) {
         detectionInterval = intervalInMillis;
-        consumptionRepetitions = detectionInterval / Execution.SECOND_IN_MILLIS;
+        synchronized (aggregator) {
+            aggregator.setDefaultWindow(WindowSpec.tumbling(intervalInMillis, WindowSpec.Aggregation.MEAN));
+        }
+    }
+
+    /**
+     * Changes how often a consumption sensor is sampled, independently of the detection interval.
+     * @param measureType identifies the consumption sensor (current, hot or cold flow rate).
+     * @param intervalInMillis is the time between two consecutive samples.
+     */
+    public void setSamplingInterval(final MeasureType measureType, final int intervalInMillis) {
+        ObjectUtils.ifNotNull(samplers.get(measureType), s -> s.setSamplingInterval(intervalInMillis));
+    }
+
+    /**
+     * Changes the aggregation window of a measure, by default the measures are averaged every detection interval.
+     * Windows are closed at the end of the detection cycles, so their lengths should be multiples of the
+     * detection interval.
+     * @param measureType identifies the measure.
+     * @param windowSpec describes the window and the aggregation function.
+     */
+    public void setWindow(final MeasureType measureType, final WindowSpec windowSpec) {
+        synchronized (aggregator) {
+            aggregator.setWindow(measureType, windowSpec);
+        }
+    }
+
+    /**
+     * Reports the values of a measure only when they change more than the deadband, which is the greater of the
+     * two thresholds. The measures without a deadband are always reported.
+     * @param measureType identifies the measure.
+     * @param absoluteThreshold is the minimum change reported, in the unit of the measure.
+     * @param relativeThreshold is the minimum change reported, as a fraction of the last reported value.
+     */
+    public void setDeadband(final MeasureType measureType, final double absoluteThreshold,
+                            final double relativeThreshold) {
+        synchronized (aggregator) {
+            deadbandFilter.setDeadband(measureType, absoluteThreshold, relativeThreshold);
+        }
+    }
+
+    /**
+     * Changes how often all the measures are reported when some of them have a deadband.
+     * @param cycles is the number of published messages between two full snapshots.
+     */
+    public void setHeartbeat(final int cycles) {
+        synchronized (aggregator) {
+            deadbandFilter.setHeartbeat(cycles);
+        }
     }
 
-    private CompletableFuture<Void> sendData(final List<Detection<UUID>> detections) {
-        var mergedDetection = detections.stream().reduce(detectionFactory::merge);
-        if (mergedDetection.isPresent()) {
-            var message = this.serializer.serialize(
-                    DetectionWrapper.of(mergedDetection.get(), DEFAULT_DETECT_INTERVAL_SEC, stayId));
-            return outputAdapter.sendMessage(message)
-                    .thenRun(() -> Execution.logsInfo("Send message: " + message));
+    /**
+     * Sets the backpressure signal of the output, e.g. {@link PublishWindow#isSaturated()}.
+     * @param backpressure returns true when the output can not accept more messages.
+     */
+    public void setBackpressure(final BooleanSupplier backpressure) {
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * Bounds how long the backpressure can defer a publication, then the message is sent anyway.
+     * @param cycles is the maximum deferral, in detection intervals.
+     */
+    public void setMaxDeferredCycles(final int cycles) {
+        if (cycles < 0) {
+            throw new IllegalArgumentException("The maximum deferral can not be negative");
+        }
+        maxDeferredCycles = cycles;
+    }
+
+    private void publish(final Tick tick) {
+        if (tick.getSkippedTicks() > 0) {
+            Execution.logsInfo("Skipped " + tick.getSkippedTicks() + " detections, current one is late by "
+                    + TimeUnit.NANOSECONDS.toMillis(tick.getLatenessInNanos()) + " ms");
         }
-        return CompletableFuture.failedFuture(new Throwable("An error is occurred during the detection"));
+        publish((long) detectionInterval * (1 + tick.getSkippedTicks()));
+    }
+
+    /**
+     * Runs a single detection cycle: collects the environment detections and the consumption samples
+     * gathered since the previous cycle, adds them to the aggregation windows and sends the values
+     * of the windows which are closed.
+     * @return a {@link CompletableFuture} which completes when the message has been sent, or when there is no
+     *     closed window to send; it fails when no detection at all has been collected in the cycle.
+     */
+    public CompletableFuture<Void> publish() {
+        return publish(detectionInterval);
     }
 
-    private CompletableFuture<Detection<UUID>> computeConsumptionAverage(
-            final Supplier<CompletableFuture<Detection<UUID>>> detectionSupplier) {
-        final var initialAccumulator = CompletableFuture.completedFuture(detectionFactory.createEmpty());
-        return engine.submitAndRepeat(acc -> detectionSupplier.get()
-                        .thenCombine(acc, detectionFactory::merge), initialAccumulator, consumptionRepetitions, 1)
-                .thenApply(this::computeAverage);
+    private CompletableFuture<Void> publish(final long elapsedInMillis) {
+        var futures = List.of(
+                environmentUseCases.detectRoomBrightness(),
+                environmentUseCases.detectRoomTemperatureAndHumidity(),
+                environmentUseCases.detectHotWaterTemperature(),
+                environmentUseCases.detectColdWaterTemperature()
+        );
+        var samples = DetectionFrame.create();
+        samplers.values().forEach(sampler -> sampler.drainTo(samples));
+        return Futures.allWithin(futures, detectionInterval).thenCompose(results -> {
+            if (!results.getTimedOut().isEmpty()) {
+                Execution.logsInfo("Detections timed out: " + results.getTimedOut());
+            }
+            if (results.getResults().isEmpty() && samples.view().isEmpty()) {
+                return CompletableFuture.failedFuture(new Throwable("An error is occurred during the detection"));
+            }
+            var aggregated = DetectionFrame.create();
+            var reported = aggregated;
+            var delta = false;
+            var saturated = backpressure.getAsBoolean();
+            String message;
+            long publishedInMillis;
+            // the statistics are reused, so they are serialized before leaving the lock
+            synchronized (aggregator) {
+                aggregator.add(samples.view());
+                results.getResults().forEach(aggregator::add);
+                if (saturated && canDefer(elapsedInMillis)) {
+                    deferredInMillis += elapsedInMillis;
+                    Execution.logsInfo("Output saturated, publication deferred by " + deferredInMillis + " ms");
+                    return CompletableFuture.completedFuture(null);
+                }
+                statistics.reset();
+                publishedInMillis = elapsedInMillis + deferredInMillis;
+                aggregator.advance(publishedInMillis,
+                        TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()), aggregated, statistics);
+                deferredInMillis = 0;
+                if (aggregated.size() > 0 && deadbandFilter.isActive()) {
+                    reported = DetectionFrame.create();
+                    delta = !deadbandFilter.filter(aggregated.view(), reported);
+                }
+                if (delta) {
+                    dropUnreportedStatistics(reported);
+                }
+                message = serialize(reported.view(), publishedInMillis, delta);
+            }
+            return sendData(message);
+        });
     }
 
-    private Detection<UUID> computeAverage(final Detection<UUID> detection) {
-        var optMeasure = detection.getMeasures().stream()
-                .map(m -> (CombinableMeasure) m)
-                .reduce(CombinableMeasure::checkAndCombine);
+    /**
+     * The statistics describe the reported values only, a delta has none for the types suppressed by the deadband.
+     */
+    private void dropUnreportedStatistics(final DetectionFrame reported) {
+        for (MeasureType type : MeasureType.values()) {
+            if (reported.size(type) == 0) {
+                statistics.get(type).reset();
+            }
+        }
+    }
 
-        if (optMeasure.isEmpty()) {
-            return detectionFactory.createEmpty();
+    private boolean canDefer(final long elapsedInMillis) {
+        return deferredInMillis + elapsedInMillis <= (long) maxDeferredCycles * detectionInterval;
+    }
+
+    private String serialize(final DetectionFrame.View aggregated, final long publishedInMillis,
+                             final boolean delta) {
+        if (aggregated.isEmpty()) {
+            return null;
         }
+        return this.serializer.serialize(DetectionWrapper.of(detectionFactory.create(aggregated),
+                toSampleDurationInSeconds(publishedInMillis), stayId, statistics, delta));
+    }
 
-        var measureType = optMeasure.get().getType();
-        double measureValue = optMeasure.get().getValue() / ((double) detectionInterval / Execution.SECOND_IN_MILLIS);
+    private CompletableFuture<Void> sendData(final String message) {
+        if (message == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return outputAdapter.sendMessage(message)
+                .thenRun(() -> Execution.logsInfo("Send message: " + message));
+    }
 
-        return detectionFactory.create(List.of(measureMap.get(measureType).apply(measureValue)));
+    /**
+     * The sample duration is the time covered by the message: the cycle, stretched by the skipped
+     * and the deferred cycles.
+     */
+    private static int toSampleDurationInSeconds(final long publishedInMillis) {
+        return (int) Math.max(1, Math.round(publishedInMillis / (double) Execution.SECOND_IN_MILLIS));
     }
 
     /**
@@ -150,6 +318,6 @@ public class RoomMonitoringService implements Observer<Token> {
 
     @Override
     public void notify(final Token token) {
-        this.stayId = JwtParser.getPayload(token.getValue()).getString("stayId");
+        this.stayId = JwtParser.getClaims(token.getValue()).getStayId();
     }
 }
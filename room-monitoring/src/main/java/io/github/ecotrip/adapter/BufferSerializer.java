@@ -0,0 +1,43 @@
+package io.github.ecotrip.adapter;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializer contract for the binary payloads, the element is written inside a {@link ByteBuffer}.
+ * @param <S> is the type of the object to serialize.
+ */
+public interface BufferSerializer<S> {
+    /**
+     * Initial size of the array created by {@link #serializeToBytes(Object)}.
+     */
+    int DEFAULT_PAYLOAD_SIZE = 512;
+
+    /**
+     * Writes the element at the current position of the buffer.
+     * @param element to be serialized.
+     * @param target is the destination buffer.
+     * @throws BufferOverflowException if the buffer is too small.
+     */
+    void serialize(S element, ByteBuffer target);
+
+    /**
+     * Serializes the element inside a new array of the exact size.
+     * @param element to be serialized.
+     * @return the payload.
+     */
+    default byte[] serializeToBytes(S element) {
+        var size = DEFAULT_PAYLOAD_SIZE;
+        while (true) {
+            var buffer = ByteBuffer.allocate(size);
+            try {
+                serialize(element, buffer);
+                var payload = new byte[buffer.position()];
+                buffer.flip().get(payload);
+                return payload;
+            } catch (BufferOverflowException e) {
+                size *= 2;
+            }
+        }
+    }
+}
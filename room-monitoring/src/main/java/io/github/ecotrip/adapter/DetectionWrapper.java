@@ -2,6 +2,7 @@ package io.github.ecotrip.adapter;
 
 import java.util.UUID;
 
+import io.github.ecotrip.measure.MeasureStatistics;
 import io.github.ecotrip.sensor.Detection;
 
 /**
@@ -14,14 +15,22 @@ public class DetectionWrapper {
 
     private final Detection<UUID> detection;
 
-    private DetectionWrapper(final Detection<UUID> detection, final int sampleDuration, final String stayId) {
+    private final MeasureStatistics statistics;
+
+    private final boolean delta;
+
+    private DetectionWrapper(final Detection<UUID> detection, final int sampleDuration, final String stayId,
+                             final MeasureStatistics statistics, final boolean delta) {
         this.detection = detection;
         this.sampleDuration = sampleDuration;
         this.stayId = stayId;
+        this.statistics = statistics;
+        this.delta = delta;
     }
 
     /**
-     * Gets the sample duration
+     * Gets the sample duration, that is the time elapsed since the previous message, skipped and deferred
+     * cycles included. A measure with a longer aggregation window covers its own window instead.
      *
      * @return the sample duration in seconds.
      */
@@ -47,6 +56,27 @@ public class DetectionWrapper {
         return detection;
     }
 
+    /**
+     * Gets the statistics of the samples averaged inside the {@link Detection}
+     *
+     * @return the statistics, empty when the measures have not been sampled
+     */
+    public MeasureStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Tells if the {@link Detection} contains only the measures changed since the previous report,
+     * the missing ones keep their last reported value.
+     * A full snapshot contains every measure aggregated in the cycle, the measures whose window has not closed
+     * yet are missing anyway.
+     *
+     * @return true for a delta, false for a full snapshot
+     */
+    public boolean isDelta() {
+        return delta;
+    }
+
     /**
      * Helper construction method
      *
@@ -59,6 +89,42 @@ public class DetectionWrapper {
             final Detection<UUID> detection,
             final int sampleDurationInSeconds,
             final String stayId) {
-        return new DetectionWrapper(detection, sampleDurationInSeconds, stayId);
+        return of(detection, sampleDurationInSeconds, stayId, MeasureStatistics.create());
+    }
+
+    /**
+     * Helper construction method
+     *
+     * @param stayId id which identifies the client stay
+     * @param sampleDurationInSeconds sample rate in seconds
+     * @param detection is the wrapped {@link Detection}
+     * @param statistics of the samples averaged inside the detection
+     * @return the instance of {@link DetectionWrapper}
+     */
+    public static DetectionWrapper of(
+            final Detection<UUID> detection,
+            final int sampleDurationInSeconds,
+            final String stayId,
+            final MeasureStatistics statistics) {
+        return of(detection, sampleDurationInSeconds, stayId, statistics, false);
+    }
+
+    /**
+     * Helper construction method
+     *
+     * @param stayId id which identifies the client stay
+     * @param sampleDurationInSeconds sample rate in seconds
+     * @param detection is the wrapped {@link Detection}
+     * @param statistics of the samples averaged inside the detection
+     * @param delta tells if the detection contains only the changed measures
+     * @return the instance of {@link DetectionWrapper}
+     */
+    public static DetectionWrapper of(
+            final Detection<UUID> detection,
+            final int sampleDurationInSeconds,
+            final String stayId,
+            final MeasureStatistics statistics,
+            final boolean delta) {
+        return new DetectionWrapper(detection, sampleDurationInSeconds, stayId, statistics, delta);
     }
 }
@@ -1,20 +1,57 @@
 package io.github.ecotrip.adapter.adc;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.i2c.I2C;
 
 import io.github.ecotrip.Generated;
 import io.github.ecotrip.adapter.AnalogChannel;
-import io.github.ecotrip.execution.Execution;
+import io.github.ecotrip.execution.PreciseDelay;
 import io.github.ecotrip.measure.energy.Voltage;
+import io.github.ecotrip.metrics.Histogram;
 
 /**
  * ADC multichannel
+ * By default every read is a single-shot conversion performed by the calling thread.
+ * In scan mode a single owner thread keeps the converter in continuous mode and cycles the scanned channels
+ * at the configured data rate, publishing every conversion into a {@link LatestSample} and a {@link SampleRing}
+ * per channel: the reads of the scanned channels do not touch the bus anymore.
+ * The end of a conversion is signalled by the ALERT/RDY pin, when it is wired, with the comparator configured
+ * in conversion-ready mode; otherwise the conversions are single-shot and the OS bit of the config register
+ * is polled after the nominal conversion time.
+ * Every channel is sampled according to its {@link ChannelSampling}: the data rate of the conversions, the number
+ * of conversions averaged into a sample and, for the slow channels, the interval between two samples.
  */
 @Generated
 public class AnalogDigitalConverter {
-    private static final int INTERVAL_READ_WRITE = 800;
+    private static final int OPERATIONAL_STATUS = 0b1000000000000000;
+    private static final int MODE_SINGLE_SHOT = 0b0000000100000000;
+    private static final int COMPARATOR_QUEUE = 0b0000000000000011;
+    private static final int HI_THRESH_READY = 0x8000;
+    private static final int LO_THRESH_READY = 0x0000;
+    private static final double OSCILLATOR_ACCURACY = 0.1;
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int CHANNELS = AnalogChannel.values().length;
     private final I2C channel;
     private final Configuration configuration;
+    private final PreciseDelay conversionDelay;
+    private final ReadySignal readySignal;
+    private final Histogram conversionTimes = new Histogram();
+    private final AtomicLong readyTimeouts = new AtomicLong();
+    private final LatestSample[] latestSamples = new LatestSample[CHANNELS];
+    private final SampleRing[] sampleRings = new SampleRing[CHANNELS];
+    private final boolean[] scanned = new boolean[CHANNELS];
+    private final AtomicLong scanErrors = new AtomicLong();
+    private volatile boolean scanning;
+    private Thread scanner;
+    private int lastConfig = -1;
 
     /**
      * ADC constructor
@@ -22,28 +59,286 @@ public class AnalogDigitalConverter {
      * @param configuration ADC work configuration
      */
     public AnalogDigitalConverter(I2C channel, Configuration configuration) {
+        this(channel, configuration, null);
+    }
+
+    /**
+     * ADC constructor, the comparator is configured to signal the end of every conversion on the given pin
+     * @param channel PI channel interface
+     * @param configuration ADC work configuration
+     * @param readyPin input wired to the ALERT/RDY pin, null to poll the config register
+     */
+    public AnalogDigitalConverter(I2C channel, Configuration configuration, DigitalInput readyPin) {
         this.configuration = configuration;
         this.channel = channel;
+        this.conversionDelay = PreciseDelay.of(configuration.delayToleranceInMicros);
+        this.readySignal = readyPin == null ? null : new ReadySignal(readyPin);
+        if (readySignal != null) {
+            // a negative high threshold and a positive low one turn the comparator into the ready signal
+            channel.writeRegisterWord(configuration.hiThreshRegister, HI_THRESH_READY);
+            channel.writeRegisterWord(configuration.loThreshRegister, LO_THRESH_READY);
+        }
+        for (int i = 0; i < CHANNELS; i++) {
+            latestSamples[i] = new LatestSample();
+            sampleRings[i] = SampleRing.of(configuration.ringCapacity);
+        }
+        for (AnalogChannel scannedChannel : configuration.scanChannels) {
+            scanned[scannedChannel.ordinal()] = true;
+        }
+    }
+
+    /**
+     * Reads the voltage of a channel: the latest scanned conversion in scan mode,
+     * otherwise a blocking single-shot conversion.
+     * @param channel to be read.
+     * @return the voltage.
+     */
+    public Voltage getData(final AnalogChannel channel) {
+        if (scanning && scanned[channel.ordinal()]) {
+            return Voltage.of(latestSamples[channel.ordinal()].getVoltage());
+        }
+        return getSingleShotData(channel);
+    }
+
+    /**
+     * @param channel to be read.
+     * @return a supplier of the voltage of the channel, for the sensors.
+     */
+    public Supplier<Voltage> supplierOf(final AnalogChannel channel) {
+        return () -> getData(channel);
+    }
+
+    /**
+     * Starts the scan mode, the configured channels are converted round-robin by a dedicated thread.
+     * @return a future completed once every scanned channel has a sample.
+     */
+    public synchronized CompletableFuture<Void> startScan() {
+        if (scanning) {
+            return CompletableFuture.completedFuture(null);
+        }
+        var firstRound = new CompletableFuture<Void>();
+        scanning = true;
+        scanner = new Thread(() -> scan(firstRound), "adc-scan");
+        scanner.setDaemon(true);
+        scanner.start();
+        return firstRound;
+    }
+
+    /**
+     * Stops the scan mode and waits for the scanning thread, the next reads are single-shot conversions.
+     */
+    public void stopScan() {
+        Thread stopped;
+        synchronized (this) {
+            scanning = false;
+            stopped = scanner;
+            scanner = null;
+        }
+        if (stopped != null) {
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isScanning() {
+        return scanning;
+    }
+
+    /**
+     * Latest scanned conversion of a channel, readable without locks.
+     * @param channel of the sample.
+     * @return the slot of the channel.
+     */
+    public LatestSample getLatest(final AnalogChannel channel) {
+        return latestSamples[channel.ordinal()];
+    }
+
+    /**
+     * Scanned conversions of a channel, for the consumers which need every sample.
+     * @param channel of the samples.
+     * @return the ring of the channel.
+     */
+    public SampleRing getSamples(final AnalogChannel channel) {
+        return sampleRings[channel.ordinal()];
+    }
+
+    /**
+     * @return the number of failed conversions while scanning.
+     */
+    public long getScanErrors() {
+        return scanErrors.get();
     }
 
-    public synchronized Voltage getData(final AnalogChannel channel) {
-        var rawData = readIn(calculateConfig(channel.getId()));
-        return Voltage.of(rawData * configuration.gain.getValuePerByte());
+    /**
+     * @return the number of conversions whose end has not been signalled in time, they are read anyway.
+     */
+    public long getReadyTimeouts() {
+        return readyTimeouts.get();
+    }
+
+    /**
+     * Time from the start of a conversion to its ready signal.
+     * @return the histogram in nanoseconds.
+     */
+    public Histogram getConversionTimes() {
+        return conversionTimes;
     }
 
     /**
-     * Blocking method to retrive raw data from the converter
+     * How late the OS bit is polled the first time with respect to the nominal conversion time.
+     * @return the overshoot histogram in nanoseconds.
+     */
+    public Histogram getConversionDelayOvershoot() {
+        return conversionDelay.getOvershoot();
+    }
+
+    public boolean isReadyPinEnabled() {
+        return readySignal != null;
+    }
+
+    private synchronized Voltage getSingleShotData(final AnalogChannel channel) {
+        return Voltage.of(convert(channel, false));
+    }
+
+    /**
+     * Owner loop of the scan mode. The continuous channels are converted round-robin, the periodic ones
+     * are interleaved when they are due; with only periodic channels the thread sleeps in between.
+     */
+    private void scan(final CompletableFuture<Void> firstRound) {
+        var continuous = Arrays.stream(configuration.scanChannels)
+                .filter(c -> !configuration.getSampling(c).isPeriodic())
+                .toArray(AnalogChannel[]::new);
+        var periodic = Arrays.stream(configuration.scanChannels)
+                .filter(c -> configuration.getSampling(c).isPeriodic())
+                .distinct()
+                .toArray(AnalogChannel[]::new);
+        var nextSamples = new long[CHANNELS];
+        Arrays.fill(nextSamples, System.nanoTime());
+        while (scanning) {
+            var idle = MAX_IDLE_NANOS;
+            for (AnalogChannel periodicChannel : periodic) {
+                var now = System.nanoTime();
+                var untilNext = nextSamples[periodicChannel.ordinal()] - now;
+                if (untilNext <= 0) {
+                    sample(periodicChannel);
+                    untilNext = configuration.getSampling(periodicChannel).getIntervalInNanos();
+                    nextSamples[periodicChannel.ordinal()] = now + untilNext;
+                }
+                idle = Math.min(idle, untilNext);
+            }
+            for (AnalogChannel continuousChannel : continuous) {
+                sample(continuousChannel);
+            }
+            if (continuous.length == 0) {
+                LockSupport.parkNanos(idle);
+            }
+            if (!firstRound.isDone() && isEveryChannelSampled()) {
+                firstRound.complete(null);
+            }
+        }
+        firstRound.cancel(false);
+    }
+
+    private void sample(final AnalogChannel scannedChannel) {
+        try {
+            double voltage;
+            synchronized (this) {
+                voltage = convert(scannedChannel, true);
+            }
+            var timestamp = System.nanoTime() / 1000;
+            latestSamples[scannedChannel.ordinal()].publish(voltage, timestamp);
+            sampleRings[scannedChannel.ordinal()].add(voltage, timestamp);
+        } catch (RuntimeException e) {
+            scanErrors.incrementAndGet();
+            LockSupport.parkNanos(configuration.getSampling(scannedChannel).getSampleTimeInNanos());
+        }
+    }
+
+    /**
+     * Averages the consecutive conversions of a channel, a boxcar decimation filter: the noise of the
+     * sample decreases with the square root of the oversampling factor.
+     * With the ready pin the scan keeps the converter in continuous mode, so the converter restarts when
+     * the mux changes and signals the first result of the new channel; otherwise every conversion is
+     * single-shot, since the OS bit is meaningful in that mode only.
+     */
+    private double convert(final AnalogChannel analogChannel, final boolean scan) {
+        var sampling = configuration.getSampling(analogChannel);
+        var config = calculateConfig(analogChannel.getId(), sampling.getDataRate());
+        if (scan && readySignal != null) {
+            config &= ~MODE_SINGLE_SHOT;
+        }
+        long total = 0;
+        for (int i = 0; i < sampling.getOversampling(); i++) {
+            // the conversions are signed, the single-ended ones can be slightly negative near ground
+            total += (short) readIn(config, sampling.getDataRate().getConversionTimeInNanos());
+        }
+        return (double) total * configuration.gain.getValuePerByte() / sampling.getOversampling();
+    }
+
+    private boolean isEveryChannelSampled() {
+        return Arrays.stream(configuration.scanChannels).noneMatch(c -> latestSamples[c.ordinal()].isEmpty());
+    }
+
+    /**
+     * Blocking method to retrive raw data from the converter.
+     * In continuous mode the config is not written again when it does not change, the converter
+     * is already converting the same channel and signals every result.
      * @param config includes the channel used to get the data
+     * @param conversionTime is the nominal conversion time in nanoseconds
      * @return the raw value
      */
-    private int readIn(int config) {
-        channel.writeRegisterWord(configuration.configRegister, config);
-        Execution.delayMicroseconds(INTERVAL_READ_WRITE);
+    private int readIn(int config, long conversionTime) {
+        var start = System.nanoTime();
+        boolean ready;
+        if (config == lastConfig && (config & MODE_SINGLE_SHOT) == 0) {
+            ready = readySignal.awaitNext(getReadyTimeout(conversionTime));
+        } else {
+            channel.writeRegisterWord(configuration.configRegister, config);
+            lastConfig = config;
+            var minimum = (long) (conversionTime * (1 - OSCILLATOR_ACCURACY));
+            ready = readySignal != null
+                    ? awaitReadyPin(start, minimum, conversionTime)
+                    : pollOperationalStatus(start, minimum, conversionTime);
+        }
+        if (!ready) {
+            readyTimeouts.incrementAndGet();
+        }
+        conversionTimes.record(System.nanoTime() - start);
         return channel.readRegisterWord(configuration.conversionRegister);
     }
 
-    private int calculateConfig(int pinId) {
-        return configuration.template | configuration.gain.getValue() | pinId;
+    private boolean awaitReadyPin(final long start, final long minimum, final long conversionTime) {
+        readySignal.arm();
+        return readySignal.await(start, minimum, getReadyTimeout(conversionTime));
+    }
+
+    /**
+     * The thread sleeps for the shortest conversion time, then polls the OS bit, which is set back
+     * once the single-shot conversion is complete.
+     */
+    private boolean pollOperationalStatus(final long start, final long minimum, final long conversionTime) {
+        conversionDelay.delay(minimum);
+        var timeout = getReadyTimeout(conversionTime);
+        while ((channel.readRegisterWord(configuration.configRegister) & OPERATIONAL_STATUS) == 0) {
+            if (System.nanoTime() - start > timeout) {
+                return false;
+            }
+            LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+        }
+        return true;
+    }
+
+    private static long getReadyTimeout(final long conversionTime) {
+        return 2 * conversionTime;
+    }
+
+    private int calculateConfig(int pinId, DataRate dataRate) {
+        var config = dataRate.applyTo(configuration.template) | configuration.gain.getValue() | pinId;
+        // any queue length but the disabled one asserts the pin after each conversion
+        return readySignal != null ? config & ~COMPARATOR_QUEUE : config;
     }
 
     /**
@@ -54,12 +349,37 @@ public class AnalogDigitalConverter {
         private final int conversionRegister;
         private final Gain gain;
         private final int template;
+        private final int delayToleranceInMicros;
+        private final int loThreshRegister;
+        private final int hiThreshRegister;
+        private final AnalogChannel[] scanChannels;
+        private final ChannelSampling[] samplings;
+        private final int ringCapacity;
 
-        private Configuration(int configRegister, int conversionRegister, Gain gain, int template) {
+        private Configuration(int configRegister, int conversionRegister, int loThreshRegister, int hiThreshRegister,
+                              Gain gain, int template, int delayToleranceInMicros, AnalogChannel[] scanChannels,
+                              ChannelSampling[] samplings, int ringCapacity) {
             this.configRegister = configRegister;
             this.conversionRegister = conversionRegister;
+            this.loThreshRegister = loThreshRegister;
+            this.hiThreshRegister = hiThreshRegister;
             this.gain = gain;
             this.template = template;
+            this.delayToleranceInMicros = delayToleranceInMicros;
+            this.scanChannels = scanChannels;
+            this.samplings = samplings;
+            this.ringCapacity = ringCapacity;
+        }
+
+        /**
+         * @return the default data rate, the one of the channels without a specific sampling.
+         */
+        public DataRate getDataRate() {
+            return DataRate.fromConfig(template);
+        }
+
+        public ChannelSampling getSampling(AnalogChannel channel) {
+            return samplings[channel.ordinal()];
         }
 
         /**
@@ -67,10 +387,21 @@ public class AnalogDigitalConverter {
          */
         public static class Builder {
             private static final int DEFAULT_CONFIG_REGISTER_TEMPLATE = 0b1000000111100011;
+            private static final int DEFAULT_DELAY_TOLERANCE_MICROS = 200;
+            private static final int DEFAULT_RING_CAPACITY = 1024;
+            private static final int DEFAULT_LO_THRESH_REGISTER = 0x02;
+            private static final int DEFAULT_HI_THRESH_REGISTER = 0x03;
             private int configRegister;
             private int conversionRegister;
+            private int loThreshRegister = DEFAULT_LO_THRESH_REGISTER;
+            private int hiThreshRegister = DEFAULT_HI_THRESH_REGISTER;
             private Gain gain;
             private int template = DEFAULT_CONFIG_REGISTER_TEMPLATE;
+            private int delayToleranceInMicros = DEFAULT_DELAY_TOLERANCE_MICROS;
+            private AnalogChannel[] scanChannels = AnalogChannel.values();
+            private final ChannelSampling[] samplings = new ChannelSampling[CHANNELS];
+            private DataRate dataRate;
+            private int ringCapacity = DEFAULT_RING_CAPACITY;
 
             public Builder setConfigRegister(int configRegister) {
                 this.configRegister = configRegister;
@@ -82,6 +413,16 @@ public class AnalogDigitalConverter {
                 return this;
             }
 
+            public Builder setLoThreshRegister(int loThreshRegister) {
+                this.loThreshRegister = loThreshRegister;
+                return this;
+            }
+
+            public Builder setHiThreshRegister(int hiThreshRegister) {
+                this.hiThreshRegister = hiThreshRegister;
+                return this;
+            }
+
             public Builder setGain(Gain gain) {
                 this.gain = gain;
                 return this;
@@ -92,8 +433,75 @@ public class AnalogDigitalConverter {
                 return this;
             }
 
+            /**
+             * Sets the default data rate, overriding the one of the template.
+             * @param dataRate of the channels without a specific sampling.
+             * @return the builder.
+             */
+            public Builder setDataRate(DataRate dataRate) {
+                this.dataRate = dataRate;
+                return this;
+            }
+
+            /**
+             * Sets how a channel is sampled, by default it is converted at every round at the default data rate.
+             * @param channel to be configured.
+             * @param sampling of the channel.
+             * @return the builder.
+             */
+            public Builder setSampling(AnalogChannel channel, ChannelSampling sampling) {
+                this.samplings[channel.ordinal()] = sampling;
+                return this;
+            }
+
+            /**
+             * Sets how late the OS bit can be polled the first time, when the ready pin is not wired:
+             * a late poll only costs latency while a precise one costs CPU.
+             * @param delayToleranceInMicros is the accepted delay.
+             * @return the builder.
+             */
+            public Builder setDelayTolerance(int delayToleranceInMicros) {
+                this.delayToleranceInMicros = delayToleranceInMicros;
+                return this;
+            }
+
+            /**
+             * Sets the channels converted in scan mode, in order, by default all of them.
+             * @param scanChannels to be scanned, a channel can be repeated to sample it more often.
+             * @return the builder.
+             */
+            public Builder setScanChannels(AnalogChannel... scanChannels) {
+                if (scanChannels.length == 0) {
+                    throw new IllegalArgumentException("At least a channel must be scanned");
+                }
+                this.scanChannels = scanChannels.clone();
+                return this;
+            }
+
+            /**
+             * Sets how many scanned samples are kept per channel.
+             * @param ringCapacity must be a power of two.
+             * @return the builder.
+             */
+            public Builder setRingCapacity(int ringCapacity) {
+                this.ringCapacity = ringCapacity;
+                return this;
+            }
+
+            /**
+             * Creates the configuration.
+             * @return the configuration.
+             */
             public Configuration build() {
-                return new Configuration(configRegister, conversionRegister, gain, template);
+                var actualTemplate = dataRate == null ? template : dataRate.applyTo(template);
+                var actualSamplings = samplings.clone();
+                for (int i = 0; i < CHANNELS; i++) {
+                    if (actualSamplings[i] == null) {
+                        actualSamplings[i] = ChannelSampling.continuous(DataRate.fromConfig(actualTemplate));
+                    }
+                }
+                return new Configuration(configRegister, conversionRegister, loThreshRegister, hiThreshRegister,
+                        gain, actualTemplate, delayToleranceInMicros, scanChannels, actualSamplings, ringCapacity);
             }
         }
     }
@@ -0,0 +1,74 @@
+package io.github.ecotrip.adapter.adc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a channel is sampled by the scanning ADC: the data rate of its conversions, how many consecutive
+ * conversions are averaged into a single sample, and how often it is sampled.
+ * A continuous channel is converted at every round of the scan, a periodic one only when its interval
+ * has elapsed, so a slow and low-noise channel does not steal bus time from the fast ones.
+ */
+public class ChannelSampling {
+    private final DataRate dataRate;
+    private final int oversampling;
+    private final long intervalInMillis;
+
+    private ChannelSampling(final DataRate dataRate, final int oversampling, final long intervalInMillis) {
+        if (oversampling < 1 || intervalInMillis < 0) {
+            throw new IllegalArgumentException("The oversampling must be positive and the interval not negative");
+        }
+        this.dataRate = dataRate;
+        this.oversampling = oversampling;
+        this.intervalInMillis = intervalInMillis;
+    }
+
+    public DataRate getDataRate() {
+        return dataRate;
+    }
+
+    /**
+     * @return the number of conversions averaged into a sample, the decimation factor.
+     */
+    public int getOversampling() {
+        return oversampling;
+    }
+
+    public long getIntervalInMillis() {
+        return intervalInMillis;
+    }
+
+    public boolean isPeriodic() {
+        return intervalInMillis > 0;
+    }
+
+    /**
+     * @return the bus time taken by a sample.
+     */
+    public long getSampleTimeInNanos() {
+        return oversampling * dataRate.getConversionTimeInNanos();
+    }
+
+    long getIntervalInNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(intervalInMillis);
+    }
+
+    /**
+     * Converts the channel at every round of the scan, one conversion per sample.
+     * @param dataRate of the conversions.
+     * @return the sampling.
+     */
+    public static ChannelSampling continuous(final DataRate dataRate) {
+        return new ChannelSampling(dataRate, 1, 0);
+    }
+
+    /**
+     * Factory method to create a {@link ChannelSampling} instance.
+     * @param dataRate of the conversions.
+     * @param oversampling is the number of consecutive conversions averaged into a sample.
+     * @param intervalInMillis between two samples, zero to sample the channel at every round.
+     * @return the sampling.
+     */
+    public static ChannelSampling of(final DataRate dataRate, final int oversampling, final long intervalInMillis) {
+        return new ChannelSampling(dataRate, oversampling, intervalInMillis);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.ecotrip.adapter.adc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ADC data rate, in samples per second: the lower rates average the input for longer inside the
+ * converter, trading speed for noise.
+ */
+public enum DataRate {
+    SPS_8(0b000, 8),
+    SPS_16(0b001, 16),
+    SPS_32(0b010, 32),
+    SPS_64(0b011, 64),
+    SPS_128(0b100, 128),
+    SPS_250(0b101, 250),
+    SPS_475(0b110, 475),
+    SPS_860(0b111, 860);
+
+    private static final int SHIFT = 5;
+    private static final int MASK = 0b111 << SHIFT;
+    private static final DataRate[] RATES = values();
+    private final int value;
+    private final int samplesPerSecond;
+
+    DataRate(final int bits, final int samplesPerSecond) {
+        this.value = bits << SHIFT;
+        this.samplesPerSecond = samplesPerSecond;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public int getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    public long getConversionTimeInNanos() {
+        return TimeUnit.SECONDS.toNanos(1) / samplesPerSecond;
+    }
+
+    /**
+     * Replaces the data rate bits of a config register value.
+     * @param config value of the config register.
+     * @return the config with this data rate.
+     */
+    public int applyTo(final int config) {
+        return config & ~MASK | value;
+    }
+
+    /**
+     * @param config value of the config register.
+     * @return the data rate selected by the config.
+     */
+    public static DataRate fromConfig(final int config) {
+        return RATES[(config & MASK) >> SHIFT];
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.ecotrip.adapter.adc;
+
+/**
+ * Latest conversion of a channel, published by a single writer and read without locks.
+ * The voltage alone is a single volatile read; the voltage together with its timestamp is read
+ * consistently through a sequence counter, which is odd while the writer is updating the slot.
+ * Timestamps are monotonic microseconds, on the same clock of {@link System#nanoTime()}.
+ */
+public class LatestSample {
+    private volatile long sequence;
+    private volatile double voltage = Double.NaN;
+    private volatile long timestampInMicros;
+
+    LatestSample() { }
+
+    /**
+     * Publishes a new sample, it must be called by a single thread.
+     * @param voltage of the conversion.
+     * @param timestampInMicros when the conversion has been read.
+     */
+    void publish(final double voltage, final long timestampInMicros) {
+        var current = sequence;
+        sequence = current + 1;
+        this.voltage = voltage;
+        this.timestampInMicros = timestampInMicros;
+        sequence = current + 2;
+    }
+
+    /**
+     * Reads the voltage and its timestamp as a consistent pair, retrying while the writer updates them.
+     * @param consumer of the sample.
+     * @return false if no sample has been published yet.
+     */
+    public boolean read(final SampleConsumer consumer) {
+        while (true) {
+            var before = sequence;
+            if ((before & 1) == 0) {
+                var readVoltage = voltage;
+                var readTimestamp = timestampInMicros;
+                if (sequence == before) {
+                    if (before == 0) {
+                        return false;
+                    }
+                    consumer.accept(readVoltage, readTimestamp);
+                    return true;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return the latest voltage, NaN if no sample has been published yet.
+     */
+    public double getVoltage() {
+        return voltage;
+    }
+
+    public long getTimestampInMicros() {
+        return timestampInMicros;
+    }
+
+    /**
+     * @return how many samples have been published.
+     */
+    public long getCount() {
+        return sequence / 2;
+    }
+
+    public boolean isEmpty() {
+        return sequence == 0;
+    }
+
+    /**
+     * Consumes a single sample without boxing it.
+     */
+    @FunctionalInterface
+    public interface SampleConsumer {
+        void accept(double voltage, long timestampInMicros);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.ecotrip.adapter.adc;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * Conversion-ready notifications of the ALERT/RDY pin: with the comparator in conversion-ready mode
+ * the converter pulls the pin low at the end of every conversion.
+ * A single thread at a time waits for the signal, the converter lock guarantees it.
+ */
+class ReadySignal {
+    private final Semaphore ready = new Semaphore(0);
+
+    ReadySignal(final DigitalInput pin) {
+        pin.addListener(e -> {
+            if (e.state() == DigitalState.LOW) {
+                ready.release();
+            }
+        });
+    }
+
+    /**
+     * Discards the notifications received so far, it must be called when a new conversion is started.
+     */
+    void arm() {
+        ready.drainPermits();
+    }
+
+    /**
+     * Waits for the next conversion of the continuous mode: a notification received since the last wait
+     * means that a new result is already available.
+     * @param timeoutInNanos is the longest accepted wait.
+     * @return false if the signal did not arrive in time.
+     */
+    boolean awaitNext(final long timeoutInNanos) {
+        if (ready.drainPermits() > 0) {
+            return true;
+        }
+        try {
+            return ready.tryAcquire(timeoutInNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the end of the conversion started at the given time. The notifications arriving too early
+     * belong to the previous conversion, whose pulse can be dispatched late, so they are ignored.
+     * @param startInNanos when the conversion has been started, on the {@link System#nanoTime()} clock.
+     * @param minimumInNanos is the shortest possible conversion time.
+     * @param timeoutInNanos is the longest accepted conversion time.
+     * @return false if the signal did not arrive in time.
+     */
+    boolean await(final long startInNanos, final long minimumInNanos, final long timeoutInNanos) {
+        try {
+            while (true) {
+                var remaining = startInNanos + timeoutInNanos - System.nanoTime();
+                if (remaining <= 0 || !ready.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                if (System.nanoTime() - startInNanos >= minimumInNanos) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
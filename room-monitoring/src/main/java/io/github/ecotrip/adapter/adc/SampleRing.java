@@ -0,0 +1,137 @@
+package io.github.ecotrip.adapter.adc;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-size ring of the conversions of a channel, written by a single thread and read by any number
+ * of {@link Cursor}s without locks. The samples are stored in primitive arrays, so neither the writer nor
+ * the readers allocate. A reader slower than the writer loses the overwritten samples, they are counted
+ * by its cursor: the slot of the oldest sample may be under write at any time, so at most capacity - 1
+ * samples can be read after a pause.
+ */
+public class SampleRing {
+    private final double[] voltages;
+    private final long[] timestamps;
+    private final int mask;
+    private volatile long written;
+
+    private SampleRing(final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a positive power of two");
+        }
+        this.voltages = new double[capacity];
+        this.timestamps = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Appends a sample, it must be called by a single thread.
+     * @param voltage of the conversion.
+     * @param timestampInMicros when the conversion has been read.
+     */
+    void add(final double voltage, final long timestampInMicros) {
+        var index = written;
+        voltages[(int) (index & mask)] = voltage;
+        timestamps[(int) (index & mask)] = timestampInMicros;
+        written = index + 1;
+    }
+
+    /**
+     * Creates a reader which starts from the next sample.
+     * @return the cursor.
+     */
+    public Cursor cursor() {
+        return new Cursor(written);
+    }
+
+    public int getCapacity() {
+        return voltages.length;
+    }
+
+    /**
+     * @return how many samples have been written since the creation.
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    public static SampleRing of(final int capacity) {
+        return new SampleRing(capacity);
+    }
+
+    /**
+     * Reading position inside the ring, it is not thread-safe.
+     */
+    public class Cursor {
+        private long next;
+        private long missed;
+
+        private Cursor(final long next) {
+            this.next = next;
+        }
+
+        /**
+         * Copies the unread samples, from the oldest one, into the given arrays.
+         * @param voltageBuffer is the destination of the voltages.
+         * @param timestampBuffer is the destination of the timestamps, at least as long as the voltages one.
+         * @return the number of copied samples, zero if there is nothing new.
+         */
+        public int read(final double[] voltageBuffer, final long[] timestampBuffer) {
+            return read(voltageBuffer, timestampBuffer, 0, voltageBuffer.length);
+        }
+
+        /**
+         * Copies the unread samples, from the oldest one, into a slice of the given arrays.
+         * @param voltageBuffer is the destination of the voltages.
+         * @param timestampBuffer is the destination of the timestamps.
+         * @param offset of the first copied sample in the destination arrays.
+         * @param length is the maximum number of copied samples.
+         * @return the number of copied samples, zero if there is nothing new.
+         */
+        public int read(final double[] voltageBuffer, final long[] timestampBuffer, final int offset,
+                        final int length) {
+            var available = written;
+            var from = Math.max(next, available - voltages.length + 1);
+            missed += from - next;
+            var count = (int) Math.min(length, available - from);
+            for (int i = 0; i < count; i++) {
+                var index = (int) (from + i & mask);
+                voltageBuffer[offset + i] = voltages[index];
+                timestampBuffer[offset + i] = timestamps[index];
+            }
+            // the writer may have overwritten the oldest slots while they were copied: the fence keeps the plain
+            // reads of the copy before the second read of the counter
+            VarHandle.acquireFence();
+            var overwritten = (int) Math.min(count, Math.max(0, written - voltages.length + 1 - from));
+            if (overwritten > 0) {
+                count -= overwritten;
+                System.arraycopy(voltageBuffer, offset + overwritten, voltageBuffer, offset, count);
+                System.arraycopy(timestampBuffer, offset + overwritten, timestampBuffer, offset, count);
+                missed += overwritten;
+            }
+            next = from + overwritten + count;
+            return count;
+        }
+
+        /**
+         * Moves the cursor to the next sample to be written, discarding the unread ones.
+         */
+        public void skip() {
+            next = written;
+        }
+
+        /**
+         * @return how many samples are ready to be read, the overwritten ones included.
+         */
+        public long getAvailable() {
+            return written - next;
+        }
+
+        /**
+         * @return how many samples have been overwritten before being read.
+         */
+        public long getMissed() {
+            return missed;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.ecotrip.adapter.builder;
 
+import java.util.concurrent.Executor;
+
 import io.github.ecotrip.sensor.DetectionFactory;
 import io.github.ecotrip.sensor.Sensor;
 
@@ -10,6 +12,7 @@ import io.github.ecotrip.sensor.Sensor;
 public abstract class SensorBuilder<ID> {
     private ID identifier;
     private DetectionFactory<ID> detectionFactory;
+    private Executor executor;
 
     public SensorBuilder<ID> setIdentifier(final ID identifier) {
         this.identifier = identifier;
@@ -21,6 +24,16 @@ public abstract class SensorBuilder<ID> {
         return this;
     }
 
+    /**
+     * Sets the executor where the sensor performs its blocking reads.
+     * @param executor usually the context of an I/O engine, the common pool is used if not set.
+     * @return the builder.
+     */
+    public SensorBuilder<ID> setExecutor(final Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
     public abstract Sensor<ID> build();
 
     protected ID getIdentifier() {
@@ -30,4 +43,8 @@ public abstract class SensorBuilder<ID> {
     protected DetectionFactory<ID> getDetectionFactory() {
         return detectionFactory;
     }
+
+    protected Executor getExecutor() {
+        return executor;
+    }
 }
@@ -0,0 +1,109 @@
+package io.github.ecotrip.adapter.output;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.ecotrip.metrics.Histogram;
+import io.github.ecotrip.metrics.HistogramSnapshot;
+
+/**
+ * Metrics recorded by a {@link BatchingOutputAdapter} for the batches it publishes.
+ * All the durations are in nanoseconds.
+ */
+public class BatchMetrics {
+    private final Histogram messages = new Histogram();
+    private final Histogram bytes = new Histogram();
+    private final Histogram latency = new Histogram();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Number of messages per batch.
+     * @return the histogram.
+     */
+    public Histogram getMessages() {
+        return messages;
+    }
+
+    /**
+     * Size of the published payloads, after the compression.
+     * @return the histogram.
+     */
+    public Histogram getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Time between the arrival of the oldest message of a batch and the end of its publication.
+     * @return the histogram.
+     */
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Number of batches whose publication failed.
+     * @return the number of failures.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    void record(final int messageCount, final int payloadSize, final long latencyInNanos, final boolean failed) {
+        messages.record(messageCount);
+        bytes.record(payloadSize);
+        latency.record(latencyInNanos);
+        if (failed) {
+            failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Summarizes the metrics.
+     * @return the {@link Snapshot}.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(messages.snapshot(), bytes.snapshot(), latency.snapshot(), failures.get());
+    }
+
+    /**
+     * Immutable summary of the {@link BatchMetrics}.
+     */
+    public static class Snapshot {
+        private final HistogramSnapshot messages;
+        private final HistogramSnapshot bytes;
+        private final HistogramSnapshot latency;
+        private final long failures;
+
+        private Snapshot(final HistogramSnapshot messages, final HistogramSnapshot bytes,
+                         final HistogramSnapshot latency, final long failures) {
+            this.messages = messages;
+            this.bytes = bytes;
+            this.latency = latency;
+            this.failures = failures;
+        }
+
+        public HistogramSnapshot getMessages() {
+            return messages;
+        }
+
+        public HistogramSnapshot getBytes() {
+            return bytes;
+        }
+
+        public HistogramSnapshot getLatency() {
+            return latency;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return "{messages=" + messages
+                    + ", bytes=" + bytes
+                    + ", latency=" + latency
+                    + ", failures=" + failures
+                    + '}';
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.ecotrip.adapter.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import io.github.ecotrip.adapter.OutputAdapter;
+import io.github.ecotrip.execution.Execution;
+
+/**
+ * Decorator which coalesces the messages into batches, so that a single publication carries many of them.
+ * The messages are JSON documents and a batch is the JSON array of its messages, encoded in UTF-8 and,
+ * optionally, compressed with gzip (the consumers recognize it by the gzip magic number).
+ * A batch is published as soon as it reaches the byte budget or the maximum number of messages, or when its
+ * oldest message has waited the maximum latency. The byte budget is measured before the compression and a
+ * message which does not fit starts a new batch.
+ * The future returned for a message completes when its batch has been published.
+ * @param <T> type of the input of the decorated adapter.
+ */
+public class BatchingOutputAdapter<T> implements OutputAdapter<T, String> {
+    private static final byte[] OPEN = {'['};
+    private static final byte SEPARATOR = ',';
+    private static final byte CLOSE = ']';
+    private final OutputAdapter<T, byte[]> delegate;
+    private final Executor executor;
+    private final int maxBytes;
+    private final int maxMessages;
+    private final long maxLatencyInMillis;
+    private final boolean compression;
+    private final BatchMetrics metrics = new BatchMetrics();
+    private Batch current;
+    private boolean shutdown;
+
+    private BatchingOutputAdapter(final OutputAdapter<T, byte[]> delegate, final Executor executor,
+                                  final int maxBytes, final int maxMessages, final long maxLatencyInMillis,
+                                  final boolean compression) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxBytes = maxBytes;
+        this.maxMessages = maxMessages;
+        this.maxLatencyInMillis = maxLatencyInMillis;
+        this.compression = compression;
+    }
+
+    @Override
+    public CompletableFuture<Void> sendMessage(final String message) {
+        var payload = message.getBytes(StandardCharsets.UTF_8);
+        Batch overflowed = null;
+        Batch completed = null;
+        CompletableFuture<Void> result;
+        synchronized (this) {
+            if (shutdown) {
+                return CompletableFuture.failedFuture(new IllegalStateException("The adapter has been shut down"));
+            }
+            if (current != null && current.size() + payload.length + 1 > maxBytes) {
+                overflowed = current;
+                current = null;
+            }
+            if (current == null) {
+                current = new Batch();
+                scheduleDeadline(current);
+            }
+            result = current.add(payload);
+            if (current.count >= maxMessages || current.size() >= maxBytes) {
+                completed = current;
+                current = null;
+            }
+        }
+        if (overflowed != null) {
+            publish(overflowed);
+        }
+        if (completed != null) {
+            publish(completed);
+        }
+        return result;
+    }
+
+    /**
+     * Publishes the pending messages without waiting for the batch to be complete.
+     * @return a {@link CompletableFuture} which completes when the pending messages have been published.
+     */
+    public CompletableFuture<Void> flush() {
+        Batch pending;
+        synchronized (this) {
+            pending = current;
+            current = null;
+        }
+        if (pending == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        publish(pending);
+        return pending.published.copy();
+    }
+
+    /**
+     * Publishes the pending messages and rejects the following ones, to be called before closing the connection.
+     * @return a {@link CompletableFuture} which completes when the pending messages have been published.
+     */
+    public CompletableFuture<Void> shutdown() {
+        synchronized (this) {
+            shutdown = true;
+        }
+        return flush();
+    }
+
+    public BatchMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void scheduleDeadline(final Batch batch) {
+        CompletableFuture.delayedExecutor(maxLatencyInMillis, TimeUnit.MILLISECONDS, executor).execute(() -> {
+            synchronized (this) {
+                if (current != batch) {
+                    return;
+                }
+                current = null;
+            }
+            publish(batch);
+        });
+    }
+
+    private void publish(final Batch batch) {
+        var payload = compression ? compress(batch.close()) : batch.close();
+        CompletableFuture<Void> publication;
+        try {
+            publication = delegate.sendMessage(payload);
+        } catch (RuntimeException e) {
+            publication = CompletableFuture.failedFuture(e);
+        }
+        publication.whenComplete((u, t) -> {
+            metrics.record(batch.count, payload.length, System.nanoTime() - batch.createdAtInNanos, t != null);
+            if (t != null) {
+                Execution.logsError("Batch of " + batch.count + " messages not published: " + t);
+                batch.published.completeExceptionally(t);
+            } else {
+                batch.published.complete(null);
+            }
+        });
+    }
+
+    private static byte[] compress(final byte[] payload) {
+        var output = new ByteArrayOutputStream(payload.length / 2);
+        try (var gzip = new GZIPOutputStream(output)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Messages waiting to be published together, guarded by the adapter's lock until published.
+     */
+    private static class Batch {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final CompletableFuture<Void> published = new CompletableFuture<>();
+        private final long createdAtInNanos = System.nanoTime();
+        private int count;
+
+        Batch() {
+            body.writeBytes(OPEN);
+        }
+
+        CompletableFuture<Void> add(final byte[] message) {
+            if (count > 0) {
+                body.write(SEPARATOR);
+            }
+            body.writeBytes(message);
+            count++;
+            return published.copy();
+        }
+
+        int size() {
+            return body.size() + 1;
+        }
+
+        byte[] close() {
+            body.write(CLOSE);
+            return body.toByteArray();
+        }
+    }
+
+    /**
+     * Builder
+     * @param <T> type of the input of the decorated adapter.
+     */
+    public static class Builder<T> {
+        /**
+         * Default byte budget, below the 128 KB limit of the AWS IoT messages.
+         */
+        public static final int DEFAULT_MAX_BYTES = 96 * 1024;
+        /**
+         * Default maximum number of messages per batch.
+         */
+        public static final int DEFAULT_MAX_MESSAGES = 12;
+        /**
+         * Default maximum time waited by a message before being published.
+         */
+        public static final long DEFAULT_MAX_LATENCY_MILLIS = 60L * Execution.SECOND_IN_MILLIS;
+        private OutputAdapter<T, byte[]> delegate;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int maxBytes = DEFAULT_MAX_BYTES;
+        private int maxMessages = DEFAULT_MAX_MESSAGES;
+        private long maxLatencyInMillis = DEFAULT_MAX_LATENCY_MILLIS;
+        private boolean compression;
+
+        public Builder<T> setDelegate(final OutputAdapter<T, byte[]> delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        public Builder<T> setExecutor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder<T> setMaxBytes(final int maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public Builder<T> setMaxMessages(final int maxMessages) {
+            this.maxMessages = maxMessages;
+            return this;
+        }
+
+        public Builder<T> setMaxLatency(final long maxLatencyInMillis) {
+            this.maxLatencyInMillis = maxLatencyInMillis;
+            return this;
+        }
+
+        public Builder<T> setCompression(final boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Constructor method, following the {@link BatchingOutputAdapter.Builder} pattern.
+         * @return the built {@link BatchingOutputAdapter} instance.
+         * @throws IllegalArgumentException if the delegate is missing or a limit is not positive.
+         */
+        public BatchingOutputAdapter<T> build() {
+            if (delegate == null) {
+                throw new IllegalArgumentException("The delegate adapter is required");
+            }
+            if (maxBytes <= 0 || maxMessages <= 0 || maxLatencyInMillis <= 0) {
+                throw new IllegalArgumentException("The batch limits must be positive");
+            }
+            return new BatchingOutputAdapter<>(delegate, executor, maxBytes, maxMessages, maxLatencyInMillis,
+                    compression);
+        }
+    }
+}
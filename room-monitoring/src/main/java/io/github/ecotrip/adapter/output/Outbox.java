@@ -0,0 +1,360 @@
+package io.github.ecotrip.adapter.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import io.github.ecotrip.adapter.OutputAdapter;
+import io.github.ecotrip.execution.Execution;
+import io.github.ecotrip.journal.Journal;
+
+/**
+ * Store-and-forward decorator: the messages are appended to a {@link Journal} and then delivered in order
+ * to the decorated adapter, one at a time or, with {@link Builder#setMaxInFlight(int)}, pipelined up to a
+ * number of deliveries not completed yet. A message is acknowledged, and eventually removed from the journal,
+ * only when its delivery and the ones of all the previous messages succeed, so the messages produced while the
+ * connection is down survive both the outage and a restart of the device.
+ * A failed delivery is retried with an exponential backoff, or as soon as {@link #resume()} is called,
+ * e.g. when the connection is restored; the backlog is then drained at a limited rate. The retry starts again
+ * from the oldest message not acknowledged, so the pipelined messages can be delivered twice.
+ * The journal is synced periodically instead of for every message, which spares the SD cards: a power loss
+ * costs at most the messages of the last sync interval. The acknowledgements are synced the same way, so after
+ * a power loss at most the messages delivered in the last sync interval are delivered again.
+ * @param <T> type of the input of the decorated adapter.
+ */
+public class Outbox<T> implements OutputAdapter<T, byte[]>, Closeable {
+    private final Journal journal;
+    private final OutputAdapter<T, byte[]> delegate;
+    private final Executor executor;
+    private final long drainIntervalInNanos;
+    private final long minRetryDelayInMillis;
+    private final long maxRetryDelayInMillis;
+    private final long syncIntervalInMillis;
+    private final int maxInFlight;
+    private final Deque<Delivery> deliveries = new ArrayDeque<>();
+    private int inFlight;
+    private long generation;
+    private long retryDelayInMillis;
+    private long lastDeliveryInNanos;
+    private boolean draining;
+    private boolean waitingRetry;
+    private long failures;
+    private boolean syncScheduled;
+    private boolean closed;
+
+    private Outbox(final Journal journal, final OutputAdapter<T, byte[]> delegate, final Executor executor,
+                   final double drainRate, final long minRetryDelayInMillis, final long maxRetryDelayInMillis,
+                   final long syncIntervalInMillis, final int maxInFlight) {
+        this.journal = journal;
+        this.delegate = delegate;
+        this.executor = executor;
+        this.drainIntervalInNanos = (long) (TimeUnit.SECONDS.toNanos(1) / drainRate);
+        this.minRetryDelayInMillis = minRetryDelayInMillis;
+        this.maxRetryDelayInMillis = maxRetryDelayInMillis;
+        this.syncIntervalInMillis = syncIntervalInMillis;
+        this.maxInFlight = maxInFlight;
+        this.retryDelayInMillis = minRetryDelayInMillis;
+        this.lastDeliveryInNanos = System.nanoTime() - drainIntervalInNanos;
+    }
+
+    /**
+     * Stores the message, which is then delivered in background.
+     * @param message to be delivered.
+     * @return a {@link CompletableFuture} which completes when the message has been stored.
+     */
+    @Override
+    public CompletableFuture<Void> sendMessage(final byte[] message) {
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("The outbox has been closed"));
+            }
+            try {
+                journal.append(message);
+            } catch (IOException | IllegalArgumentException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            scheduleSync();
+            startDraining();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Retries the delivery immediately, without waiting for the backoff.
+     */
+    public synchronized void resume() {
+        retryDelayInMillis = minRetryDelayInMillis;
+        if (waitingRetry) {
+            waitingRetry = false;
+            startDraining();
+        }
+    }
+
+    /**
+     * Number of messages stored and not delivered yet.
+     * @return the number of messages.
+     */
+    public synchronized long getPendingCount() {
+        return journal.getPendingCount();
+    }
+
+    /**
+     * Syncs and closes the journal, the messages not delivered yet are delivered after the next start.
+     * The pending timers of the deliveries, the retries and the syncs have no effect afterwards.
+     * @throws IOException if the journal can not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            journal.close();
+        }
+    }
+
+    /**
+     * Schedules the next delivery, no earlier than the drain interval after the previous one.
+     */
+    private synchronized void startDraining() {
+        if (!draining && !closed && !waitingRetry && inFlight < maxInFlight) {
+            draining = true;
+            var delay = lastDeliveryInNanos + drainIntervalInNanos - System.nanoTime();
+            if (delay > 0) {
+                CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executor).execute(this::deliverNext);
+            } else {
+                executor.execute(this::deliverNext);
+            }
+        }
+    }
+
+    private void deliverNext() {
+        Journal.Record record;
+        Delivery delivery;
+        synchronized (this) {
+            draining = false;
+            if (waitingRetry || closed || inFlight >= maxInFlight) {
+                return;
+            }
+            record = journal.next();
+            if (record == null) {
+                return;
+            }
+            lastDeliveryInNanos = System.nanoTime();
+            delivery = new Delivery(record.getSequence(), generation);
+            deliveries.addLast(delivery);
+            inFlight++;
+        }
+        CompletableFuture<Void> result;
+        try {
+            result = delegate.sendMessage(record.getPayload());
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((u, t) -> {
+            if (t != null) {
+                onFailure(delivery, t);
+            } else {
+                onDelivery(delivery);
+            }
+        });
+        // pipelines the following message, if the window allows it
+        startDraining();
+    }
+
+    private synchronized void onDelivery(final Delivery delivery) {
+        inFlight--;
+        if (closed) {
+            // acknowledged by the next start, the message is delivered again
+            return;
+        }
+        if (delivery.generation == generation) {
+            retryDelayInMillis = minRetryDelayInMillis;
+            delivery.done = true;
+            var acknowledged = 0L;
+            while (!deliveries.isEmpty() && deliveries.peekFirst().done) {
+                acknowledged = deliveries.removeFirst().sequence;
+            }
+            if (acknowledged > 0) {
+                try {
+                    journal.ack(acknowledged);
+                } catch (IOException e) {
+                    Execution.logsError("Outbox segment not deleted: " + e);
+                }
+                scheduleSync();
+            }
+        }
+        startDraining();
+    }
+
+    /**
+     * The first failure of a round rewinds the journal, the completions of the deliveries of the previous
+     * rounds are ignored.
+     */
+    private synchronized void onFailure(final Delivery delivery, final Throwable throwable) {
+        inFlight--;
+        if (closed || delivery.generation != generation) {
+            return;
+        }
+        Execution.logsInfo("Outbox delivery failed, " + journal.getPendingCount() + " messages pending, retrying in "
+                + retryDelayInMillis + " ms: " + throwable);
+        journal.rewind();
+        generation++;
+        deliveries.clear();
+        waitingRetry = true;
+        var delay = retryDelayInMillis;
+        var failure = ++failures;
+        retryDelayInMillis = Math.min(maxRetryDelayInMillis, retryDelayInMillis * 2);
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor)
+                .execute(() -> resumeAfterBackoff(failure));
+    }
+
+    /**
+     * Only the timer of the last failure resumes the delivery, the previous ones are stale.
+     */
+    private synchronized void resumeAfterBackoff(final long failure) {
+        if (waitingRetry && failure == failures && !closed) {
+            waitingRetry = false;
+            startDraining();
+        }
+    }
+
+    private void scheduleSync() {
+        if (!syncScheduled) {
+            syncScheduled = true;
+            CompletableFuture.delayedExecutor(syncIntervalInMillis, TimeUnit.MILLISECONDS, executor).execute(() -> {
+                synchronized (this) {
+                    syncScheduled = false;
+                    if (!closed) {
+                        journal.sync();
+                    }
+                }
+            });
+        }
+    }
+
+    private static class Delivery {
+        private final long sequence;
+        private final long generation;
+        private boolean done;
+
+        Delivery(final long sequence, final long generation) {
+            this.sequence = sequence;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Builder
+     * @param <T> type of the input of the decorated adapter.
+     */
+    public static class Builder<T> {
+        /**
+         * Default maximum number of messages delivered per second while draining the backlog.
+         */
+        public static final double DEFAULT_DRAIN_RATE = 10;
+        /**
+         * Default delay before the first retry, it doubles at every failure.
+         */
+        public static final long DEFAULT_MIN_RETRY_DELAY_MILLIS = Execution.SECOND_IN_MILLIS;
+        /**
+         * Default maximum delay between two retries.
+         */
+        public static final long DEFAULT_MAX_RETRY_DELAY_MILLIS = 60L * Execution.SECOND_IN_MILLIS;
+        /**
+         * Default interval between two syncs of the journal.
+         */
+        public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 5L * Execution.SECOND_IN_MILLIS;
+        private Path directory;
+        private int segmentSize = Journal.DEFAULT_SEGMENT_SIZE;
+        private OutputAdapter<T, byte[]> delegate;
+        private Executor executor = ForkJoinPool.commonPool();
+        private double drainRate = DEFAULT_DRAIN_RATE;
+        private long minRetryDelayInMillis = DEFAULT_MIN_RETRY_DELAY_MILLIS;
+        private long maxRetryDelayInMillis = DEFAULT_MAX_RETRY_DELAY_MILLIS;
+        private long syncIntervalInMillis = DEFAULT_SYNC_INTERVAL_MILLIS;
+        private int maxInFlight = 1;
+
+        public Builder<T> setDirectory(final Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder<T> setSegmentSize(final int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        public Builder<T> setDelegate(final OutputAdapter<T, byte[]> delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        public Builder<T> setExecutor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder<T> setDrainRate(final double messagesPerSecond) {
+            this.drainRate = messagesPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets the bounds of the exponential backoff used after a failed delivery.
+         * @param minRetryDelayInMillis is the delay before the first retry.
+         * @param maxRetryDelayInMillis is the maximum delay.
+         * @return the builder.
+         */
+        public Builder<T> setRetryDelay(final long minRetryDelayInMillis, final long maxRetryDelayInMillis) {
+            this.minRetryDelayInMillis = minRetryDelayInMillis;
+            this.maxRetryDelayInMillis = maxRetryDelayInMillis;
+            return this;
+        }
+
+        public Builder<T> setSyncInterval(final long syncIntervalInMillis) {
+            this.syncIntervalInMillis = syncIntervalInMillis;
+            return this;
+        }
+
+        /**
+         * Sets how many deliveries can be pending at the same time, by default one.
+         * @param maxInFlight is the maximum number of deliveries not completed yet.
+         * @return the builder.
+         */
+        public Builder<T> setMaxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Opens the journal, recovering the messages not delivered before the last shutdown, which are delivered
+         * immediately.
+         * @return the built {@link Outbox} instance.
+         * @throws IllegalArgumentException if the directory or the delegate are missing or a limit is not positive.
+         * @throws UncheckedIOException if the journal can not be opened.
+         */
+        public Outbox<T> build() {
+            if (directory == null || delegate == null) {
+                throw new IllegalArgumentException("The directory and the delegate adapter are required");
+            }
+            if (drainRate <= 0 || minRetryDelayInMillis <= 0 || maxRetryDelayInMillis < minRetryDelayInMillis
+                    || syncIntervalInMillis <= 0 || maxInFlight <= 0) {
+                throw new IllegalArgumentException("The outbox limits must be positive");
+            }
+            try {
+                var outbox = new Outbox<>(Journal.open(directory, segmentSize), delegate, executor, drainRate,
+                        minRetryDelayInMillis, maxRetryDelayInMillis, syncIntervalInMillis, maxInFlight);
+                outbox.startDraining();
+                return outbox;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
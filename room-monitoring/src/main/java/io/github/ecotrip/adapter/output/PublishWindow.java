@@ -0,0 +1,292 @@
+package io.github.ecotrip.adapter.output;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import io.github.ecotrip.adapter.OutputAdapter;
+import io.github.ecotrip.metrics.Histogram;
+
+/**
+ * Decorator which bounds the messages sent and not acknowledged yet by the decorated adapter, by number
+ * and by size. The messages which do not fit in the window wait in a bounded queue and are sent, in order,
+ * as the acknowledgements free the window; the caller is never blocked. When the queue is full the
+ * {@link OverflowPolicy} decides what happens to a new message, so the dropped messages are never sent.
+ * A message bigger than the whole window is sent when the window is empty.
+ * The producers can check {@link #isSaturated()} to slow down before the policy kicks in.
+ * @param <T> type of the input of the decorated adapter.
+ * @param <M> type of the messages.
+ */
+public class PublishWindow<T, M> implements OutputAdapter<T, M> {
+    private final OutputAdapter<T, M> delegate;
+    private final ToIntFunction<M> sizeFunction;
+    private final int maxInFlight;
+    private final long maxBytes;
+    private final int maxQueued;
+    private final OverflowPolicy policy;
+    private final int downsampleFactor;
+    private final Deque<Entry> inFlight = new ArrayDeque<>();
+    private final Deque<Entry> queued = new ArrayDeque<>();
+    private final Histogram ackLatency = new Histogram();
+    private final AtomicLong dropped = new AtomicLong();
+    private long inFlightBytes;
+    private long overflows;
+
+    private PublishWindow(final OutputAdapter<T, M> delegate, final ToIntFunction<M> sizeFunction,
+                          final int maxInFlight, final long maxBytes, final int maxQueued,
+                          final OverflowPolicy policy, final int downsampleFactor) {
+        this.delegate = delegate;
+        this.sizeFunction = sizeFunction;
+        this.maxInFlight = maxInFlight;
+        this.maxBytes = maxBytes;
+        this.maxQueued = maxQueued;
+        this.policy = policy;
+        this.downsampleFactor = downsampleFactor;
+    }
+
+    /**
+     * Sends the message if the window has room for it, otherwise queues it according to the
+     * {@link OverflowPolicy}.
+     * @param message to be sent.
+     * @return a {@link CompletableFuture} which completes when the message is acknowledged, or fails with a
+     *         {@link CancellationException} or a {@link RejectedExecutionException} if the message is dropped.
+     */
+    @Override
+    public CompletableFuture<Void> sendMessage(final M message) {
+        var entry = new Entry(message, sizeFunction.applyAsInt(message));
+        synchronized (this) {
+            if (!queued.isEmpty() || isFull(entry.size)) {
+                if (queued.size() >= maxQueued && !makeRoom()) {
+                    dropped.incrementAndGet();
+                    return CompletableFuture.failedFuture(new RejectedExecutionException("Publish queue full"));
+                }
+                queued.addLast(entry);
+                return entry.result;
+            }
+            admit(entry);
+        }
+        send(entry);
+        return entry.result;
+    }
+
+    /**
+     * Tells if the window is full, that is if the next message would be queued.
+     * @return true if the window is full.
+     */
+    public synchronized boolean isSaturated() {
+        return !queued.isEmpty() || inFlight.size() >= maxInFlight || inFlightBytes >= maxBytes;
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public synchronized long getInFlightBytes() {
+        return inFlightBytes;
+    }
+
+    public synchronized int getQueuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * Time between the sending of a message and its acknowledgement, in nanoseconds.
+     * @return the histogram.
+     */
+    public Histogram getAckLatency() {
+        return ackLatency;
+    }
+
+    /**
+     * Number of messages dropped or rejected because the queue was full.
+     * @return the number of messages.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private boolean isFull(final int size) {
+        return !inFlight.isEmpty() && (inFlight.size() >= maxInFlight || inFlightBytes + size > maxBytes);
+    }
+
+    /**
+     * Applies the policy to the full queue.
+     * @return true if the oldest queued message has been dropped, false if the new one must be rejected.
+     */
+    private boolean makeRoom() {
+        switch (policy) {
+        case QUEUE:
+            return false;
+        case DOWNSAMPLE:
+            if (++overflows % downsampleFactor != 0) {
+                return false;
+            }
+            break;
+        default:
+            break;
+        }
+        var oldest = queued.removeFirst();
+        dropped.incrementAndGet();
+        oldest.result.completeExceptionally(new CancellationException("Dropped from the publish queue"));
+        return true;
+    }
+
+    private void admit(final Entry entry) {
+        inFlight.addLast(entry);
+        inFlightBytes += entry.size;
+        entry.sentAtInNanos = System.nanoTime();
+    }
+
+    private void send(final Entry entry) {
+        CompletableFuture<Void> publication;
+        try {
+            publication = delegate.sendMessage(entry.message);
+        } catch (RuntimeException e) {
+            publication = CompletableFuture.failedFuture(e);
+        }
+        publication.whenComplete((u, t) -> release(entry, t));
+    }
+
+    private void release(final Entry entry, final Throwable throwable) {
+        var ready = new ArrayList<Entry>();
+        synchronized (this) {
+            inFlight.remove(entry);
+            inFlightBytes -= entry.size;
+            while (!queued.isEmpty() && !isFull(queued.peekFirst().size)) {
+                var next = queued.removeFirst();
+                admit(next);
+                ready.add(next);
+            }
+        }
+        ackLatency.record(System.nanoTime() - entry.sentAtInNanos);
+        if (throwable != null) {
+            entry.result.completeExceptionally(throwable);
+        } else {
+            entry.result.complete(null);
+        }
+        ready.forEach(this::send);
+    }
+
+    /**
+     * What to do with a new message when the window and the queue are full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The new message is rejected, the queued ones are kept.
+         */
+        QUEUE,
+        /**
+         * The oldest queued message is dropped, it is never sent and its future fails.
+         */
+        DROP_OLDEST,
+        /**
+         * Only one new message every downsample factor is queued, replacing the oldest queued one;
+         * the others are rejected.
+         */
+        DOWNSAMPLE
+    }
+
+    private class Entry {
+        private final M message;
+        private final int size;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private long sentAtInNanos;
+
+        Entry(final M message, final int size) {
+            this.message = message;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Builder
+     * @param <T> type of the input of the decorated adapter.
+     * @param <M> type of the messages.
+     */
+    public static class Builder<T, M> {
+        /**
+         * Default maximum number of messages not acknowledged.
+         */
+        public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+        /**
+         * Default maximum size of the messages not acknowledged.
+         */
+        public static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+        /**
+         * Default maximum number of messages waiting for room in the window.
+         */
+        public static final int DEFAULT_MAX_QUEUED = 64;
+        /**
+         * Default ratio between the messages received and the ones queued by {@link OverflowPolicy#DOWNSAMPLE}.
+         */
+        public static final int DEFAULT_DOWNSAMPLE_FACTOR = 2;
+        private OutputAdapter<T, M> delegate;
+        private ToIntFunction<M> sizeFunction = m -> 1;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private long maxBytes = DEFAULT_MAX_BYTES;
+        private int maxQueued = DEFAULT_MAX_QUEUED;
+        private OverflowPolicy policy = OverflowPolicy.QUEUE;
+        private int downsampleFactor = DEFAULT_DOWNSAMPLE_FACTOR;
+
+        public Builder<T, M> setDelegate(final OutputAdapter<T, M> delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets how the size of the messages is measured, by default every message counts as one byte.
+         * @param sizeFunction returns the size of a message in bytes.
+         * @return the builder.
+         */
+        public Builder<T, M> setSizeFunction(final ToIntFunction<M> sizeFunction) {
+            this.sizeFunction = sizeFunction;
+            return this;
+        }
+
+        public Builder<T, M> setMaxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder<T, M> setMaxBytes(final long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public Builder<T, M> setMaxQueued(final int maxQueued) {
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        public Builder<T, M> setPolicy(final OverflowPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        public Builder<T, M> setDownsampleFactor(final int downsampleFactor) {
+            this.downsampleFactor = downsampleFactor;
+            return this;
+        }
+
+        /**
+         * Constructor method, following the {@link PublishWindow.Builder} pattern.
+         * @return the built {@link PublishWindow} instance.
+         * @throws IllegalArgumentException if the delegate or the policy are missing or a limit is not positive.
+         */
+        public PublishWindow<T, M> build() {
+            if (delegate == null || policy == null) {
+                throw new IllegalArgumentException("The delegate adapter and the policy are required");
+            }
+            if (maxInFlight <= 0 || maxBytes <= 0 || maxQueued <= 0 || downsampleFactor <= 0) {
+                throw new IllegalArgumentException("The window limits must be positive");
+            }
+            return new PublishWindow<>(delegate, sizeFunction, maxInFlight, maxBytes, maxQueued, policy,
+                    downsampleFactor);
+        }
+    }
+}
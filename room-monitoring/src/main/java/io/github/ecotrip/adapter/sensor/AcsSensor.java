@@ -1,14 +1,20 @@
 package io.github.ecotrip.adapter.sensor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
 import io.github.ecotrip.Generated;
+import io.github.ecotrip.adapter.adc.SampleRing;
 import io.github.ecotrip.adapter.builder.SensorBuilder;
-import io.github.ecotrip.execution.Execution;
 import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.energy.ApparentPower;
+import io.github.ecotrip.measure.energy.CrestFactor;
 import io.github.ecotrip.measure.energy.Current;
 import io.github.ecotrip.measure.energy.Voltage;
 import io.github.ecotrip.sensor.DetectionFactory;
@@ -16,20 +22,28 @@ import io.github.ecotrip.sensor.Sensor;
 
 /**
  * Current sensor, implementation for ACSxxx model.
+ * The output is captured over an integer number of mains cycles, from the stream of a scanning ADC or by
+ * polling the channel at a limited rate, and the current is its true RMS, see {@link CurrentWaveform}.
+ * Each detection also carries the apparent power, at the configured mains voltage, and the crest factor
+ * of the captured waveform.
  * @param <ID> uniquely identifies the sensor.
  */
 @Generated
 public class AcsSensor<ID> extends Sensor<ID> {
     private static final double CURRENT_THRESHOLD = 0; // 0.4
     private static final double CURRENT_OFFSET = 0;
-    private static final int CALIBRATION_PERIODS = 25;
-    private static final int AC_FREQUENCY = 50;
-    private static final Voltage VOLTAGE_FALLBACK = Voltage.of(0);
     private static final int MIN_SAMPLES = 5;
+    private static final int BUFFER_SIZE = 1024;
+    private static final int CAPTURE_TIMEOUT_WINDOWS = 4;
+    private static final int MAX_GAP_PER_CYCLE = 4;
+    private static final int POLLS_PER_CYCLE = 20;
 
     private final Supplier<Voltage> channel;
+    private final SampleRing samples;
     private final Configuration configuration;
-    private Voltage voltageAtZero;
+    private final double[] voltageBuffer = new double[BUFFER_SIZE];
+    private final long[] timestampBuffer = new long[BUFFER_SIZE];
+    private volatile CurrentWaveform lastWaveform;
 
     /**
      * Scale factor identifing different ACS sensor versions
@@ -47,17 +61,16 @@ public class AcsSensor<ID> extends Sensor<ID> {
     }
 
     protected AcsSensor(ID identifier, DetectionFactory<ID> detectionFactory, Supplier<Voltage> channel,
-        Configuration configuration) {
-        super(identifier, detectionFactory);
+        SampleRing samples, Configuration configuration, Executor executor) {
+        super(identifier, detectionFactory, executor);
         this.channel = channel;
+        this.samples = samples;
         this.configuration = configuration;
-        calibrate();
     }
 
     @Override
     protected CompletableFuture<List<Measure>> measure() {
-        return CompletableFuture.supplyAsync(() -> computeCurrentAC())
-                .thenApply(List::of);
+        return CompletableFuture.supplyAsync(this::computeMeasures, getExecutor());
     }
 
     @Override
@@ -66,65 +79,103 @@ public class AcsSensor<ID> extends Sensor<ID> {
     }
 
     /**
-     * Determines and set the voltage value at 0A current
+     * @return the analysis of the last captured waveform, empty before the first measure.
      */
-    private void calibrate() {
-        Double middle = configuration.referenceVoltage.getValue() / 2;
-
-        channel.get(); //First read used to clean the channel
-        Optional<Voltage> avg = Optional.empty();
-        while (avg.isEmpty()) {
-            avg = getAvgVoltage(Voltage.of(middle), CALIBRATION_PERIODS);
-        }
-        voltageAtZero = Voltage.of(avg.get().getValue() + middle);
+    public Optional<CurrentWaveform> getLastWaveform() {
+        return Optional.ofNullable(lastWaveform);
     }
 
     /**
-     * @return current in amphs
+     * @return current in amphs, the apparent power and, when the waveform has been captured, its crest factor.
      */
-    private Current computeCurrentAC() {
-        var avg = getAvgVoltage(voltageAtZero, 1).orElse(VOLTAGE_FALLBACK).getValue();
-
-        Double currentValue = avg
-                    / configuration.scaleFactor.value - CURRENT_OFFSET;
-
-        return Current.of(currentValue > CURRENT_THRESHOLD ? currentValue : 0.0);
+    private List<Measure> computeMeasures() {
+        var waveform = captureWaveform();
+        waveform.ifPresent(w -> lastWaveform = w);
+        // no current when the waveform can not be captured, as the previous peak based implementation
+        var currentValue = waveform.map(CurrentWaveform::getRms).orElse(0.0) - CURRENT_OFFSET;
+        var current = Current.of(currentValue > CURRENT_THRESHOLD ? currentValue : 0.0);
+        var measures = new ArrayList<Measure>(3);
+        measures.add(current);
+        measures.add(ApparentPower.of(current, configuration.mainsVoltage));
+        waveform.ifPresent(w -> measures.add(CrestFactor.of(w.getCrestFactor())));
+        return measures;
     }
 
-    private Optional<Voltage> getAvgVoltage(Voltage offset, int periods) {
-        var period = Execution.SECOND_IN_MICRO / AC_FREQUENCY;
-        var start = Execution.instantInMicros();
-
-        // var totalVoltage = 0.0;
-        var numberOfMeasurements = 0;
-        var maxVoltage = 0.0;
-        // var previousValue = 0.0;
-
-        /*
-         * 2 versioni:
-         * 1. faccio la media dei valori
-         * 2. cerco il picco ... usiamo questa adesso
-         */
-
-        while (Execution.instantInMicros() - start < period * periods) {
-            var currentValue = channel.get().getValue();
-
-            // if (Math.abs(currentValue - previousValue) > Double.MIN_VALUE) {
-            var voltage = Math.abs(currentValue - offset.getValue());
-            // System.out.println(currentValue + " / " + offset.getValue() + " / "  + voltage);
-            if (voltage > maxVoltage) {
-                maxVoltage = voltage;
+    /**
+     * Fills the buffers until their samples span the configured number of mains cycles.
+     * Without a stream the channel is polled at most {@value #POLLS_PER_CYCLE} times per cycle, so the
+     * converter is free between two polls for the other channels.
+     * A gap longer than a fraction of a cycle, as the one left by a slow channel of the ADC scan,
+     * restarts the window; when the buffers are full the samples are decimated and the following ones
+     * are kept at the doubled spacing, so the window stays uniformly sampled whatever the input rate.
+     */
+    private synchronized Optional<CurrentWaveform> captureWaveform() {
+        var cycleInMicros = TimeUnit.SECONDS.toMicros(1) / configuration.mainsFrequency;
+        var windowInMicros = cycleInMicros * configuration.cycles;
+        var maxGapInMicros = cycleInMicros / MAX_GAP_PER_CYCLE;
+        var deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(windowInMicros * CAPTURE_TIMEOUT_WINDOWS);
+        var cursor = samples == null ? null : samples.cursor();
+        var pollIntervalInNanos = TimeUnit.MICROSECONDS.toNanos(cycleInMicros) / POLLS_PER_CYCLE;
+        var nextPoll = System.nanoTime();
+        var spacingInMicros = 0L;
+        var start = 0;
+        var size = 0;
+        while (System.nanoTime() < deadline) {
+            int read;
+            if (cursor != null) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(cycleInMicros));
+                read = cursor.read(voltageBuffer, timestampBuffer, size, BUFFER_SIZE - size);
+            } else {
+                LockSupport.parkNanos(nextPoll - System.nanoTime());
+                nextPoll = Math.max(nextPoll + pollIntervalInNanos, System.nanoTime());
+                voltageBuffer[size] = channel.get().getValue();
+                timestampBuffer[size] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime());
+                read = 1;
+            }
+            var limit = size + read;
+            for (int i = size; i < limit; i++) {
+                var elapsed = size > 0 ? timestampBuffer[i] - timestampBuffer[size - 1] : spacingInMicros;
+                if (elapsed < spacingInMicros) {
+                    continue;
+                }
+                voltageBuffer[size] = voltageBuffer[i];
+                timestampBuffer[size] = timestampBuffer[i];
+                if (size > start && elapsed > maxGapInMicros) {
+                    start = size;
+                }
+                var overshoot = timestampBuffer[size] - timestampBuffer[start] - windowInMicros;
+                if (overshoot >= 0) {
+                    // the window ends on the sample closest to the last cycle boundary
+                    var end = overshoot > elapsed - overshoot ? size : size + 1;
+                    return end - start < MIN_SAMPLES * configuration.cycles
+                            ? Optional.empty()
+                            : Optional.of(CurrentWaveform.of(voltageBuffer, timestampBuffer, start, end,
+                                    configuration.scaleFactor.value, configuration.mainsVoltage.getValue()));
+                }
+                size++;
+            }
+            if (size == BUFFER_SIZE) {
+                size = start > 0 ? compact(start, size) : decimate(size);
+                spacingInMicros = start > 0 ? spacingInMicros
+                        : (timestampBuffer[size - 1] - timestampBuffer[0]) / Math.max(1, size - 1);
+                start = 0;
             }
-
-            //totalVoltage += Math.abs(voltage); // * voltage;
-            numberOfMeasurements++;
-            // previousValue = currentValue;
-            // }
         }
+        return Optional.empty();
+    }
+
+    private int compact(final int start, final int size) {
+        System.arraycopy(voltageBuffer, start, voltageBuffer, 0, size - start);
+        System.arraycopy(timestampBuffer, start, timestampBuffer, 0, size - start);
+        return size - start;
+    }
 
-        return numberOfMeasurements < MIN_SAMPLES * periods
-            ? Optional.empty()
-            : Optional.of(Voltage.of(maxVoltage)); // totalVoltage / numberOfMeasurements
+    private int decimate(final int size) {
+        for (int i = 0; i < size / 2; i++) {
+            voltageBuffer[i] = voltageBuffer[2 * i];
+            timestampBuffer[i] = timestampBuffer[2 * i];
+        }
+        return size / 2;
     }
 
     /**
@@ -133,18 +184,34 @@ public class AcsSensor<ID> extends Sensor<ID> {
     public static class Configuration {
         private final ScaleFactor scaleFactor;
         private final Voltage referenceVoltage;
+        private final Voltage mainsVoltage;
+        private final int mainsFrequency;
+        private final int cycles;
 
-        protected Configuration(ScaleFactor scaleFactor, Voltage referenceVoltage) {
+        protected Configuration(ScaleFactor scaleFactor, Voltage referenceVoltage, Voltage mainsVoltage,
+                                int mainsFrequency, int cycles) {
             this.scaleFactor = scaleFactor;
             this.referenceVoltage = referenceVoltage;
+            this.mainsVoltage = mainsVoltage;
+            this.mainsFrequency = mainsFrequency;
+            this.cycles = cycles;
+        }
+
+        public Voltage getReferenceVoltage() {
+            return referenceVoltage;
         }
 
         /**
          * Builder used to construct a {@link Configuration} instance.
          */
         public static class Builder {
+            private static final int DEFAULT_MAINS_FREQUENCY = 50;
+            private static final int DEFAULT_CYCLES = 10;
             private ScaleFactor scaleFactor;
             private Voltage referenceVoltage;
+            private Voltage mainsVoltage = Voltage.of(Current.AC_IN_VOLT);
+            private int mainsFrequency = DEFAULT_MAINS_FREQUENCY;
+            private int cycles = DEFAULT_CYCLES;
 
             public Builder setScaleFactor(ScaleFactor scaleFactor) {
                 this.scaleFactor = scaleFactor;
@@ -156,8 +223,40 @@ public class AcsSensor<ID> extends Sensor<ID> {
                 return this;
             }
 
+            /**
+             * Sets the nominal RMS voltage of the mains, used for the apparent power.
+             * @param mainsVoltage of the mains.
+             * @return the builder.
+             */
+            public Builder setMainsVoltage(Voltage mainsVoltage) {
+                this.mainsVoltage = Voltage.of(mainsVoltage.getValue());
+                return this;
+            }
+
+            public Builder setMainsFrequency(int mainsFrequency) {
+                this.mainsFrequency = mainsFrequency;
+                return this;
+            }
+
+            /**
+             * Sets how many mains cycles are captured for a measure, more cycles average more noise.
+             * @param cycles in a measure.
+             * @return the builder.
+             */
+            public Builder setCycles(int cycles) {
+                this.cycles = cycles;
+                return this;
+            }
+
+            /**
+             * Creates the configuration.
+             * @return the configuration.
+             */
             public Configuration build() {
-                return new Configuration(scaleFactor, referenceVoltage);
+                if (mainsFrequency <= 0 || cycles <= 0) {
+                    throw new IllegalArgumentException("The mains frequency and the cycles must be positive");
+                }
+                return new Configuration(scaleFactor, referenceVoltage, mainsVoltage, mainsFrequency, cycles);
             }
         }
     }
@@ -169,6 +268,7 @@ public class AcsSensor<ID> extends Sensor<ID> {
     @Generated
     public static class Builder<ID> extends SensorBuilder<ID> {
         private Supplier<Voltage> channel;
+        private SampleRing samples;
 
         private Configuration configuration;
 
@@ -177,6 +277,17 @@ public class AcsSensor<ID> extends Sensor<ID> {
             return this;
         }
 
+        /**
+         * Sets the stream of the channel, filled by a scanning ADC: the samples are read from it
+         * instead of polling the channel.
+         * @param samples of the channel.
+         * @return the builder.
+         */
+        public Builder<ID> setSamples(SampleRing samples) {
+            this.samples = samples;
+            return this;
+        }
+
         public Builder<ID> setConfiguration(Configuration configuration) {
             this.configuration = configuration;
             return this;
@@ -184,7 +295,8 @@ public class AcsSensor<ID> extends Sensor<ID> {
 
         @Override
         public Sensor<ID> build() {
-            return new AcsSensor<>(getIdentifier(), getDetectionFactory(), channel, configuration);
+            return new AcsSensor<>(getIdentifier(), getDetectionFactory(), channel, samples, configuration,
+                    getExecutor());
         }
     }
 }
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.pi4j.io.i2c.I2C;
 
@@ -21,8 +22,8 @@ public class BH1750Sensor<ID> extends Sensor<ID> {
     private final I2C channel;
 
     private BH1750Sensor(final ID identifier, final DetectionFactory<ID> detectionFactory,
-                         final I2C channel) {
-        super(identifier, detectionFactory);
+                         final I2C channel, final Executor executor) {
+        super(identifier, detectionFactory, executor);
         this.channel = channel;
         init();
     }
@@ -36,7 +37,7 @@ public class BH1750Sensor<ID> extends Sensor<ID> {
             int msb = p[0] & 0xff;
             int lsb = p[1] & 0xff;
             return Brightness.of((msb << 8) + lsb);
-        }).thenApply(List::of);
+        }, getExecutor()).thenApply(List::of);
     }
 
     @Override
@@ -62,7 +63,7 @@ public class BH1750Sensor<ID> extends Sensor<ID> {
 
         @Override
         public BH1750Sensor<ID> build() {
-            return new BH1750Sensor<>(getIdentifier(), getDetectionFactory(), i2c);
+            return new BH1750Sensor<>(getIdentifier(), getDetectionFactory(), i2c, getExecutor());
         }
     }
 }
@@ -0,0 +1,129 @@
+package io.github.ecotrip.adapter.sensor;
+
+/**
+ * True-RMS analysis of an AC current waveform, sampled as the output voltage of a current sensor
+ * over an integer number of mains cycles.
+ * Over whole cycles the mean of the waveform is the zero-current offset of the sensor, so it is removed
+ * without calibration, and the RMS is the standard deviation of the samples over time. The samples are
+ * read from primitive arrays in two passes, nothing is allocated per sample.
+ * Only the current is sampled: the apparent power is computed with the nominal mains voltage, the real
+ * power would need the voltage waveform too.
+ */
+public class CurrentWaveform {
+    private final double rms;
+    private final double peak;
+    private final double offset;
+    private final int sampleCount;
+    private final double mainsVoltage;
+
+    private CurrentWaveform(final double rms, final double peak, final double offset, final int sampleCount,
+                            final double mainsVoltage) {
+        this.rms = rms;
+        this.peak = peak;
+        this.offset = offset;
+        this.sampleCount = sampleCount;
+        this.mainsVoltage = mainsVoltage;
+    }
+
+    /**
+     * @return the root mean square of the current, in amps.
+     */
+    public double getRms() {
+        return rms;
+    }
+
+    /**
+     * @return the highest absolute deviation of the current from its mean, in amps.
+     */
+    public double getPeak() {
+        return peak;
+    }
+
+    /**
+     * @return the sensor output at zero current, in volts.
+     */
+    public double getOffset() {
+        return offset;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Ratio between peak and RMS: square root of two for a sinusoidal load, higher for the switching
+     * power supplies and for the noise spikes.
+     * @return the crest factor, zero without current.
+     */
+    public double getCrestFactor() {
+        return rms > 0 ? peak / rms : 0;
+    }
+
+    /**
+     * @return the apparent power at the nominal mains voltage, in volt-amperes.
+     */
+    public double getApparentPower() {
+        return rms * mainsVoltage;
+    }
+
+    @Override
+    public String toString() {
+        return "CurrentWaveform{"
+                + "rms=" + rms
+                + ", peak=" + peak
+                + ", crestFactor=" + getCrestFactor()
+                + ", apparentPower=" + getApparentPower()
+                + ", samples=" + sampleCount
+                + '}';
+    }
+
+    /**
+     * Analyzes a slice of sensor output voltages, which must span an integer number of mains cycles.
+     * Every sample is weighted by half the time to its neighbours, so the irregular spacing left by
+     * the scheduling or by the other channels of a scan does not bias the result.
+     * @param voltages sampled at the sensor output.
+     * @param timestamps of the samples, in microseconds.
+     * @param from index of the first sample, inclusive.
+     * @param to index of the last sample, exclusive.
+     * @param voltsPerAmp is the sensitivity of the sensor.
+     * @param mainsVoltage is the nominal RMS voltage of the mains.
+     * @return the analysis.
+     */
+    public static CurrentWaveform of(final double[] voltages, final long[] timestamps, final int from, final int to,
+                                     final double voltsPerAmp, final double mainsVoltage) {
+        if (from < 0 || to > voltages.length || to > timestamps.length || to - from < 1) {
+            throw new IllegalArgumentException("The waveform must contain at least a sample");
+        }
+        var last = to - 1;
+        var duration = (double) (timestamps[last] - timestamps[from]);
+        var sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += voltages[i] * weightOf(timestamps, from, last, i, duration);
+        }
+        var mean = sum / duration(from, to, duration);
+        var squares = 0.0;
+        var peak = 0.0;
+        for (int i = from; i < to; i++) {
+            var deviation = voltages[i] - mean;
+            squares += deviation * deviation * weightOf(timestamps, from, last, i, duration);
+            peak = Math.max(peak, Math.abs(deviation));
+        }
+        var rms = Math.sqrt(squares / duration(from, to, duration));
+        return new CurrentWaveform(rms / voltsPerAmp, peak / voltsPerAmp, mean, to - from, mainsVoltage);
+    }
+
+    /**
+     * Weight of a sample in the trapezoidal integration, one for each sample when the slice has no duration.
+     */
+    private static double weightOf(final long[] timestamps, final int from, final int last, final int index,
+                                   final double duration) {
+        if (duration <= 0) {
+            return 1;
+        }
+        return (timestamps[Math.min(index + 1, last)] - timestamps[Math.max(index - 1, from)]) / 2.0;
+    }
+
+    private static double duration(final int from, final int to, final double duration) {
+        return duration > 0 ? duration : to - from;
+    }
+}
@@ -3,6 +3,7 @@ package io.github.ecotrip.adapter.sensor;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 
 import com.pi4j.context.Context;
@@ -37,20 +38,20 @@ public class DhtSensor<ID> extends Sensor<ID> {
     private final Context ctx;
 
     protected DhtSensor(ID identifier, DetectionFactory<ID> detectionFactory,
-                        DigitalMultipurpose channel, Context ctx) {
-        super(identifier, detectionFactory);
+                        DigitalMultipurpose channel, Context ctx, Executor executor) {
+        super(identifier, detectionFactory, executor);
         this.channel = channel;
         this.ctx = ctx;
     }
 
     @Override
     protected CompletableFuture<List<Measure>> measure() {
-        return CompletableFuture.runAsync(() -> channel.initialize(ctx))
+        return CompletableFuture.runAsync(() -> channel.initialize(ctx), getExecutor())
             .thenCompose(u -> synchronizeWithTheProtocol())
             .thenApplyAsync(u -> detectEdgesAndConvertToMeasures((r, v) -> {
                 channel.shutdown(ctx);
                 return checkReadBitsAndGetMeasures(r, v);
-            }))
+            }), getExecutor())
             .thenCompose(l -> l.isEmpty() ? measure() : CompletableFuture.completedFuture(l));
     }
 
@@ -72,7 +73,7 @@ public class DhtSensor<ID> extends Sensor<ID> {
     }
 
     private CompletableFuture<Void> synchronizeWithTheProtocol() {
-        return CompletableFuture.runAsync(channel::low)
+        return CompletableFuture.runAsync(channel::low, getExecutor())
             .thenRun(() -> Execution.safeSleep(16))
             .thenRun(channel::high)
             .thenRun(() -> channel.mode(DigitalMode.INPUT));
@@ -149,7 +150,7 @@ public class DhtSensor<ID> extends Sensor<ID> {
 
         @Override
         public Sensor<ID> build() {
-            return new DhtSensor<>(getIdentifier(), getDetectionFactory(), channel, ctx);
+            return new DhtSensor<>(getIdentifier(), getDetectionFactory(), channel, ctx, getExecutor());
         }
     }
 }
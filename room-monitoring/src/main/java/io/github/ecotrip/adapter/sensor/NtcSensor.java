@@ -2,6 +2,7 @@ package io.github.ecotrip.adapter.sensor;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import io.github.ecotrip.Generated;
@@ -25,8 +26,9 @@ public class NtcSensor<ID> extends Sensor<ID> {
     private final Configuration configuration;
 
     private NtcSensor(final ID identifier, final DetectionFactory<ID> detectionFactory,
-                      final Supplier<Voltage> channel, final Configuration configuration) {
-        super(identifier, detectionFactory);
+                      final Supplier<Voltage> channel, final Configuration configuration,
+                      final Executor executor) {
+        super(identifier, detectionFactory, executor);
         this.channel = channel;
         this.configuration = configuration;
     }
@@ -42,7 +44,7 @@ public class NtcSensor<ID> extends Sensor<ID> {
                     configuration.sensorResistance,
                     configuration.bValue,
                     configuration.nominalTemperature);
-        }).thenApply(List::of);
+        }, getExecutor()).thenApply(List::of);
     }
 
     @Override
@@ -81,7 +83,7 @@ public class NtcSensor<ID> extends Sensor<ID> {
 
         @Override
         public NtcSensor<ID> build() {
-            return new NtcSensor<>(getIdentifier(), getDetectionFactory(), channel, configuration);
+            return new NtcSensor<>(getIdentifier(), getDetectionFactory(), channel, configuration, getExecutor());
         }
     }
 
@@ -2,22 +2,24 @@ package io.github.ecotrip.adapter.sensor;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalState;
 
 import io.github.ecotrip.Generated;
 import io.github.ecotrip.adapter.builder.SensorBuilder;
-import io.github.ecotrip.execution.Execution;
 import io.github.ecotrip.measure.Measure;
 import io.github.ecotrip.measure.water.FlowRate;
 import io.github.ecotrip.sensor.DetectionFactory;
 import io.github.ecotrip.sensor.Sensor;
 
 /**
- * Generic water flow hall effect sensor implementation
+ * Generic water flow hall effect sensor implementation.
+ * Pulses are counted continuously, so each measure covers the time elapsed since the previous one
+ * and never blocks the calling thread.
  *
  * @param <ID> uniquely identifies the sensor instance.
  */
@@ -26,7 +28,7 @@ public class WaterFlowHallSensor<ID> extends Sensor<ID> {
     private static final long ONE_SECOND_IN_MILLIS = 1000;
     private final int frequency;
     private final AtomicInteger pulses = new AtomicInteger();
-    private final AtomicBoolean enabledForReading = new AtomicBoolean();
+    private final AtomicLong lastMeasureTime = new AtomicLong(System.nanoTime());
     private final FlowRate.FlowRateType flowRateType;
 
     private WaterFlowHallSensor(ID identifier, DetectionFactory<ID> detectionFactory, int frequency,
@@ -35,7 +37,7 @@ public class WaterFlowHallSensor<ID> extends Sensor<ID> {
         this.frequency = frequency;
         this.flowRateType = flowRateType;
         digitalInput.addListener(e -> {
-            if (e.state() == DigitalState.HIGH && enabledForReading.get()) {
+            if (e.state() == DigitalState.HIGH) {
                 pulses.incrementAndGet();
             }
         });
@@ -43,11 +45,10 @@ public class WaterFlowHallSensor<ID> extends Sensor<ID> {
 
     @Override
     protected CompletableFuture<List<Measure>> measure() {
-        return CompletableFuture.supplyAsync(() -> {
-            pulses.set(0);
-            double actualTime = Execution.getComputationalTimeInMillis(this::receivePulsesWithinOneSecond);
-            return computeFlowRateUsingHallEffect(actualTime);
-        }).thenApply(List::of);
+        var now = System.nanoTime();
+        var actualTime = TimeUnit.NANOSECONDS.toMillis(now - lastMeasureTime.getAndSet(now));
+        var actualPulses = pulses.getAndSet(0);
+        return CompletableFuture.completedFuture(List.of(computeFlowRateUsingHallEffect(actualPulses, actualTime)));
     }
 
     @Override
@@ -55,15 +56,9 @@ public class WaterFlowHallSensor<ID> extends Sensor<ID> {
         return measure.getValue() >= 0;
     }
 
-    private FlowRate computeFlowRateUsingHallEffect(final double actualTime) {
-        double actualPulses = ((pulses.get() * actualTime) / ONE_SECOND_IN_MILLIS);
-        return FlowRate.of(actualPulses / frequency, flowRateType);
-    }
-
-    private void receivePulsesWithinOneSecond() {
-        enabledForReading.set(true);
-        Execution.safeSleep(ONE_SECOND_IN_MILLIS);
-        enabledForReading.set(false);
+    private FlowRate computeFlowRateUsingHallEffect(final int actualPulses, final long actualTime) {
+        double pulsesPerSecond = actualTime > 0 ? (double) actualPulses * ONE_SECOND_IN_MILLIS / actualTime : 0;
+        return FlowRate.of(pulsesPerSecond / frequency, flowRateType);
     }
 
     /**
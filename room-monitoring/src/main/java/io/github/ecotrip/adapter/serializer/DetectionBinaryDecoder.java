@@ -0,0 +1,153 @@
+package io.github.ecotrip.adapter.serializer;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.RunningStatistics;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.Measures;
+
+/**
+ * Reads back the payloads written by {@link DetectionBinarySerializer}, with the current or the previous schemas.
+ * The values and the statistics are restored with the precision of their fixed-point scale and the timestamps
+ * with microseconds precision; the records of the previous schemas have no statistics.
+ */
+public class DetectionBinaryDecoder {
+    private DetectionBinaryDecoder() { }
+
+    /**
+     * Decodes all the records of a payload.
+     * @param source is the buffer, read from its current position.
+     * @return the records, in the same order in which they have been written.
+     * @throws IllegalArgumentException if the schema is unknown or the payload is malformed.
+     */
+    public List<DetectionWrapper> decode(final ByteBuffer source) {
+        try {
+            var schemaId = source.get();
+            if (schemaId != DetectionBinarySerializer.SCHEMA_ID
+                    && schemaId != DetectionBinarySerializer.SCHEMA_WITHOUT_STATISTICS
+                    && schemaId != DetectionBinarySerializer.SCHEMA_WITHOUT_FLAGS) {
+                throw new IllegalArgumentException("Unknown schema " + schemaId);
+            }
+            var count = toCount(Varints.getUnsigned(source), source);
+            var records = new ArrayList<DetectionWrapper>(count);
+            long timestamp = 0;
+            String stayId = null;
+            for (int i = 0; i < count; i++) {
+                var identifier = new UUID(source.getLong(), source.getLong());
+                timestamp += Varints.getSigned(source);
+                var sampleDuration = (int) Varints.getUnsigned(source);
+                var flags = schemaId != DetectionBinarySerializer.SCHEMA_WITHOUT_FLAGS ? source.get() : 0;
+                stayId = getStayId(source, stayId);
+                var measures = getMeasures(source);
+                var statistics = MeasureStatistics.create();
+                if (schemaId == DetectionBinarySerializer.SCHEMA_ID) {
+                    getStatistics(source, statistics);
+                }
+                var detection = Detection.of(identifier, toInstant(timestamp), measures);
+                var delta = (flags & DetectionBinarySerializer.FLAG_DELTA) != 0;
+                records.add(DetectionWrapper.of(detection, sampleDuration, stayId, statistics, delta));
+            }
+            return records;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated payload", e);
+        }
+    }
+
+    /**
+     * Decodes a payload which contains a single record.
+     * @param source is the buffer, read from its current position.
+     * @return the record.
+     * @throws IllegalArgumentException if the payload does not contain exactly one record.
+     */
+    public DetectionWrapper decodeSingle(final ByteBuffer source) {
+        var records = decode(source);
+        if (records.size() != 1) {
+            throw new IllegalArgumentException("Expected a single record, found " + records.size());
+        }
+        return records.get(0);
+    }
+
+    private String getStayId(final ByteBuffer source, final String previousStayId) {
+        var tag = source.get();
+        switch (tag) {
+        case DetectionBinarySerializer.STAY_NULL:
+            return null;
+        case DetectionBinarySerializer.STAY_UUID:
+            return new UUID(source.getLong(), source.getLong()).toString();
+        case DetectionBinarySerializer.STAY_STRING:
+            var bytes = new byte[toCount(Varints.getUnsigned(source), source)];
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        case DetectionBinarySerializer.STAY_PREVIOUS:
+            return previousStayId;
+        default:
+            throw new IllegalArgumentException("Unknown stay id tag " + tag);
+        }
+    }
+
+    private List<Measure> getMeasures(final ByteBuffer source) {
+        var count = toCount(Varints.getUnsigned(source), source);
+        var measures = new ArrayList<Measure>(count);
+        for (int i = 0; i < count; i++) {
+            var type = getType(source);
+            var value = Varints.getSigned(source) / (double) DetectionBinarySerializer.getScale(type);
+            measures.add(Measures.of(type, value));
+        }
+        return measures;
+    }
+
+    private void getStatistics(final ByteBuffer source, final MeasureStatistics statistics) {
+        var count = toCount(Varints.getUnsigned(source), source);
+        for (int i = 0; i < count; i++) {
+            var type = getType(source);
+            var scale = (double) DetectionBinarySerializer.getScale(type);
+            var values = Varints.getUnsigned(source);
+            var mean = Varints.getSigned(source) / scale;
+            var min = Varints.getSigned(source) / scale;
+            var max = Varints.getSigned(source) / scale;
+            var standardDeviation = Varints.getSigned(source) / scale;
+            statistics.get(type).merge(RunningStatistics.of(values, mean, standardDeviation * standardDeviation,
+                    min, max));
+        }
+    }
+
+    private MeasureType getType(final ByteBuffer source) {
+        var wireId = Byte.toUnsignedInt(source.get());
+        var type = DetectionBinarySerializer.getType(wireId);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown measure type " + wireId);
+        }
+        return type;
+    }
+
+    /**
+     * Every element takes at least a byte, so a count bigger than the remaining bytes is malformed.
+     */
+    private static int toCount(final long count, final ByteBuffer source) {
+        if (count < 0 || count > source.remaining()) {
+            throw new IllegalArgumentException("Invalid length " + count);
+        }
+        return (int) count;
+    }
+
+    private static Instant toInstant(final long timestampInMicros) {
+        var seconds = Math.floorDiv(timestampInMicros, TimeUnit.SECONDS.toMicros(1));
+        var micros = Math.floorMod(timestampInMicros, TimeUnit.SECONDS.toMicros(1));
+        return Instant.ofEpochSecond(seconds, TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+    public static DetectionBinaryDecoder create() {
+        return new DetectionBinaryDecoder();
+    }
+}
@@ -0,0 +1,256 @@
+package io.github.ecotrip.adapter.serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.ecotrip.adapter.BufferSerializer;
+import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+
+/**
+ * Compact binary encoding of one or more {@link DetectionWrapper}s, read back by {@link DetectionBinaryDecoder}.
+ * Schema 3, all the integers are varints and the signed ones are zigzag encoded:
+ * <pre>
+ * byte      schema id
+ * varint    number of records
+ * record:
+ *   16 bytes  identifier, most significant bits first
+ *   signed    timestamp in microseconds, as delta from the previous record (from the epoch for the first)
+ *   varint    sample duration in seconds
+ *   byte      flags: 1 if the record is a delta report
+ *   byte      stay id tag: 0 null, 1 UUID on 16 bytes, 2 UTF-8 string with varint length, 3 same of previous
+ *   varint    number of measures
+ *   measure:
+ *     byte    {@link MeasureType} wire id
+ *     signed  value in fixed-point, multiplied by the scale of its type
+ *   varint    number of statistics
+ *   statistics:
+ *     byte    {@link MeasureType} wire id
+ *     varint  number of sampled values
+ *     signed  mean, min, max and standard deviation in fixed-point, as the values
+ * </pre>
+ * Schema 2 is the same layout without the statistics, schema 1 without the flags too.
+ * The wire id of a type is fixed by {@link #computeWireId(MeasureType)} and never reused, so the enum can be
+ * reordered or extended without changing the schema.
+ * The serializer is stateless and thread-safe.
+ */
+public class DetectionBinarySerializer implements BufferSerializer<DetectionWrapper> {
+    /**
+     * Identifies the layout described above, it must change whenever the layout does.
+     */
+    public static final byte SCHEMA_ID = 3;
+    static final byte SCHEMA_WITHOUT_STATISTICS = 2;
+    static final byte SCHEMA_WITHOUT_FLAGS = 1;
+    static final byte FLAG_DELTA = 1;
+    static final byte STAY_NULL = 0;
+    static final byte STAY_UUID = 1;
+    static final byte STAY_STRING = 2;
+    static final byte STAY_PREVIOUS = 3;
+    private static final MeasureType[] TYPES = MeasureType.values();
+    private static final long[] SCALES;
+    private static final byte[] WIRE_IDS;
+    private static final MeasureType[] TYPES_BY_WIRE_ID;
+    private static final int UUID_LENGTH = 36;
+    static {
+        SCALES = new long[TYPES.length];
+        WIRE_IDS = new byte[TYPES.length];
+        var maxWireId = 0;
+        for (MeasureType type : TYPES) {
+            SCALES[type.ordinal()] = computeScale(type);
+            WIRE_IDS[type.ordinal()] = computeWireId(type);
+            maxWireId = Math.max(maxWireId, WIRE_IDS[type.ordinal()]);
+        }
+        TYPES_BY_WIRE_ID = new MeasureType[maxWireId + 1];
+        for (MeasureType type : TYPES) {
+            if (TYPES_BY_WIRE_ID[WIRE_IDS[type.ordinal()]] != null) {
+                throw new IllegalStateException("Duplicated wire id for " + type);
+            }
+            TYPES_BY_WIRE_ID[WIRE_IDS[type.ordinal()]] = type;
+        }
+    }
+
+    private DetectionBinarySerializer() { }
+
+    @Override
+    public void serialize(final DetectionWrapper element, final ByteBuffer target) {
+        target.put(SCHEMA_ID);
+        Varints.putUnsigned(target, 1);
+        putRecord(target, element, 0, null);
+    }
+
+    /**
+     * Writes many records inside the same payload, the timestamps are delta encoded.
+     * @param elements to be serialized.
+     * @param target is the destination buffer.
+     */
+    public void serializeAll(final List<DetectionWrapper> elements, final ByteBuffer target) {
+        target.put(SCHEMA_ID);
+        Varints.putUnsigned(target, elements.size());
+        long previousTimestamp = 0;
+        String previousStayId = null;
+        for (int i = 0; i < elements.size(); i++) {
+            var element = elements.get(i);
+            previousTimestamp = putRecord(target, element, previousTimestamp, i == 0 ? null : previousStayId);
+            previousStayId = element.getStayId();
+        }
+    }
+
+    private long putRecord(final ByteBuffer target, final DetectionWrapper element, final long previousTimestamp,
+                           final String previousStayId) {
+        var detection = element.getDetection();
+        target.putLong(detection.getIdentifier().getMostSignificantBits());
+        target.putLong(detection.getIdentifier().getLeastSignificantBits());
+        var timestamp = toMicros(detection.getDetectionTime());
+        Varints.putSigned(target, timestamp - previousTimestamp);
+        Varints.putUnsigned(target, element.getSampleDuration());
+        target.put(element.isDelta() ? FLAG_DELTA : 0);
+        putStayId(target, element.getStayId(), previousStayId);
+        var measures = detection.getMeasures();
+        Varints.putUnsigned(target, measures.size());
+        for (int i = 0; i < measures.size(); i++) {
+            var measure = measures.get(i);
+            var ordinal = measure.getType().ordinal();
+            target.put(WIRE_IDS[ordinal]);
+            Varints.putSigned(target, Math.round(measure.getValue() * SCALES[ordinal]));
+        }
+        putStatistics(target, element.getStatistics());
+        return timestamp;
+    }
+
+    private void putStatistics(final ByteBuffer target, final MeasureStatistics statistics) {
+        var count = 0;
+        for (MeasureType type : TYPES) {
+            count += statistics.get(type).isEmpty() ? 0 : 1;
+        }
+        Varints.putUnsigned(target, count);
+        for (MeasureType type : TYPES) {
+            var typeStatistics = statistics.get(type);
+            if (typeStatistics.isEmpty()) {
+                continue;
+            }
+            var scale = SCALES[type.ordinal()];
+            target.put(WIRE_IDS[type.ordinal()]);
+            Varints.putUnsigned(target, typeStatistics.getCount());
+            Varints.putSigned(target, Math.round(typeStatistics.getMean() * scale));
+            Varints.putSigned(target, Math.round(typeStatistics.getMin() * scale));
+            Varints.putSigned(target, Math.round(typeStatistics.getMax() * scale));
+            Varints.putSigned(target, Math.round(typeStatistics.getStandardDeviation() * scale));
+        }
+    }
+
+    private void putStayId(final ByteBuffer target, final String stayId, final String previousStayId) {
+        if (stayId == null) {
+            target.put(STAY_NULL);
+        } else if (stayId.equals(previousStayId)) {
+            target.put(STAY_PREVIOUS);
+        } else if (isUuid(stayId)) {
+            target.put(STAY_UUID);
+            target.putLong(parseHex(stayId, 0, 8) << 32 | parseHex(stayId, 9, 13) << 16 | parseHex(stayId, 14, 18));
+            target.putLong(parseHex(stayId, 19, 23) << 48 | parseHex(stayId, 24, UUID_LENGTH));
+        } else {
+            var bytes = stayId.getBytes(StandardCharsets.UTF_8);
+            target.put(STAY_STRING);
+            Varints.putUnsigned(target, bytes.length);
+            target.put(bytes);
+        }
+    }
+
+    /**
+     * Only the canonical lowercase form is accepted, so the decoded string is identical.
+     */
+    private static boolean isUuid(final String value) {
+        if (value.length() != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            var c = value.charAt(i);
+            var isDash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (isDash ? c != '-' : !(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(final String value, final int from, final int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | Character.digit(value.charAt(i), 16);
+        }
+        return result;
+    }
+
+    private static long toMicros(final Instant instant) {
+        return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(instant.getNano());
+    }
+
+    /**
+     * Fixed-point scale of a type: the current keeps the precision of the watts sent in the JSON messages,
+     * the other measures are sent with two decimals.
+     */
+    private static long computeScale(final MeasureType type) {
+        switch (type) {
+        case CURRENT:
+            return 100000;
+        case VOLTAGE:
+            return 1000;
+        default:
+            return 100;
+        }
+    }
+
+    /**
+     * Identifier of a type inside the payloads, independent of its position in {@link MeasureType}:
+     * a new type takes the next free id.
+     */
+    private static byte computeWireId(final MeasureType type) {
+        switch (type) {
+        case ROOM_TEMPERATURE:
+            return 0;
+        case HUMIDITY:
+            return 1;
+        case BRIGHTNESS:
+            return 2;
+        case HOT_WATER_TEMPERATURE:
+            return 3;
+        case COLD_WATER_TEMPERATURE:
+            return 4;
+        case HOT_FLOW_RATE:
+            return 5;
+        case COLD_FLOW_RATE:
+            return 6;
+        case CURRENT:
+            return 7;
+        case VOLTAGE:
+            return 8;
+        case RESISTANCE:
+            return 9;
+        case APPARENT_POWER:
+            return 10;
+        case CREST_FACTOR:
+            return 11;
+        default:
+            throw new IllegalStateException("No wire id for " + type);
+        }
+    }
+
+    static long getScale(final MeasureType type) {
+        return SCALES[type.ordinal()];
+    }
+
+    /**
+     * @param wireId read from a payload.
+     * @return the type, null if the id is unknown.
+     */
+    static MeasureType getType(final int wireId) {
+        return wireId < TYPES_BY_WIRE_ID.length ? TYPES_BY_WIRE_ID[wireId] : null;
+    }
+
+    public static DetectionBinarySerializer create() {
+        return new DetectionBinarySerializer();
+    }
+}
@@ -0,0 +1,354 @@
+package io.github.ecotrip.adapter.serializer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import io.github.ecotrip.adapter.BufferSerializer;
+import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.adapter.Serializer;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.energy.Current;
+
+/**
+ * Writes a {@link DetectionWrapper} as JSON straight into a reusable direct {@link ByteBuffer}.
+ * The output is byte-compatible with the Jackson based serializer: the timestamp is written as decimal
+ * seconds with nanoseconds precision, the current is converted to watts and every value is rounded
+ * half-even to two decimals and then printed as {@link Double#toString(double)} would.
+ * The delta flag is written only for the delta reports, so the full ones keep the original format,
+ * and the statistics of the sampled values only when there are some, in the same unit of the measures.
+ * Field names are encoded once and the numbers are formatted with fixed-point arithmetic,
+ * so no intermediate String is created.
+ * The writer is thread-safe, but the buffer returned by {@link #write(DetectionWrapper)} is reused.
+ */
+public class DetectionJsonWriter implements Serializer<DetectionWrapper>, BufferSerializer<DetectionWrapper> {
+    /**
+     * Default size of the buffer, it grows when a message does not fit.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final byte[] IDENTIFIER = ascii("{\"identifier\":");
+    private static final byte[] TIMESTAMP = ascii(",\"timestamp\":");
+    private static final byte[] SAMPLE_DURATION = ascii(",\"sample_duration\":");
+    private static final byte[] STAY_ID = ascii(",\"stayId\":");
+    private static final byte[] DELTA = ascii(",\"delta\":true");
+    private static final byte[] MEASURES = ascii(",\"measures\":{");
+    private static final byte[] STATISTICS = ascii(",\"statistics\":{");
+    private static final byte[] COUNT = ascii("{\"count\":");
+    private static final byte[] MEAN = ascii(",\"mean\":");
+    private static final byte[] MIN = ascii(",\"min\":");
+    private static final byte[] MAX = ascii(",\"max\":");
+    private static final byte[] STDDEV = ascii(",\"stddev\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] NAN = ascii("\"NaN\"");
+    private static final byte[] NEGATIVE_ZERO = ascii("-0.0");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+    private static final byte[] ESCAPE_HEX = ascii("0123456789ABCDEF");
+    private static final MeasureType[] TYPES = MeasureType.values();
+    private static final byte[][] MEASURE_NAMES;
+    private static final int NANOS_DIGITS = 9;
+    private static final double PLAIN_NOTATION_LIMIT = 1e7;
+    private static final int DECIMALS_SCALE = 100;
+    static {
+        MEASURE_NAMES = new byte[TYPES.length][];
+        for (MeasureType type : TYPES) {
+            MEASURE_NAMES[type.ordinal()] = ascii("\"" + type.getName() + "\":");
+        }
+    }
+    private final byte[] digits = new byte[20];
+    private ByteBuffer buffer;
+
+    private DetectionJsonWriter(final int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Writes the message inside the internal buffer.
+     * @param wrapper to be written.
+     * @return the internal buffer, ready to be read, valid until the next call.
+     */
+    public synchronized ByteBuffer write(final DetectionWrapper wrapper) {
+        while (true) {
+            buffer.clear();
+            try {
+                serialize(wrapper, buffer);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Writes the message at the current position of the given buffer.
+     * @param wrapper to be written.
+     * @param target is the destination buffer.
+     * @throws BufferOverflowException if the buffer is too small.
+     */
+    @Override
+    public synchronized void serialize(final DetectionWrapper wrapper, final ByteBuffer target) {
+        var detection = wrapper.getDetection();
+        target.put(IDENTIFIER);
+        putUuid(target, detection.getIdentifier());
+        target.put(TIMESTAMP);
+        putInstant(target, detection.getDetectionTime());
+        target.put(SAMPLE_DURATION);
+        putLong(target, wrapper.getSampleDuration());
+        target.put(STAY_ID);
+        putString(target, wrapper.getStayId());
+        if (wrapper.isDelta()) {
+            target.put(DELTA);
+        }
+        target.put(MEASURES);
+        var measures = detection.getMeasures();
+        for (int i = 0; i < measures.size(); i++) {
+            var measure = measures.get(i);
+            if (i > 0) {
+                target.put((byte) ',');
+            }
+            target.put(MEASURE_NAMES[measure.getType().ordinal()]);
+            putRounded(target, toPublished(measure.getType(), measure.getValue()));
+        }
+        target.put((byte) '}');
+        if (!wrapper.getStatistics().isEmpty()) {
+            putStatistics(target, wrapper.getStatistics());
+        }
+        target.put((byte) '}');
+    }
+
+    /**
+     * Compatibility with the {@link Serializer} contract, the message is decoded into a String.
+     * @param element to be serialized.
+     * @return the JSON message.
+     */
+    @Override
+    public synchronized String serialize(final DetectionWrapper element) {
+        var message = write(element);
+        var bytes = new byte[message.remaining()];
+        message.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void putStatistics(final ByteBuffer target, final MeasureStatistics statistics) {
+        target.put(STATISTICS);
+        var first = true;
+        for (MeasureType type : TYPES) {
+            var typeStatistics = statistics.get(type);
+            if (typeStatistics.isEmpty()) {
+                continue;
+            }
+            if (!first) {
+                target.put((byte) ',');
+            }
+            first = false;
+            target.put(MEASURE_NAMES[type.ordinal()]);
+            target.put(COUNT);
+            putLong(target, typeStatistics.getCount());
+            target.put(MEAN);
+            putRounded(target, toPublished(type, typeStatistics.getMean()));
+            target.put(MIN);
+            putRounded(target, toPublished(type, typeStatistics.getMin()));
+            target.put(MAX);
+            putRounded(target, toPublished(type, typeStatistics.getMax()));
+            target.put(STDDEV);
+            putRounded(target, toPublished(type, typeStatistics.getStandardDeviation()));
+            target.put((byte) '}');
+        }
+        target.put((byte) '}');
+    }
+
+    private void putUuid(final ByteBuffer target, final UUID uuid) {
+        target.put((byte) '"');
+        putHex(target, uuid.getMostSignificantBits() >>> 32, 8);
+        target.put((byte) '-');
+        putHex(target, uuid.getMostSignificantBits() >>> 16, 4);
+        target.put((byte) '-');
+        putHex(target, uuid.getMostSignificantBits(), 4);
+        target.put((byte) '-');
+        putHex(target, uuid.getLeastSignificantBits() >>> 48, 4);
+        target.put((byte) '-');
+        putHex(target, uuid.getLeastSignificantBits(), 12);
+        target.put((byte) '"');
+    }
+
+    private void putHex(final ByteBuffer target, final long value, final int nibbles) {
+        for (int shift = (nibbles - 1) * 4; shift >= 0; shift -= 4) {
+            target.put(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * Seconds since the epoch, followed by the nanoseconds on nine digits: it's the BigDecimal
+     * representation used by Jackson for the {@link Instant} timestamps.
+     */
+    private void putInstant(final ByteBuffer target, final Instant instant) {
+        if (instant.getEpochSecond() == 0 && instant.getNano() == 0) {
+            target.put((byte) '0');
+            return;
+        }
+        putLong(target, instant.getEpochSecond());
+        target.put((byte) '.');
+        putPadded(target, instant.getNano(), NANOS_DIGITS);
+    }
+
+    /**
+     * Rounds half-even to two decimals, using the exact binary value of the double, then writes the
+     * shortest representation, as {@link Double#toString(double)}.
+     */
+    private void putRounded(final ByteBuffer target, final double value) {
+        if (Double.isNaN(value)) {
+            target.put(NAN);
+            return;
+        }
+        if (Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Infinite values can not be serialized");
+        }
+        if (Math.abs(value) >= PLAIN_NOTATION_LIMIT - 1) {
+            // scientific notation, not expected from the sensors
+            var rounded = new BigDecimal(value).setScale(2, RoundingMode.HALF_EVEN).doubleValue();
+            target.put(ascii(Double.toString(rounded)));
+            return;
+        }
+        var hundredths = toHundredths(value);
+        if (hundredths == 0 && (value < 0 || Double.doubleToRawLongBits(value) < 0)) {
+            target.put(NEGATIVE_ZERO);
+            return;
+        }
+        if (hundredths < 0) {
+            target.put((byte) '-');
+            hundredths = -hundredths;
+        }
+        putLong(target, hundredths / DECIMALS_SCALE);
+        target.put((byte) '.');
+        var decimals = (int) (hundredths % DECIMALS_SCALE);
+        if (decimals % 10 == 0) {
+            target.put((byte) ('0' + decimals / 10));
+        } else {
+            putPadded(target, decimals, 2);
+        }
+    }
+
+    private void putLong(final ByteBuffer target, final long value) {
+        if (value < 0) {
+            target.put((byte) '-');
+        }
+        var position = digits.length;
+        var remaining = value;
+        do {
+            digits[--position] = (byte) ('0' + Math.abs(remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+        target.put(digits, position, digits.length - position);
+    }
+
+    private void putPadded(final ByteBuffer target, final long value, final int width) {
+        var remaining = value;
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        target.put(digits, 0, width);
+    }
+
+    /**
+     * Writes a JSON string, escaping the characters as Jackson does and encoding it in UTF-8.
+     */
+    private void putString(final ByteBuffer target, final String value) {
+        if (value == null) {
+            target.put(NULL);
+            return;
+        }
+        target.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                target.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                putControl(target, c);
+            } else if (c < 0x80) {
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                var codePoint = Character.toCodePoint(c, value.charAt(++i));
+                target.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                target.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F))
+                        .put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        target.put((byte) '"');
+    }
+
+    private void putControl(final ByteBuffer target, final char c) {
+        target.put((byte) '\\');
+        switch (c) {
+        case '\b':
+            target.put((byte) 'b');
+            break;
+        case '\t':
+            target.put((byte) 't');
+            break;
+        case '\n':
+            target.put((byte) 'n');
+            break;
+        case '\f':
+            target.put((byte) 'f');
+            break;
+        case '\r':
+            target.put((byte) 'r');
+            break;
+        default:
+            target.put((byte) 'u').put((byte) '0').put((byte) '0')
+                    .put(ESCAPE_HEX[c >> 4]).put(ESCAPE_HEX[c & 0xF]);
+        }
+    }
+
+    /**
+     * The product can be rounded onto a tie: in that case the exact error, computed with a fused
+     * multiply-add, tells on which side the exact value is.
+     */
+    private static long toHundredths(final double value) {
+        var product = value * DECIMALS_SCALE;
+        var floor = Math.floor(product);
+        if (product - floor == 0.5) {
+            var error = Math.fma(value, DECIMALS_SCALE, -product);
+            if (error > 0) {
+                return (long) floor + 1;
+            } else if (error < 0) {
+                return (long) floor;
+            }
+        }
+        return (long) Math.rint(product);
+    }
+
+    /**
+     * The current is published as the power drawn at the nominal mains voltage.
+     */
+    private static double toPublished(final MeasureType type, final double value) {
+        return type == MeasureType.CURRENT ? value * Current.AC_IN_VOLT : value;
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static DetectionJsonWriter create() {
+        return of(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Factory method to create a {@link DetectionJsonWriter} instance.
+     * @param capacity is the initial size of the internal buffer.
+     * @return the writer.
+     */
+    public static DetectionJsonWriter of(final int capacity) {
+        return new DetectionJsonWriter(capacity);
+    }
+}
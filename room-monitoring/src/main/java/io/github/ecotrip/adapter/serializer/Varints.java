@@ -0,0 +1,57 @@
+package io.github.ecotrip.adapter.serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable-length encoding of the integers, seven bits per byte starting from the least significant ones.
+ * The signed values are zigzag encoded first, so the small negative numbers stay short.
+ */
+public final class Varints {
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD_MASK = 0x7F;
+    private static final int CONTINUATION = 0x80;
+    private static final int MAX_SHIFT = 63;
+
+    private Varints() { }
+
+    /**
+     * Writes a value as an unsigned varint.
+     * @param target is the destination buffer.
+     * @param value to be written, interpreted as unsigned.
+     */
+    public static void putUnsigned(final ByteBuffer target, final long value) {
+        var remaining = value;
+        while ((remaining & ~PAYLOAD_MASK) != 0) {
+            target.put((byte) (remaining & PAYLOAD_MASK | CONTINUATION));
+            remaining >>>= PAYLOAD_BITS;
+        }
+        target.put((byte) remaining);
+    }
+
+    public static void putSigned(final ByteBuffer target, final long value) {
+        putUnsigned(target, value << 1 ^ value >> MAX_SHIFT);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     * @param source is the buffer, read from its current position.
+     * @return the value.
+     * @throws IllegalArgumentException if the varint is longer than 64 bits.
+     */
+    public static long getUnsigned(final ByteBuffer source) {
+        long value = 0;
+        for (int shift = 0; shift <= MAX_SHIFT; shift += PAYLOAD_BITS) {
+            var current = source.get();
+            value |= (long) (current & PAYLOAD_MASK) << shift;
+            if ((current & CONTINUATION) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    public static long getSigned(final ByteBuffer source) {
+        var value = getUnsigned(source);
+        return value >>> 1 ^ -(value & 1);
+    }
+}
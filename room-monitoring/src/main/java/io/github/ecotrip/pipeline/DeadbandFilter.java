@@ -0,0 +1,122 @@
+package io.github.ecotrip.pipeline;
+
+import java.util.Arrays;
+
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.sensor.DetectionFrame;
+
+/**
+ * Report-by-exception filter: a value is reported only when it moves away from the last reported value of
+ * its {@link MeasureType} by more than the deadband, which is the greater of an absolute threshold and a
+ * threshold relative to the last reported value. The values of the types without a deadband are always reported.
+ * Every heartbeat, and the first time, all the values are reported as a full snapshot: the receivers rebuild
+ * the series holding the last value of every type, and the snapshots bound the effect of a lost message.
+ * A snapshot contains all the values of its input, so the types missing from the input, e.g. the ones whose
+ * aggregation window did not close in that cycle, are missing from the snapshot too.
+ * The filter is not thread-safe.
+ */
+public class DeadbandFilter {
+    /**
+     * Default number of cycles between two full snapshots.
+     */
+    public static final int DEFAULT_HEARTBEAT_CYCLES = 12;
+    private static final MeasureType[] TYPES = MeasureType.values();
+    private final double[] absolute = new double[TYPES.length];
+    private final double[] relative = new double[TYPES.length];
+    private final boolean[] enabled = new boolean[TYPES.length];
+    private final double[] lastReported = new double[TYPES.length];
+    private int heartbeatCycles = DEFAULT_HEARTBEAT_CYCLES;
+    private int cycles;
+
+    private DeadbandFilter() {
+        reset();
+    }
+
+    /**
+     * Sets the deadband of a type.
+     * @param type of the measure.
+     * @param absoluteThreshold is the minimum change reported, in the unit of the measure.
+     * @param relativeThreshold is the minimum change reported, as a fraction of the last reported value.
+     * @throws IllegalArgumentException if a threshold is negative.
+     */
+    public void setDeadband(final MeasureType type, final double absoluteThreshold, final double relativeThreshold) {
+        if (absoluteThreshold < 0 || relativeThreshold < 0) {
+            throw new IllegalArgumentException("The deadband thresholds can not be negative");
+        }
+        absolute[type.ordinal()] = absoluteThreshold;
+        relative[type.ordinal()] = relativeThreshold;
+        enabled[type.ordinal()] = true;
+    }
+
+    /**
+     * Reports every value of a type again.
+     * @param type of the measure.
+     */
+    public void removeDeadband(final MeasureType type) {
+        enabled[type.ordinal()] = false;
+    }
+
+    /**
+     * Changes how often a full snapshot is reported.
+     * @param cycles is the number of calls to {@link #filter(DetectionFrame.View, DetectionFrame)} between two
+     *               snapshots, 1 reports a snapshot every time.
+     */
+    public void setHeartbeat(final int cycles) {
+        if (cycles <= 0) {
+            throw new IllegalArgumentException("The heartbeat must be positive");
+        }
+        heartbeatCycles = cycles;
+    }
+
+    /**
+     * Tells if at least a type has a deadband, otherwise every value is reported.
+     * @return true if the filter drops some values.
+     */
+    public boolean isActive() {
+        for (boolean e : enabled) {
+            if (e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the values to be reported.
+     * @param input contains the values of the current cycle.
+     * @param output receives the values to be reported.
+     * @return true if the output is a full snapshot, false if it contains only the changed values.
+     */
+    public boolean filter(final DetectionFrame.View input, final DetectionFrame output) {
+        var snapshot = cycles == 0;
+        cycles = (cycles + 1) % heartbeatCycles;
+        input.forEach((type, value, timestampInMicros) -> {
+            var column = type.ordinal();
+            if (snapshot || !enabled[column] || isOutside(column, value)) {
+                output.add(type, value, timestampInMicros);
+                lastReported[column] = value;
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Forgets the reported values, so that the next call reports a full snapshot.
+     */
+    public void reset() {
+        Arrays.fill(lastReported, Double.NaN);
+        cycles = 0;
+    }
+
+    private boolean isOutside(final int column, final double value) {
+        var last = lastReported[column];
+        if (Double.isNaN(last) || Double.isNaN(value)) {
+            return !(Double.isNaN(last) && Double.isNaN(value));
+        }
+        return Math.abs(value - last) > Math.max(absolute[column], relative[column] * Math.abs(last));
+    }
+
+    public static DeadbandFilter create() {
+        return new DeadbandFilter();
+    }
+}
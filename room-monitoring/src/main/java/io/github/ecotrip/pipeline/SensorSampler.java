@@ -0,0 +1,155 @@
+package io.github.ecotrip.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.github.ecotrip.exception.UnassignedSensorException;
+import io.github.ecotrip.execution.Execution;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFrame;
+
+/**
+ * Samples a sensor continuously, at its own rate, and stores the resulting {@link Detection}s
+ * inside a bounded buffer which is drained by the consumer at publish time.
+ * When the buffer is full the oldest detection is discarded.
+ * @param <ID> is the identifier's type.
+ */
+public class SensorSampler<ID> {
+    /**
+     * Default number of detections kept before discarding the oldest ones.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+    private final Supplier<CompletableFuture<Detection<ID>>> detectionSupplier;
+    private final Executor executor;
+    private final BlockingQueue<Detection<ID>> buffer;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long samplingIntervalInMillis;
+
+    private SensorSampler(final Supplier<CompletableFuture<Detection<ID>>> detectionSupplier,
+                          final Executor executor, final long samplingIntervalInMillis, final int capacity) {
+        this.detectionSupplier = detectionSupplier;
+        this.executor = executor;
+        this.samplingIntervalInMillis = samplingIntervalInMillis;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Starts the sampling loop, if it's not already running.
+     * The next sample is requested only after the previous one is completed.
+     */
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            sample(generation.incrementAndGet());
+        }
+    }
+
+    /**
+     * Stops the sampling loop: the sample already scheduled by the loop is discarded, even if the sampler
+     * is started again before it fires.
+     */
+    public void stop() {
+        generation.incrementAndGet();
+        running.set(false);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public void setSamplingInterval(final long samplingIntervalInMillis) {
+        this.samplingIntervalInMillis = samplingIntervalInMillis;
+    }
+
+    /**
+     * Removes all the buffered detections.
+     * @return the detections collected since the last drain, from the oldest to the newest.
+     */
+    public List<Detection<ID>> drain() {
+        var detections = new ArrayList<Detection<ID>>(buffer.size());
+        buffer.drainTo(detections);
+        return detections;
+    }
+
+    /**
+     * Removes all the buffered detections, appending their measures to the given frame.
+     * @param frame where the measures are stored.
+     * @return the number of detections drained.
+     */
+    public int drainTo(final DetectionFrame frame) {
+        var drained = 0;
+        for (var detection = buffer.poll(); detection != null; detection = buffer.poll()) {
+            frame.add(detection);
+            drained++;
+        }
+        return drained;
+    }
+
+    private void sample(final long loop) {
+        if (!running.get() || loop != generation.get()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        CompletableFuture<Detection<ID>> detection;
+        try {
+            detection = detectionSupplier.get();
+        } catch (RuntimeException e) {
+            detection = CompletableFuture.failedFuture(e);
+        }
+        detection.whenComplete((d, t) -> {
+            if (t != null) {
+                onFailure(t);
+            } else {
+                store(d);
+            }
+            var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            var delay = Math.max(0, samplingIntervalInMillis - elapsed);
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor).execute(() -> sample(loop));
+        });
+    }
+
+    private void store(final Detection<ID> detection) {
+        while (!buffer.offer(detection)) {
+            buffer.poll();
+        }
+    }
+
+    private void onFailure(final Throwable throwable) {
+        var cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        if (cause instanceof UnassignedSensorException) {
+            stop();
+        } else {
+            Execution.logsError(cause);
+        }
+    }
+
+    public static <ID> SensorSampler<ID> of(final Supplier<CompletableFuture<Detection<ID>>> detectionSupplier,
+                                            final Executor executor, final long samplingIntervalInMillis) {
+        return of(detectionSupplier, executor, samplingIntervalInMillis, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Factory method to create a {@link SensorSampler} instance.
+     * @param detectionSupplier is the source of the detections (e.g. a use case).
+     * @param executor used to schedule the next sample.
+     * @param samplingIntervalInMillis is the time between two consecutive samples.
+     * @param capacity is the maximum number of detections kept inside the buffer.
+     * @param <ID> is the identifier's type.
+     * @return the sampler, not started yet.
+     */
+    public static <ID> SensorSampler<ID> of(final Supplier<CompletableFuture<Detection<ID>>> detectionSupplier,
+                                            final Executor executor, final long samplingIntervalInMillis,
+                                            final int capacity) {
+        return new SensorSampler<>(detectionSupplier, executor, samplingIntervalInMillis, capacity);
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.ecotrip.pipeline;
+
+import java.util.function.ToDoubleFunction;
+
+import io.github.ecotrip.measure.RunningStatistics;
+
+/**
+ * Describes how the samples of a measure are aggregated before being published:
+ * the window length, how often a window is closed and the aggregation function.
+ * A tumbling window is closed every window length, a sliding one every slide and it covers
+ * the last window length.
+ */
+public class WindowSpec {
+    private final Type type;
+    private final long lengthInMillis;
+    private final long slideInMillis;
+    private final Aggregation aggregation;
+
+    private WindowSpec(final Type type, final long lengthInMillis, final long slideInMillis,
+                       final Aggregation aggregation) {
+        if (slideInMillis <= 0 || lengthInMillis < slideInMillis) {
+            throw new IllegalArgumentException("The slide must be positive and not longer than the window");
+        }
+        this.type = type;
+        this.lengthInMillis = lengthInMillis;
+        this.slideInMillis = slideInMillis;
+        this.aggregation = aggregation;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getLengthInMillis() {
+        return lengthInMillis;
+    }
+
+    public long getSlideInMillis() {
+        return slideInMillis;
+    }
+
+    public Aggregation getAggregation() {
+        return aggregation;
+    }
+
+    /**
+     * Number of slides covered by the window, which is the size of its ring buffer.
+     * @return the number of panes.
+     */
+    public int getPanes() {
+        return (int) ((lengthInMillis + slideInMillis - 1) / slideInMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "WindowSpec{"
+                + "type=" + type
+                + ", lengthInMillis=" + lengthInMillis
+                + ", slideInMillis=" + slideInMillis
+                + ", aggregation=" + aggregation
+                + '}';
+    }
+
+    /**
+     * Factory method to create a tumbling window.
+     * @param lengthInMillis is the window length.
+     * @param aggregation applied to the samples of the window.
+     * @return the window spec.
+     */
+    public static WindowSpec tumbling(final long lengthInMillis, final Aggregation aggregation) {
+        return new WindowSpec(Type.TUMBLING, lengthInMillis, lengthInMillis, aggregation);
+    }
+
+    /**
+     * Factory method to create a sliding window.
+     * @param lengthInMillis is the window length.
+     * @param slideInMillis is the time between two consecutive windows.
+     * @param aggregation applied to the samples of the window.
+     * @return the window spec.
+     */
+    public static WindowSpec sliding(final long lengthInMillis, final long slideInMillis,
+                                     final Aggregation aggregation) {
+        return new WindowSpec(Type.SLIDING, lengthInMillis, slideInMillis, aggregation);
+    }
+
+    /**
+     * Kind of window
+     */
+    public enum Type {
+        TUMBLING, SLIDING;
+    }
+
+    /**
+     * Aggregation functions computed on the statistics of a window
+     */
+    public enum Aggregation {
+        MEAN(RunningStatistics::getMean),
+        MIN(RunningStatistics::getMin),
+        MAX(RunningStatistics::getMax),
+        SUM(s -> s.getMean() * s.getCount()),
+        COUNT(s -> s.getCount());
+
+        private final ToDoubleFunction<RunningStatistics> function;
+
+        Aggregation(final ToDoubleFunction<RunningStatistics> function) {
+            this.function = function;
+        }
+
+        public double apply(final RunningStatistics statistics) {
+            return function.applyAsDouble(statistics);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.ecotrip.pipeline;
+
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.RunningStatistics;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFrame;
+
+/**
+ * Aggregates the samples of every {@link MeasureType} inside its own window, described by a {@link WindowSpec}.
+ * The windows are made of panes, one per slide, kept in a fixed-size ring buffer of {@link RunningStatistics}:
+ * adding a sample updates the current pane and closing a window merges the panes, so no sample is stored.
+ * The time is advanced by the caller, usually once per publish cycle, so the windows are closed with the
+ * granularity of the cycle. The types without a specific window use the default one.
+ * The aggregator is not thread-safe.
+ */
+public class WindowedAggregator {
+    private static final MeasureType[] TYPES = MeasureType.values();
+    private final MeasureWindow[] windows;
+    private final boolean[] customized;
+
+    private WindowedAggregator(final WindowSpec defaultSpec) {
+        windows = new MeasureWindow[TYPES.length];
+        customized = new boolean[TYPES.length];
+        setDefaultWindow(defaultSpec);
+    }
+
+    /**
+     * Changes the window of the types which have not a specific one, the collected samples are discarded.
+     * @param spec of the window.
+     */
+    public void setDefaultWindow(final WindowSpec spec) {
+        for (int i = 0; i < windows.length; i++) {
+            if (!customized[i]) {
+                windows[i] = new MeasureWindow(spec);
+            }
+        }
+    }
+
+    /**
+     * Changes the window of a type, the collected samples are discarded.
+     * @param type of the measure.
+     * @param spec of the window.
+     */
+    public void setWindow(final MeasureType type, final WindowSpec spec) {
+        customized[type.ordinal()] = true;
+        windows[type.ordinal()] = new MeasureWindow(spec);
+    }
+
+    public WindowSpec getWindow(final MeasureType type) {
+        return windows[type.ordinal()].spec;
+    }
+
+    public void add(final MeasureType type, final double value) {
+        windows[type.ordinal()].add(value);
+    }
+
+    /**
+     * Adds all the measures of a detection.
+     * @param detection to be added.
+     */
+    public void add(final Detection<?> detection) {
+        for (Measure measure : detection.getMeasures()) {
+            add(measure.getType(), measure.getValue());
+        }
+    }
+
+    /**
+     * Adds all the samples of a frame.
+     * @param frame to be added.
+     */
+    public void add(final DetectionFrame.View frame) {
+        frame.forEach((type, value, timestamp) -> add(type, value));
+    }
+
+    /**
+     * Moves the time forward and closes the windows which are due.
+     * Every closed window which contains at least a sample produces its aggregated value.
+     * @param elapsedInMillis is the time passed since the previous call.
+     * @param timestampInMicros is the timestamp of the produced values, in microseconds since the epoch.
+     * @param output receives the aggregated values.
+     * @param statistics receives the statistics of the closed windows.
+     * @return the number of closed windows with at least a sample.
+     */
+    public int advance(final long elapsedInMillis, final long timestampInMicros, final DetectionFrame output,
+                       final MeasureStatistics statistics) {
+        var closed = 0;
+        for (MeasureType type : TYPES) {
+            var window = windows[type.ordinal()];
+            if (window.advance(elapsedInMillis)) {
+                output.add(type, window.spec.getAggregation().apply(window.closed), timestampInMicros);
+                statistics.get(type).merge(window.closed);
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Factory method to create a {@link WindowedAggregator} instance.
+     * @param defaultSpec is the window of the types without a specific one.
+     * @return the aggregator.
+     */
+    public static WindowedAggregator of(final WindowSpec defaultSpec) {
+        return new WindowedAggregator(defaultSpec);
+    }
+
+    private static class MeasureWindow {
+        private final WindowSpec spec;
+        private final RunningStatistics[] panes;
+        private final RunningStatistics closed = RunningStatistics.create();
+        private int current;
+        private long elapsedInPane;
+
+        MeasureWindow(final WindowSpec spec) {
+            this.spec = spec;
+            this.panes = new RunningStatistics[spec.getPanes()];
+            for (int i = 0; i < panes.length; i++) {
+                panes[i] = RunningStatistics.create();
+            }
+        }
+
+        void add(final double value) {
+            panes[current].add(value);
+        }
+
+        /**
+         * Closes the current pane when a slide is elapsed, merging the panes of the window.
+         * @return true if the closed window contains at least a sample.
+         */
+        boolean advance(final long elapsedInMillis) {
+            elapsedInPane += elapsedInMillis;
+            if (elapsedInPane < spec.getSlideInMillis()) {
+                return false;
+            }
+            elapsedInPane = 0;
+            closed.reset();
+            for (RunningStatistics pane : panes) {
+                closed.merge(pane);
+            }
+            current = (current + 1) % panes.length;
+            panes[current].reset();
+            return !closed.isEmpty();
+        }
+    }
+}
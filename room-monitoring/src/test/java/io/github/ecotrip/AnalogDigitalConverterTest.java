@@ -0,0 +1,335 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.i2c.I2C;
+import com.pi4j.io.i2c.I2CConfig;
+import com.pi4j.io.i2c.I2CProvider;
+import com.pi4j.plugin.mock.provider.gpio.digital.MockDigitalInput;
+import com.pi4j.plugin.mock.provider.gpio.digital.MockDigitalInputProvider;
+import com.pi4j.plugin.mock.provider.i2c.MockI2C;
+import com.pi4j.plugin.mock.provider.i2c.MockI2CProvider;
+
+import io.github.ecotrip.adapter.AnalogChannel;
+import io.github.ecotrip.adapter.adc.AnalogDigitalConverter;
+import io.github.ecotrip.adapter.adc.ChannelSampling;
+import io.github.ecotrip.adapter.adc.DataRate;
+import io.github.ecotrip.adapter.adc.Gain;
+import io.github.ecotrip.adapter.adc.SampleRing;
+import io.github.ecotrip.execution.Execution;
+
+public class AnalogDigitalConverterTest {
+    private static final double VALUE_PER_BYTE = Gain.GAIN_6_144V.getValuePerByte();
+    private static final int CONFIG_REGISTER = 0x01;
+    private static final int CONVERSION_REGISTER = 0x00;
+    private static final long CONVERSION_TIME_MICROS = 1100;
+    private Context pi4j;
+    private ChannelI2C i2c;
+    private ScheduledThreadPoolExecutor pulses;
+
+    @BeforeEach
+    public void beforeTest() {
+        pi4j = Pi4J.newContextBuilder().build();
+        var config = I2C.newConfigBuilder(pi4j)
+                .id("adc")
+                .bus(1)
+                .device(0x48)
+                .build();
+        // the thread of the pulses is running before the first conversion, so they are never late
+        pulses = new ScheduledThreadPoolExecutor(1);
+        pulses.prestartCoreThread();
+        i2c = new ChannelI2C(MockI2CProvider.newInstance(), config, pulses);
+    }
+
+    @AfterEach
+    public void afterTest() throws InterruptedException {
+        pulses.shutdownNow();
+        assertTrue(pulses.awaitTermination(1, TimeUnit.SECONDS));
+        i2c.close();
+        pi4j.shutdown();
+    }
+
+    @Test
+    public void testSingleShot() {
+        var adc = createAdc(AnalogChannel.values());
+        assertEquals(voltageOf(AnalogChannel.A1_IN), adc.getData(AnalogChannel.A1_IN).getValue());
+        assertTrue(i2c.singleShot);
+        assertTrue(i2c.statusPolls > 0);
+        assertEquals(0, adc.getReadyTimeouts());
+        assertEquals(1, adc.getConversionTimes().getCount());
+        assertTrue(adc.getConversionTimes().getMax() >= TimeUnit.MICROSECONDS.toNanos(CONVERSION_TIME_MICROS));
+        assertTrue(adc.getLatest(AnalogChannel.A1_IN).isEmpty());
+        assertTrue(Double.isNaN(adc.getLatest(AnalogChannel.A1_IN).getVoltage()));
+    }
+
+    @Test
+    public void testScan() throws Exception {
+        var adc = createAdc(AnalogChannel.A0_IN, AnalogChannel.A2_IN);
+        var cursor = adc.getSamples(AnalogChannel.A2_IN).cursor();
+        adc.startScan().get(1, TimeUnit.SECONDS);
+        assertTrue(adc.isScanning());
+        // without the ready pin the OS bit is meaningful only for single-shot conversions
+        assertTrue(i2c.singleShot);
+        assertEquals(voltageOf(AnalogChannel.A0_IN), adc.getData(AnalogChannel.A0_IN).getValue());
+        assertEquals(voltageOf(AnalogChannel.A2_IN),
+                adc.supplierOf(AnalogChannel.A2_IN).get().getValue());
+        assertTrue(adc.getLatest(AnalogChannel.A2_IN).read((voltage, timestamp) -> {
+            assertEquals(voltageOf(AnalogChannel.A2_IN), voltage);
+            assertTrue(timestamp > 0);
+        }));
+        // a channel out of the scan is still converted on demand
+        assertEquals(voltageOf(AnalogChannel.A3_IN), adc.getData(AnalogChannel.A3_IN).getValue());
+        assertTrue(adc.getLatest(AnalogChannel.A3_IN).isEmpty());
+
+        Execution.safeSleep(50);
+        adc.stopScan();
+        assertFalse(adc.isScanning());
+        var voltages = new double[64];
+        var timestamps = new long[64];
+        var read = cursor.read(voltages, timestamps);
+        assertTrue(read > 5);
+        for (int i = 1; i < read; i++) {
+            assertEquals(voltageOf(AnalogChannel.A2_IN), voltages[i]);
+            assertTrue(timestamps[i] > timestamps[i - 1]);
+        }
+        assertEquals(0, adc.getScanErrors());
+    }
+
+    @Test
+    public void testReadyPin() throws Exception {
+        var pinConfig = DigitalInput.newConfigBuilder(pi4j)
+                .id("ready")
+                .address(24)
+                .build();
+        var pin = new MockDigitalInput(MockDigitalInputProvider.newInstance(), pinConfig);
+        i2c.readyPin = pin;
+        // a slow data rate, so the timeout is longer than the delays of the mocked pulses
+        var adc = new AnalogDigitalConverter(i2c, createConfiguration(AnalogChannel.A1_IN)
+                .setDataRate(DataRate.SPS_128)
+                .build(), pin);
+        assertTrue(adc.isReadyPinEnabled());
+        assertEquals(0x8000, i2c.hiThresh);
+        assertEquals(0x0000, i2c.loThresh);
+        assertEquals(voltageOf(AnalogChannel.A3_IN), adc.getData(AnalogChannel.A3_IN).getValue());
+        assertTrue(i2c.singleShot);
+        assertEquals(0, i2c.comparatorQueue);
+        assertEquals(0, i2c.statusPolls);
+
+        adc.startScan().get(1, TimeUnit.SECONDS);
+        Execution.safeSleep(20);
+        adc.stopScan();
+        assertFalse(i2c.singleShot);
+        assertEquals(voltageOf(AnalogChannel.A1_IN), adc.getLatest(AnalogChannel.A1_IN).getVoltage());
+        assertTrue(adc.getConversionTimes().getCount() > 2);
+        assertEquals(0, adc.getReadyTimeouts());
+        assertEquals(0, i2c.statusPolls);
+    }
+
+    @Test
+    public void testReadyTimeout() {
+        var pinConfig = DigitalInput.newConfigBuilder(pi4j)
+                .id("ready")
+                .address(24)
+                .build();
+        // the pin is never pulled low, the result is read after the timeout
+        var pin = new MockDigitalInput(MockDigitalInputProvider.newInstance(), pinConfig);
+        var adc = new AnalogDigitalConverter(i2c, createConfiguration(AnalogChannel.A1_IN).build(), pin);
+        assertEquals(voltageOf(AnalogChannel.A2_IN), adc.getData(AnalogChannel.A2_IN).getValue());
+        assertEquals(1, adc.getReadyTimeouts());
+    }
+
+    @Test
+    public void testDataRate() {
+        var configuration = createConfiguration(AnalogChannel.A0_IN)
+                .setDataRate(DataRate.SPS_128)
+                .setSampling(AnalogChannel.A1_IN, ChannelSampling.continuous(DataRate.SPS_475))
+                .build();
+        assertEquals(DataRate.SPS_128, configuration.getDataRate());
+        assertEquals(DataRate.SPS_128, configuration.getSampling(AnalogChannel.A0_IN).getDataRate());
+        assertEquals(DataRate.SPS_860, createConfiguration(AnalogChannel.A0_IN).build().getDataRate());
+        var adc = new AnalogDigitalConverter(i2c, configuration);
+        adc.getData(AnalogChannel.A0_IN);
+        assertEquals(DataRate.SPS_128, DataRate.fromConfig(i2c.config));
+        assertTrue(adc.getConversionTimes().getMax() >= DataRate.SPS_128.getConversionTimeInNanos() * 0.9);
+        adc.getData(AnalogChannel.A1_IN);
+        assertEquals(DataRate.SPS_475, DataRate.fromConfig(i2c.config));
+        assertEquals(0, adc.getReadyTimeouts());
+    }
+
+    @Test
+    public void testOversampling() {
+        i2c.noise = 10;
+        var adc = new AnalogDigitalConverter(i2c, createConfiguration(AnalogChannel.A0_IN)
+                .setSampling(AnalogChannel.A2_IN, ChannelSampling.of(DataRate.SPS_860, 4, 0))
+                .build());
+        var conversions = i2c.conversions;
+        assertEquals(voltageOf(AnalogChannel.A2_IN), adc.getData(AnalogChannel.A2_IN).getValue(), 1e-9);
+        assertEquals(conversions + 4, i2c.conversions);
+        assertEquals(voltageOf(AnalogChannel.A0_IN) + 10 * VALUE_PER_BYTE, adc.getData(AnalogChannel.A0_IN).getValue(),
+                1e-9);
+        assertThrows(IllegalArgumentException.class, () -> ChannelSampling.of(DataRate.SPS_8, 0, 0));
+    }
+
+    @Test
+    public void testSamplingPlan() throws Exception {
+        var adc = new AnalogDigitalConverter(i2c, createConfiguration(AnalogChannel.A1_IN, AnalogChannel.A3_IN)
+                .setSampling(AnalogChannel.A1_IN, ChannelSampling.continuous(DataRate.SPS_860))
+                .setSampling(AnalogChannel.A3_IN, ChannelSampling.of(DataRate.SPS_250, 2, 40))
+                .build());
+        var fast = adc.getLatest(AnalogChannel.A1_IN);
+        var slow = adc.getLatest(AnalogChannel.A3_IN);
+        adc.startScan().get(1, TimeUnit.SECONDS);
+        Execution.safeSleep(150);
+        adc.stopScan();
+        assertTrue(slow.getCount() >= 3 && slow.getCount() <= 6);
+        assertTrue(fast.getCount() > slow.getCount() * 5);
+        assertEquals(voltageOf(AnalogChannel.A3_IN), slow.getVoltage());
+        assertEquals(DataRate.SPS_250, i2c.dataRates[AnalogChannel.A3_IN.ordinal()]);
+        assertEquals(DataRate.SPS_860, i2c.dataRates[AnalogChannel.A1_IN.ordinal()]);
+    }
+
+    @Test
+    public void testSampleRing() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> SampleRing.of(3));
+        var adc = new AnalogDigitalConverter(i2c, createConfiguration(AnalogChannel.A0_IN)
+                .setRingCapacity(8)
+                .build());
+        var ring = adc.getSamples(AnalogChannel.A0_IN);
+        var cursor = ring.cursor();
+        var voltages = new double[3];
+        var timestamps = new long[3];
+        assertEquals(0, cursor.read(voltages, timestamps));
+        adc.startScan().get(1, TimeUnit.SECONDS);
+        Execution.safeSleep(50);
+        adc.stopScan();
+        assertTrue(ring.getWritten() > ring.getCapacity());
+        assertEquals(ring.getWritten(), cursor.getAvailable());
+        var total = 0;
+        int read;
+        while ((read = cursor.read(voltages, timestamps)) > 0) {
+            total += read;
+        }
+        assertEquals(ring.getCapacity() - 1, total);
+        assertEquals(ring.getWritten() - total, cursor.getMissed());
+        assertEquals(0, cursor.getAvailable());
+    }
+
+    private AnalogDigitalConverter createAdc(final AnalogChannel... scanChannels) {
+        return new AnalogDigitalConverter(i2c, createConfiguration(scanChannels).build());
+    }
+
+    private AnalogDigitalConverter.Configuration.Builder createConfiguration(final AnalogChannel... scanChannels) {
+        return new AnalogDigitalConverter.Configuration.Builder()
+                .setGain(Gain.GAIN_6_144V)
+                .setConfigRegister(CONFIG_REGISTER)
+                .setConversionRegister(CONVERSION_REGISTER)
+                .setScanChannels(scanChannels);
+    }
+
+    private static double voltageOf(final AnalogChannel channel) {
+        return conversionOf(channel) * VALUE_PER_BYTE;
+    }
+
+    private static int conversionOf(final AnalogChannel channel) {
+        return 1000 * (channel.ordinal() + 1);
+    }
+
+    /**
+     * Mocked bus which converts the channel selected by the last configuration: the conversion ends after
+     * a fixed time, it is signalled by the OS bit and, when wired, by a pulse of the ready pin.
+     */
+    private static class ChannelI2C extends MockI2C {
+        private final DataRate[] dataRates = new DataRate[AnalogChannel.values().length];
+        private volatile int config;
+        private volatile int mux;
+        private volatile int noise;
+        private volatile int conversions;
+        private volatile boolean singleShot;
+        private volatile int comparatorQueue;
+        private volatile int loThresh = -1;
+        private volatile int hiThresh = -1;
+        private volatile long conversionStart;
+        private volatile long configurations;
+        private volatile int statusPolls;
+        private volatile MockDigitalInput readyPin;
+        private final ScheduledThreadPoolExecutor pulses;
+
+        ChannelI2C(final I2CProvider provider, final I2CConfig config, final ScheduledThreadPoolExecutor pulses) {
+            super(provider, config);
+            this.pulses = pulses;
+        }
+
+        @Override
+        public int writeRegister(final int register, final byte[] data, final int offset, final int length) {
+            var word = (data[offset] & 0xFF) << 8 | data[offset + 1] & 0xFF;
+            if (register == 0x02) {
+                loThresh = word;
+            } else if (register == 0x03) {
+                hiThresh = word;
+            } else if (register == CONFIG_REGISTER) {
+                config = word;
+                mux = word >> 12 & 0b11;
+                dataRates[mux] = DataRate.fromConfig(word);
+                singleShot = (word & 0x0100) != 0;
+                comparatorQueue = word & 0b11;
+                conversionStart = System.nanoTime();
+                var pin = readyPin;
+                if (pin != null) {
+                    schedulePulse(pin, ++configurations, conversionStart);
+                }
+            }
+            return length;
+        }
+
+        /**
+         * Pulses the ready pin at the end of the conversion, and of the next ones in continuous mode,
+         * until the config changes. The ends are computed from the start, so the delays do not add up.
+         */
+        private void schedulePulse(final MockDigitalInput pin, final long configuration, final long end) {
+            var next = end + getConversionTimeInNanos();
+            pulses.schedule(() -> {
+                if (configuration == configurations) {
+                    pin.mockState(DigitalState.HIGH).mockState(DigitalState.LOW);
+                    if (!singleShot) {
+                        schedulePulse(pin, configuration, next);
+                    }
+                }
+            }, next - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private long getConversionTimeInNanos() {
+            return Math.max(TimeUnit.MICROSECONDS.toNanos(CONVERSION_TIME_MICROS),
+                    DataRate.fromConfig(config).getConversionTimeInNanos());
+        }
+
+        @Override
+        public int readRegister(final int register, final byte[] buffer, final int offset, final int length) {
+            int word;
+            if (register == CONFIG_REGISTER) {
+                statusPolls++;
+                var elapsed = System.nanoTime() - conversionStart;
+                word = elapsed >= getConversionTimeInNanos() ? 0x8000 : 0;
+            } else {
+                // the noise alternates its sign, so it is cancelled by an even oversampling
+                word = conversionOf(AnalogChannel.values()[mux]) + (conversions++ % 2 == 0 ? noise : -noise);
+            }
+            buffer[offset] = (byte) (word >> 8);
+            buffer[offset + 1] = (byte) word;
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.adapter.OutputAdapter;
+import io.github.ecotrip.adapter.output.BatchingOutputAdapter;
+import io.github.ecotrip.execution.Execution;
+
+public class BatchingOutputAdapterTest {
+    private final List<byte[]> published = new CopyOnWriteArrayList<>();
+    private final OutputAdapter<String, byte[]> delegate = payload -> {
+        published.add(payload);
+        return CompletableFuture.completedFuture(null);
+    };
+
+    @Test
+    public void testMessageLimit() {
+        var adapter = new BatchingOutputAdapter.Builder<String>()
+                .setDelegate(delegate).setMaxMessages(3).build();
+        var first = adapter.sendMessage("{\"a\":1}");
+        adapter.sendMessage("{\"b\":2}");
+        assertFalse(first.isDone());
+        assertTrue(published.isEmpty());
+        adapter.sendMessage("{\"c\":3}").join();
+        assertTrue(first.isDone());
+        assertEquals(List.of("[{\"a\":1},{\"b\":2},{\"c\":3}]"), decode());
+        assertEquals(3, adapter.getMetrics().getMessages().getMax());
+    }
+
+    @Test
+    public void testByteLimit() {
+        var adapter = new BatchingOutputAdapter.Builder<String>()
+                .setDelegate(delegate).setMaxBytes(12).build();
+        adapter.sendMessage("12345");
+        // the batches are published as soon as they are full, never after the max latency
+        var second = adapter.sendMessage("67890");
+        assertEquals(List.of("[12345]"), decode());
+        adapter.sendMessage("1234567890123").join();
+        assertTrue(second.isDone());
+        adapter.sendMessage("1");
+        assertEquals(List.of("[12345]", "[67890]", "[1234567890123]"), decode());
+    }
+
+    @Test
+    public void testMaxLatency() {
+        var adapter = new BatchingOutputAdapter.Builder<String>()
+                .setDelegate(delegate).setMaxLatency(100).build();
+        var message = adapter.sendMessage("1");
+        Execution.safeSleep(50);
+        assertTrue(published.isEmpty());
+        message.join();
+        assertEquals(List.of("[1]"), decode());
+        assertTrue(adapter.getMetrics().getLatency().getMax() >= 100_000_000L);
+    }
+
+    @Test
+    public void testCompression() throws IOException {
+        var adapter = new BatchingOutputAdapter.Builder<String>()
+                .setDelegate(delegate).setMaxMessages(2).setCompression(true).build();
+        var message = "{\"stayId\":\"" + "x".repeat(200) + "\"}";
+        adapter.sendMessage(message);
+        adapter.sendMessage(message).join();
+        var payload = published.get(0);
+        assertTrue(payload.length < message.length());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            assertEquals("[" + message + "," + message + "]", new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(payload.length, adapter.getMetrics().getBytes().getMax());
+    }
+
+    @Test
+    public void testShutdown() {
+        var adapter = new BatchingOutputAdapter.Builder<String>().setDelegate(delegate).build();
+        var pending = adapter.sendMessage("1");
+        adapter.shutdown().join();
+        assertTrue(pending.isDone());
+        assertEquals(List.of("[1]"), decode());
+        assertThrows(CompletionException.class, () -> adapter.sendMessage("2").join());
+        assertTrue(adapter.flush().isDone());
+    }
+
+    @Test
+    public void testFailedPublication() {
+        OutputAdapter<String, byte[]> failing = payload -> CompletableFuture.failedFuture(new IllegalStateException());
+        var adapter = new BatchingOutputAdapter.Builder<String>().setDelegate(failing).build();
+        var message = adapter.sendMessage("1");
+        adapter.flush();
+        assertThrows(CompletionException.class, message::join);
+        assertEquals(1, adapter.getMetrics().getFailures());
+        assertThrows(IllegalArgumentException.class, () -> new BatchingOutputAdapter.Builder<String>().build());
+    }
+
+    private List<String> decode() {
+        return published.stream()
+                .map(payload -> new String(payload, StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+}
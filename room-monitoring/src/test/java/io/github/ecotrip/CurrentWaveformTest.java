@@ -0,0 +1,181 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.pi4j.Pi4J;
+import com.pi4j.io.i2c.I2C;
+import com.pi4j.io.i2c.I2CConfig;
+import com.pi4j.io.i2c.I2CProvider;
+import com.pi4j.plugin.mock.provider.i2c.MockI2C;
+import com.pi4j.plugin.mock.provider.i2c.MockI2CProvider;
+
+import io.github.ecotrip.adapter.AnalogChannel;
+import io.github.ecotrip.adapter.adc.AnalogDigitalConverter;
+import io.github.ecotrip.adapter.adc.Gain;
+import io.github.ecotrip.adapter.sensor.AcsSensor;
+import io.github.ecotrip.adapter.sensor.CurrentWaveform;
+import io.github.ecotrip.measure.energy.ApparentPower;
+import io.github.ecotrip.measure.energy.CrestFactor;
+import io.github.ecotrip.measure.energy.Voltage;
+import io.github.ecotrip.sensor.DetectionFactory;
+
+public class CurrentWaveformTest {
+    private static final double OFFSET = 2.5;
+    private static final double AMPLITUDE = 0.1;
+    private static final double VOLTS_PER_AMP = 0.1;
+    private static final double EXPECTED_RMS = AMPLITUDE / Math.sqrt(2) / VOLTS_PER_AMP;
+    private static final int FREQUENCY = 50;
+    private static final double MAINS_VOLTAGE = 230;
+    private final DetectionFactory<UUID> detectionFactory = DetectionFactory.of(UUID::randomUUID);
+
+    @Test
+    public void testSine() {
+        var samplesPerCycle = 20;
+        var voltages = new double[samplesPerCycle * 10 + 2];
+        var timestamps = new long[voltages.length];
+        for (int i = 0; i < voltages.length; i++) {
+            voltages[i] = OFFSET + AMPLITUDE * Math.sin(2 * Math.PI * i / samplesPerCycle);
+            timestamps[i] = i * 1000L;
+        }
+        var waveform = CurrentWaveform.of(voltages, timestamps, 1, voltages.length, VOLTS_PER_AMP, 230);
+        assertEquals(EXPECTED_RMS, waveform.getRms(), 1e-9);
+        assertEquals(Math.sqrt(2), waveform.getCrestFactor(), 1e-9);
+        assertEquals(EXPECTED_RMS * 230, waveform.getApparentPower(), 1e-6);
+        assertEquals(OFFSET, waveform.getOffset(), 1e-9);
+        assertEquals(samplesPerCycle * 10 + 1, waveform.getSampleCount());
+    }
+
+    @Test
+    public void testIrregularSampling() {
+        // dense in the positive half cycles, sparse in the negative ones
+        var count = 0;
+        var voltages = new double[1000];
+        var timestamps = new long[voltages.length];
+        for (long t = 0; t <= 10 * 20; t += t % 20 < 10 ? 1 : 2) {
+            voltages[count] = OFFSET + AMPLITUDE * Math.sin(2 * Math.PI * t / 20);
+            timestamps[count++] = t * 1000;
+        }
+        var waveform = CurrentWaveform.of(voltages, timestamps, 0, count, VOLTS_PER_AMP, 230);
+        assertEquals(OFFSET, waveform.getOffset(), AMPLITUDE * 0.01);
+        assertEquals(EXPECTED_RMS, waveform.getRms(), EXPECTED_RMS * 0.02);
+    }
+
+    @Test
+    public void testSpike() {
+        var voltages = new double[100];
+        var timestamps = new long[voltages.length];
+        for (int i = 0; i < voltages.length; i++) {
+            voltages[i] = OFFSET + (i % 2 == 0 ? AMPLITUDE : -AMPLITUDE);
+            timestamps[i] = i * 1000L;
+        }
+        voltages[50] = OFFSET + 10 * AMPLITUDE;
+        var waveform = CurrentWaveform.of(voltages, timestamps, 0, voltages.length, VOLTS_PER_AMP, 230);
+        // a single spike moves the peak a lot and the RMS a little
+        assertTrue(waveform.getCrestFactor() > 5);
+        assertTrue(waveform.getRms() < 1.5);
+        var flat = new double[] {OFFSET, OFFSET};
+        assertEquals(0, CurrentWaveform.of(flat, new long[2], 0, 2, VOLTS_PER_AMP, 230).getCrestFactor());
+        assertThrows(IllegalArgumentException.class, () -> CurrentWaveform.of(voltages, timestamps, 10, 10, 0.1, 230));
+    }
+
+    @Test
+    public void testPolledSensor() {
+        var sensor = (AcsSensor<UUID>) new AcsSensor.Builder<UUID>()
+                .setChannel(() -> Voltage.of(sineAt(System.nanoTime())))
+                .setConfiguration(createConfiguration(5))
+                .setIdentifier(UUID.randomUUID())
+                .setDetectionFactory(detectionFactory)
+                .build();
+        var measures = sensor.detect().join().getMeasures();
+        var current = measures.get(0);
+        // the polling thread is paused by the scheduler at any time
+        assertEquals(EXPECTED_RMS, current.getValue(), EXPECTED_RMS * 0.05);
+        var waveform = sensor.getLastWaveform().orElseThrow();
+        assertEquals(Math.sqrt(2), waveform.getCrestFactor(), 0.15);
+        assertEquals(current.getValue() * MAINS_VOLTAGE, waveform.getApparentPower(), 1e-9);
+        // the published measures use the configured mains voltage
+        assertEquals(ApparentPower.of(current.getValue() * MAINS_VOLTAGE), measures.get(1));
+        assertEquals(CrestFactor.of(waveform.getCrestFactor()), measures.get(2));
+        // the channel is polled at a limited rate, about 20 times per cycle
+        assertTrue(waveform.getSampleCount() <= 5 * 20 + 1);
+    }
+
+    @Test
+    public void testStreamedSensor() {
+        var pi4j = Pi4J.newContextBuilder().build();
+        var config = I2C.newConfigBuilder(pi4j)
+                .id("adc")
+                .bus(1)
+                .device(0x48)
+                .build();
+        var i2c = new SineI2C(MockI2CProvider.newInstance(), config);
+        var adc = new AnalogDigitalConverter(i2c, new AnalogDigitalConverter.Configuration.Builder()
+                .setGain(Gain.GAIN_6_144V)
+                .setConfigRegister(0x01)
+                .setConversionRegister(0x00)
+                .setScanChannels(AnalogChannel.A2_IN)
+                .build());
+        try {
+            adc.startScan().join();
+            var sensor = (AcsSensor<UUID>) new AcsSensor.Builder<UUID>()
+                    .setChannel(adc.supplierOf(AnalogChannel.A2_IN))
+                    .setSamples(adc.getSamples(AnalogChannel.A2_IN))
+                    .setConfiguration(createConfiguration(5))
+                    .setIdentifier(UUID.randomUUID())
+                    .setDetectionFactory(detectionFactory)
+                    .build();
+            var current = sensor.detect().join().getMeasures().get(0);
+            // the conversions are quantized and timed by a mocked bus
+            assertEquals(EXPECTED_RMS, current.getValue(), EXPECTED_RMS * 0.1);
+            assertTrue(sensor.getLastWaveform().orElseThrow().getSampleCount() >= 50);
+        } finally {
+            adc.stopScan();
+            i2c.close();
+            pi4j.shutdown();
+        }
+    }
+
+    private static AcsSensor.Configuration createConfiguration(final int cycles) {
+        return new AcsSensor.Configuration.Builder()
+                .setScaleFactor(AcsSensor.ScaleFactor.ACS_20A)
+                .setReferenceVoltage(Voltage.of(5))
+                .setMainsFrequency(FREQUENCY)
+                .setMainsVoltage(Voltage.of(MAINS_VOLTAGE))
+                .setCycles(cycles)
+                .build();
+    }
+
+    private static double sineAt(final long nanos) {
+        return OFFSET + AMPLITUDE * Math.sin(2 * Math.PI * FREQUENCY * nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Mocked bus whose conversion is a sine wave at the mains frequency, always ready.
+     */
+    private static class SineI2C extends MockI2C {
+        SineI2C(final I2CProvider provider, final I2CConfig config) {
+            super(provider, config);
+        }
+
+        @Override
+        public int writeRegister(final int register, final byte[] data, final int offset, final int length) {
+            return length;
+        }
+
+        @Override
+        public int readRegister(final int register, final byte[] buffer, final int offset, final int length) {
+            var conversion = (int) (sineAt(System.nanoTime()) / Gain.GAIN_6_144V.getValuePerByte());
+            var word = register == 0x00 ? conversion : 0x8000;
+            buffer[offset] = (byte) (word >> 8);
+            buffer[offset + 1] = (byte) word;
+            return 2;
+        }
+    }
+}
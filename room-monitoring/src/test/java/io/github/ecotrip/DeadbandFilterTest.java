@@ -0,0 +1,67 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.pipeline.DeadbandFilter;
+import io.github.ecotrip.sensor.DetectionFrame;
+
+public class DeadbandFilterTest {
+    private final DetectionFrame input = DetectionFrame.create();
+    private final DetectionFrame output = DetectionFrame.create();
+
+    @Test
+    public void testDeadbands() {
+        var filter = DeadbandFilter.create();
+        assertFalse(filter.isActive());
+        filter.setDeadband(MeasureType.ROOM_TEMPERATURE, 0.5, 0);
+        filter.setDeadband(MeasureType.BRIGHTNESS, 1, 0.1);
+        assertTrue(filter.isActive());
+        filter.setHeartbeat(100);
+
+        assertTrue(filter(filter, 20, 300, 5));
+        assertEquals(3, output.size());
+        assertFalse(filter(filter, 20.4, 320, 5));
+        assertEquals(1, output.size());
+        assertEquals(5, output.getValue(MeasureType.CURRENT, 0));
+        assertFalse(filter(filter, 20.6, 329, 5));
+        assertEquals(0, output.size(MeasureType.BRIGHTNESS));
+        assertEquals(20.6, output.getValue(MeasureType.ROOM_TEMPERATURE, 0));
+        assertFalse(filter(filter, 20.6, 331, 5));
+        assertEquals(1, output.size(MeasureType.BRIGHTNESS));
+        // the relative threshold applies to the last reported value
+        assertFalse(filter(filter, 20.6, 360, 5));
+        assertEquals(0, output.size(MeasureType.BRIGHTNESS));
+        assertThrows(IllegalArgumentException.class, () -> filter.setDeadband(MeasureType.CURRENT, -1, 0));
+    }
+
+    @Test
+    public void testHeartbeat() {
+        var filter = DeadbandFilter.create();
+        filter.setDeadband(MeasureType.ROOM_TEMPERATURE, 1, 0);
+        filter.setHeartbeat(3);
+        assertTrue(filter(filter, 20, 300, 5));
+        assertFalse(filter(filter, 20, 300, 5));
+        assertFalse(filter(filter, 20, 300, 5));
+        assertEquals(0, output.size(MeasureType.ROOM_TEMPERATURE));
+        assertTrue(filter(filter, 20, 300, 5));
+        assertEquals(3, output.size());
+        filter.reset();
+        assertTrue(filter(filter, 20, 300, 5));
+    }
+
+    private boolean filter(final DeadbandFilter filter, final double temperature, final double brightness,
+                           final double current) {
+        input.clear();
+        output.clear();
+        input.add(MeasureType.ROOM_TEMPERATURE, temperature, 0)
+                .add(MeasureType.BRIGHTNESS, brightness, 0)
+                .add(MeasureType.CURRENT, current, 0);
+        return filter.filter(input.view(), output);
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.adapter.serializer.DetectionBinaryDecoder;
+import io.github.ecotrip.adapter.serializer.DetectionBinarySerializer;
+import io.github.ecotrip.adapter.serializer.DetectionJsonWriter;
+import io.github.ecotrip.adapter.serializer.Varints;
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.ambient.Brightness;
+import io.github.ecotrip.measure.ambient.Humidity;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.measure.energy.Voltage;
+import io.github.ecotrip.measure.water.FlowRate;
+import io.github.ecotrip.sensor.Detection;
+
+public class DetectionBinarySerializerTest {
+    private static final Instant TIME = Instant.ofEpochSecond(1700000000, 123456000);
+    private static final String STAY_ID = "0189a3f2-7c1e-7abc-8def-0123456789ab";
+
+    @Test
+    public void testVarints() {
+        var buffer = ByteBuffer.allocate(64);
+        long[] values = {0, 1, -1, 63, -64, 64, 300, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : values) {
+            Varints.putSigned(buffer, value);
+        }
+        Varints.putUnsigned(buffer, -1);
+        buffer.flip();
+        assertEquals(2, buffer.get(1));
+        assertEquals(1, buffer.get(2));
+        for (long value : values) {
+            assertEquals(value, Varints.getSigned(buffer));
+        }
+        assertEquals(-1, Varints.getUnsigned(buffer));
+        var malformed = ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1});
+        assertThrows(IllegalArgumentException.class, () -> Varints.getUnsigned(malformed));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        List<Measure> measures = List.of(
+                Brightness.of(350.25),
+                Temperature.of(-3.5, Temperature.Environment.ROOM),
+                Humidity.of(45.3),
+                Current.of(0.73105),
+                Voltage.of(1.234),
+                FlowRate.of(2.5, FlowRate.FlowRateType.HOT));
+        var wrapper = DetectionWrapper.of(Detection.of(UUID.randomUUID(), TIME, measures), 5, STAY_ID);
+        var serializer = DetectionBinarySerializer.create();
+        var payload = serializer.serializeToBytes(wrapper);
+        var json = DetectionJsonWriter.create().serializeToBytes(wrapper);
+        assertTrue(payload.length * 4 < json.length);
+        var decoded = DetectionBinaryDecoder.create().decodeSingle(ByteBuffer.wrap(payload));
+        assertEquals(wrapper.getDetection().getIdentifier(), decoded.getDetection().getIdentifier());
+        assertEquals(TIME, decoded.getDetection().getDetectionTime());
+        assertEquals(5, decoded.getSampleDuration());
+        assertEquals(STAY_ID, decoded.getStayId());
+        assertEquals(measures, decoded.getDetection().getMeasures());
+    }
+
+    @Test
+    public void testBatch() {
+        var identifier = UUID.randomUUID();
+        var wrappers = List.of(
+                DetectionWrapper.of(Detection.of(identifier, TIME, List.of(Brightness.of(1))), 5, "stay-é"),
+                DetectionWrapper.of(Detection.of(identifier, TIME.plusSeconds(5), List.of()), 5, "stay-é"),
+                DetectionWrapper.of(Detection.of(identifier, TIME.minusMillis(1), List.of()), 1, null),
+                DetectionWrapper.of(Detection.of(identifier, TIME, List.of()), 1, STAY_ID.toUpperCase()));
+        var buffer = ByteBuffer.allocate(256);
+        DetectionBinarySerializer.create().serializeAll(wrappers, buffer);
+        var decoded = DetectionBinaryDecoder.create().decode(buffer.flip());
+        assertEquals(wrappers.size(), decoded.size());
+        for (int i = 0; i < wrappers.size(); i++) {
+            assertEquals(wrappers.get(i).getDetection().getDetectionTime(),
+                    decoded.get(i).getDetection().getDetectionTime());
+            assertEquals(wrappers.get(i).getStayId(), decoded.get(i).getStayId());
+            assertEquals(wrappers.get(i).getDetection().getMeasures(), decoded.get(i).getDetection().getMeasures());
+        }
+        assertNull(decoded.get(2).getStayId());
+    }
+
+    @Test
+    public void testMalformedPayloads() {
+        var decoder = DetectionBinaryDecoder.create();
+        var unknownSchema = ByteBuffer.wrap(new byte[] {99, 0});
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(unknownSchema));
+        var wrapper = DetectionWrapper.of(Detection.of(UUID.randomUUID(), TIME, List.of()), 5, null);
+        var payload = DetectionBinarySerializer.create().serializeToBytes(wrapper);
+        var truncated = ByteBuffer.wrap(payload, 0, payload.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(truncated));
+        assertArrayEquals(payload, DetectionBinarySerializer.create().serializeToBytes(wrapper));
+    }
+
+    @Test
+    public void testStatistics() {
+        var statistics = MeasureStatistics.create();
+        for (double value : new double[] {0.5, 0.7, 0.9}) {
+            statistics.add(Current.of(value));
+        }
+        statistics.add(Brightness.of(120));
+        var wrapper = DetectionWrapper.of(Detection.of(UUID.randomUUID(), TIME, List.of(Current.of(0.7))), 5,
+                STAY_ID, statistics);
+        var payload = DetectionBinarySerializer.create().serializeToBytes(wrapper);
+        var decoded = DetectionBinaryDecoder.create().decodeSingle(ByteBuffer.wrap(payload)).getStatistics();
+        var current = decoded.get(MeasureType.CURRENT);
+        assertEquals(3, current.getCount());
+        assertEquals(0.7, current.getMean(), 1e-9);
+        assertEquals(0.5, current.getMin(), 1e-9);
+        assertEquals(0.9, current.getMax(), 1e-9);
+        assertEquals(statistics.get(MeasureType.CURRENT).getStandardDeviation(), current.getStandardDeviation(),
+                1e-5);
+        assertEquals(1, decoded.get(MeasureType.BRIGHTNESS).getCount());
+        assertTrue(decoded.get(MeasureType.HUMIDITY).isEmpty());
+    }
+
+    @Test
+    public void testDeltaFlag() {
+        var identifier = UUID.randomUUID();
+        var delta = DetectionWrapper.of(Detection.of(identifier, TIME, List.of(Brightness.of(1))), 5, null,
+                MeasureStatistics.create(), true);
+        var decoder = DetectionBinaryDecoder.create();
+        var payload = DetectionBinarySerializer.create().serializeToBytes(delta);
+        assertTrue(decoder.decodeSingle(ByteBuffer.wrap(payload)).isDelta());
+        // previous schema, without the flags
+        var previous = ByteBuffer.allocate(64).put((byte) 1);
+        Varints.putUnsigned(previous, 1);
+        previous.putLong(identifier.getMostSignificantBits()).putLong(identifier.getLeastSignificantBits());
+        Varints.putSigned(previous, TIME.getEpochSecond() * 1_000_000 + TIME.getNano() / 1000);
+        Varints.putUnsigned(previous, 5);
+        previous.put((byte) 0);
+        Varints.putUnsigned(previous, 0);
+        var decoded = decoder.decodeSingle(previous.flip());
+        assertFalse(decoded.isDelta());
+        assertEquals(TIME, decoded.getDetection().getDetectionTime());
+        assertEquals(identifier, decoded.getDetection().getIdentifier());
+    }
+
+    @Test
+    public void testWireIds() {
+        var identifier = UUID.randomUUID();
+        var payload = ByteBuffer.allocate(64).put(DetectionBinarySerializer.SCHEMA_ID);
+        Varints.putUnsigned(payload, 1);
+        payload.putLong(identifier.getMostSignificantBits()).putLong(identifier.getLeastSignificantBits());
+        Varints.putSigned(payload, 0);
+        Varints.putUnsigned(payload, 5);
+        payload.put((byte) 0).put((byte) 0);
+        Varints.putUnsigned(payload, 2);
+        // the ids are part of the schema, whatever the order of the enum
+        payload.put((byte) 7);
+        Varints.putSigned(payload, 73105);
+        payload.put((byte) 2);
+        Varints.putSigned(payload, 35025);
+        Varints.putUnsigned(payload, 0);
+        var decoded = DetectionBinaryDecoder.create().decodeSingle(payload.flip());
+        assertEquals(List.of(Current.of(0.73105), Brightness.of(350.25)), decoded.getDetection().getMeasures());
+        var unknown = payload.rewind().put(payload.limit() - 5, (byte) 99);
+        assertThrows(IllegalArgumentException.class, () -> DetectionBinaryDecoder.create().decode(unknown));
+    }
+}
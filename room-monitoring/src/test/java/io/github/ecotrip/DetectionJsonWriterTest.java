@@ -0,0 +1,89 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.adapter.DetectionWrapper;
+import io.github.ecotrip.adapter.serializer.DetectionJsonWriter;
+import io.github.ecotrip.measure.Measure;
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.ambient.Brightness;
+import io.github.ecotrip.measure.ambient.Humidity;
+import io.github.ecotrip.measure.ambient.Temperature;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.measure.energy.Voltage;
+import io.github.ecotrip.measure.water.FlowRate;
+import io.github.ecotrip.sensor.Detection;
+
+public class DetectionJsonWriterTest {
+    private static final UUID IDENTIFIER = UUID.fromString("0189a3f2-7c1e-7abc-8def-0123456789ab");
+
+    @Test
+    public void testFormat() {
+        List<Measure> measures = List.of(
+                Brightness.of(350),
+                Temperature.of(21.5, Temperature.Environment.ROOM),
+                Humidity.of(0.05),
+                Current.of(0.731),
+                FlowRate.of(2.675, FlowRate.FlowRateType.HOT),
+                FlowRate.of(0.125, FlowRate.FlowRateType.COLD),
+                Temperature.of(1.005, Temperature.Environment.HOT_WATER_PIPE),
+                Temperature.of(-0.001, Temperature.Environment.COLD_WATER_PIPE),
+                Voltage.of(-12.3456));
+        var detection = Detection.of(IDENTIFIER, measures);
+        var time = detection.getDetectionTime();
+        var json = DetectionJsonWriter.create().serialize(DetectionWrapper.of(detection, 5, "stay-1"));
+        assertEquals("{\"identifier\":\"0189a3f2-7c1e-7abc-8def-0123456789ab\","
+                + "\"timestamp\":" + time.getEpochSecond() + "." + String.format("%09d", time.getNano()) + ","
+                + "\"sample_duration\":5,\"stayId\":\"stay-1\",\"measures\":{"
+                + "\"brightness\":350.0,\"room_temperature\":21.5,\"humidity\":0.05,\"current\":160.82,"
+                + "\"hot_flow_rate\":2.67,\"cold_flow_rate\":0.12,\"hot_water_temperature\":1.0,"
+                + "\"cold_water_temperature\":-0.0,\"voltage\":-12.35}}", json);
+    }
+
+    @Test
+    public void testStatistics() {
+        var statistics = MeasureStatistics.create();
+        statistics.add(Current.of(0.5));
+        statistics.add(Current.of(1.5));
+        statistics.add(Humidity.of(40));
+        var detection = Detection.of(IDENTIFIER, List.<Measure>of(Current.of(1), Humidity.of(40)));
+        var json = DetectionJsonWriter.create().serialize(DetectionWrapper.of(detection, 5, "stay-1", statistics));
+        assertEquals(",\"measures\":{\"current\":220.0,\"humidity\":40.0},\"statistics\":{"
+                + "\"humidity\":{\"count\":1,\"mean\":40.0,\"min\":40.0,\"max\":40.0,\"stddev\":0.0},"
+                + "\"current\":{\"count\":2,\"mean\":220.0,\"min\":110.0,\"max\":330.0,\"stddev\":110.0}}}",
+                json.substring(json.indexOf(",\"measures\"")));
+    }
+
+    @Test
+    public void testStrings() {
+        var detection = Detection.<UUID>of(IDENTIFIER, List.of());
+        var writer = DetectionJsonWriter.create();
+        var withoutStay = writer.serialize(DetectionWrapper.of(detection, 1, null));
+        assertEquals(",\"stayId\":null,\"measures\":{}}", withoutStay.substring(withoutStay.indexOf(",\"stayId\"")));
+        var delta = writer.serialize(DetectionWrapper.of(detection, 1, null, MeasureStatistics.create(), true));
+        assertEquals(",\"stayId\":null,\"delta\":true,\"measures\":{}}", delta.substring(delta.indexOf(",\"stayId\"")));
+        var escaped = writer.serialize(DetectionWrapper.of(detection, 1, "a\"b\\c\n\u0001é€"));
+        assertEquals(",\"stayId\":\"a\\\"b\\\\c\\n\\u0001é€\",\"measures\":{}}",
+                escaped.substring(escaped.indexOf(",\"stayId\"")));
+    }
+
+    @Test
+    public void testBuffers() {
+        var wrapper = DetectionWrapper.of(Detection.of(IDENTIFIER, List.of(Current.of(1))), 5, "stay");
+        var writer = DetectionJsonWriter.of(16);
+        var expected = writer.serialize(wrapper);
+        var buffer = writer.write(wrapper);
+        assertEquals(expected.length(), buffer.remaining());
+        assertEquals(0, buffer.position());
+        var small = ByteBuffer.allocate(16);
+        assertThrows(BufferOverflowException.class, () -> writer.serialize(wrapper, small));
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.ecotrip.adapter.OutputAdapter;
+import io.github.ecotrip.adapter.output.Outbox;
+import io.github.ecotrip.execution.Execution;
+
+public class OutboxTest {
+    @TempDir
+    Path directory;
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean connected = new AtomicBoolean(true);
+    private final OutputAdapter<String, byte[]> delegate = payload -> {
+        if (!connected.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Disconnected"));
+        }
+        delivered.add(new String(payload, StandardCharsets.UTF_8));
+        return CompletableFuture.completedFuture(null);
+    };
+
+    @Test
+    public void testDeliversInOrder() throws IOException {
+        try (var outbox = createOutbox(1000)) {
+            for (int i = 0; i < 5; i++) {
+                outbox.sendMessage(bytes(i)).join();
+            }
+            Execution.safeSleep(200);
+            assertEquals(List.of("0", "1", "2", "3", "4"), delivered);
+            assertEquals(0, outbox.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testKeepsMessagesDuringOutages() throws IOException {
+        connected.set(false);
+        try (var outbox = createOutbox(1000)) {
+            outbox.sendMessage(bytes(0)).join();
+            outbox.sendMessage(bytes(1)).join();
+            Execution.safeSleep(100);
+            assertTrue(delivered.isEmpty());
+            assertEquals(2, outbox.getPendingCount());
+        }
+        try (var outbox = createOutbox(10)) {
+            outbox.sendMessage(bytes(2)).join();
+            connected.set(true);
+            outbox.resume();
+            Execution.safeSleep(50);
+            assertTrue(delivered.size() < 3);
+            Execution.safeSleep(400);
+            assertEquals(List.of("0", "1", "2"), delivered);
+            assertEquals(0, outbox.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testClosedOutboxIsQuiet() throws IOException {
+        connected.set(false);
+        var outbox = createOutbox(1000, 20);
+        outbox.sendMessage(bytes(0)).join();
+        Execution.safeSleep(50);
+        outbox.close();
+        connected.set(true);
+        // the backoff timer armed by the failure must not deliver from the closed journal
+        Execution.safeSleep(200);
+        assertTrue(delivered.isEmpty());
+        assertThrows(CompletionException.class, () -> outbox.sendMessage(bytes(1)).join());
+        try (var reopened = createOutbox(1000)) {
+            Execution.safeSleep(100);
+            assertEquals(List.of("0"), delivered);
+            assertEquals(0, reopened.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testPipelinedDeliveries() throws IOException {
+        var acks = new CopyOnWriteArrayList<CompletableFuture<Void>>();
+        OutputAdapter<String, byte[]> pending = payload -> {
+            delivered.add(new String(payload, StandardCharsets.UTF_8));
+            var ack = new CompletableFuture<Void>();
+            acks.add(ack);
+            return ack;
+        };
+        try (var outbox = new Outbox.Builder<String>().setDirectory(directory).setDelegate(pending)
+                .setDrainRate(1000).setMaxInFlight(2).build()) {
+            for (int i = 0; i < 3; i++) {
+                outbox.sendMessage(bytes(i)).join();
+            }
+            Execution.safeSleep(100);
+            assertEquals(List.of("0", "1"), delivered);
+            // the journal is acknowledged only up to the oldest delivery not completed
+            acks.get(1).complete(null);
+            assertEquals(3, outbox.getPendingCount());
+            acks.get(0).complete(null);
+            assertEquals(1, outbox.getPendingCount());
+            Execution.safeSleep(100);
+            assertEquals(List.of("0", "1", "2"), delivered);
+            acks.get(2).complete(null);
+            assertEquals(0, outbox.getPendingCount());
+        }
+    }
+
+    private Outbox<String> createOutbox(final double drainRate) {
+        return createOutbox(drainRate, Execution.SECOND_IN_MILLIS * 10);
+    }
+
+    private Outbox<String> createOutbox(final double drainRate, final long retryDelayInMillis) {
+        return new Outbox.Builder<String>()
+                .setDirectory(directory)
+                .setSegmentSize(128)
+                .setDelegate(delegate)
+                .setDrainRate(drainRate)
+                .setRetryDelay(retryDelayInMillis, retryDelayInMillis)
+                .build();
+    }
+
+    private static byte[] bytes(final int value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.adapter.OutputAdapter;
+import io.github.ecotrip.adapter.output.PublishWindow;
+
+public class PublishWindowTest {
+    private final List<CompletableFuture<Void>> acks = new CopyOnWriteArrayList<>();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final OutputAdapter<String, String> delegate = message -> {
+        sent.add(message);
+        var ack = new CompletableFuture<Void>();
+        acks.add(ack);
+        return ack;
+    };
+
+    @Test
+    public void testLimits() {
+        var window = createWindow(PublishWindow.OverflowPolicy.DROP_OLDEST, 3);
+        var first = window.sendMessage("12345");
+        window.sendMessage("12345");
+        assertEquals(2, window.getInFlightCount());
+        assertEquals(10, window.getInFlightBytes());
+        assertTrue(window.isSaturated());
+        acks.get(0).complete(null);
+        first.join();
+        assertEquals(1, window.getInFlightCount());
+        assertFalse(window.isSaturated());
+        assertEquals(1, window.getAckLatency().getCount());
+        acks.get(1).completeExceptionally(new IllegalStateException());
+        assertEquals(0, window.getInFlightCount());
+        var oversized = window.sendMessage("123456789012");
+        assertEquals(1, window.getInFlightCount());
+        acks.get(2).complete(null);
+        oversized.join();
+    }
+
+    @Test
+    public void testDropOldest() {
+        var window = createWindow(PublishWindow.OverflowPolicy.DROP_OLDEST, 1);
+        var first = window.sendMessage("1");
+        var second = window.sendMessage("2");
+        var third = window.sendMessage("3");
+        assertThrows(CancellationException.class, second::join);
+        assertEquals(1, window.getInFlightCount());
+        assertEquals(1, window.getQueuedCount());
+        assertEquals(1, window.getDropped());
+        acks.get(0).complete(null);
+        first.join();
+        acks.get(1).complete(null);
+        third.join();
+        // the dropped message has never been sent
+        assertEquals(List.of("1", "3"), sent);
+        assertEquals(0, window.getInFlightCount());
+    }
+
+    @Test
+    public void testDownsample() {
+        var window = createWindow(PublishWindow.OverflowPolicy.DOWNSAMPLE, 1);
+        window.sendMessage("1");
+        var second = window.sendMessage("2");
+        var rejected = window.sendMessage("3");
+        assertThrows(CompletionException.class, rejected::join);
+        window.sendMessage("4");
+        assertThrows(CancellationException.class, second::join);
+        assertEquals(2, window.getDropped());
+        acks.get(0).complete(null);
+        assertEquals(List.of("1", "4"), sent);
+    }
+
+    @Test
+    public void testQueue() {
+        var window = createWindow(PublishWindow.OverflowPolicy.QUEUE, 1);
+        var first = window.sendMessage("1");
+        var second = window.sendMessage("2");
+        var rejected = window.sendMessage("3");
+        // the caller is not blocked, the message waits for the acknowledgement of the previous one
+        assertFalse(second.isDone());
+        assertThrows(CompletionException.class, rejected::join);
+        assertTrue(window.isSaturated());
+        assertEquals(List.of("1"), sent);
+        acks.get(0).complete(null);
+        first.join();
+        assertEquals(List.of("1", "2"), sent);
+        assertEquals(1, window.getInFlightCount());
+        assertEquals(0, window.getQueuedCount());
+        acks.get(1).complete(null);
+        second.join();
+        assertFalse(window.isSaturated());
+    }
+
+    private PublishWindow<String, String> createWindow(final PublishWindow.OverflowPolicy policy,
+                                                       final int maxInFlight) {
+        return new PublishWindow.Builder<String, String>()
+                .setDelegate(delegate)
+                .setSizeFunction(String::length)
+                .setMaxInFlight(maxInFlight)
+                .setMaxBytes(10)
+                .setMaxQueued(1)
+                .setPolicy(policy)
+                .build();
+    }
+}
@@ -1,21 +1,31 @@
 package io.github.ecotrip;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.github.ecotrip.adapter.DetectionWrapper;
 import io.github.ecotrip.execution.Execution;
 import io.github.ecotrip.execution.engine.EngineFactory;
+import io.github.ecotrip.measure.MeasureType;
 import io.github.ecotrip.measure.ambient.Temperature;
 import io.github.ecotrip.measure.energy.Current;
 import io.github.ecotrip.measure.water.FlowRate;
+import io.github.ecotrip.pipeline.WindowSpec;
 import io.github.ecotrip.sensor.DetectionFactory;
 import io.github.ecotrip.usecase.ConsumptionUseCases;
 import io.github.ecotrip.usecase.EnvironmentUseCases;
@@ -48,22 +58,137 @@ public class RoomMonitoringServiceTest {
                 .build();
 
         var payload = new AtomicReference<>("");
+        var wrapper = new AtomicReference<DetectionWrapper>();
         var interval = Execution.SECOND_IN_MILLIS * 2;
 
         var service = RoomMonitoringService.of(engine, consumptionUseCases, environmentUseCases,
                 detectionFactory, msg -> {
                     payload.set(msg);
                     return CompletableFuture.completedFuture(null);
-                }, element -> element.getDetection().toString());
+                }, element -> {
+                    wrapper.set(element);
+                    return element.getDetection().toString();
+                });
         service.setDetectionInterval(interval);
 
         var fut = service.start();
-        Execution.safeSleep(interval);
+        // the first detection is published on the next multiple of the interval
+        var deadline = System.currentTimeMillis() + interval * 3L;
+        while (payload.get().isEmpty() && System.currentTimeMillis() < deadline) {
+            Execution.safeSleep(100);
+        }
 
         assertTrue(payload.get().contains(current.toString()));
         assertTrue(payload.get().contains(hotFlowRate.toString()));
         assertTrue(payload.get().contains(temperature.toString()));
+        assertEquals(2, wrapper.get().getSampleDuration());
+        var currentStatistics = wrapper.get().getStatistics().get(MeasureType.CURRENT);
+        assertTrue(currentStatistics.getCount() > 0);
+        assertEquals(current.getValue(), currentStatistics.getMean());
+        assertEquals(0, currentStatistics.getStandardDeviation());
         fut.complete(null);
         fut.join();
     }
+
+    @Test
+    public void testBackpressure() {
+        var detectionFactory = DetectionFactory.of(UUID::randomUUID);
+        var temperature = Temperature.of(20, Temperature.Environment.HOT_WATER_PIPE);
+        var environmentUseCases = new EnvironmentUseCases.Builder<UUID>()
+                .setHotWaterTemperatureSensor(MockedSensor.of(UUID.randomUUID(), detectionFactory)
+                        .setMockedBehaviour(List.of(temperature)))
+                .build();
+        var sent = new AtomicInteger();
+        var saturated = new AtomicBoolean(true);
+        var wrapper = new AtomicReference<DetectionWrapper>();
+        var service = RoomMonitoringService.of(EngineFactory.createScheduledEngine(1),
+                new ConsumptionUseCases.Builder<UUID>().build(), environmentUseCases, detectionFactory, msg -> {
+                    sent.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                }, element -> {
+                    wrapper.set(element);
+                    return element.getDetection().toString();
+                });
+        service.setWindow(MeasureType.HOT_WATER_TEMPERATURE,
+                WindowSpec.tumbling(RoomMonitoringService.DEFAULT_DETECT_INTERVAL_SEC * Execution.SECOND_IN_MILLIS,
+                        WindowSpec.Aggregation.COUNT));
+        service.setBackpressure(saturated::get);
+        service.publish().join();
+        service.publish().join();
+        assertEquals(0, sent.get());
+        saturated.set(false);
+        service.publish().join();
+        assertEquals(1, sent.get());
+        // the message covers the two deferred cycles too
+        assertEquals(3 * RoomMonitoringService.DEFAULT_DETECT_INTERVAL_SEC, wrapper.get().getSampleDuration());
+    }
+
+    @Test
+    public void testBoundedDeferral() {
+        var detectionFactory = DetectionFactory.of(UUID::randomUUID);
+        var environmentUseCases = new EnvironmentUseCases.Builder<UUID>()
+                .setHotWaterTemperatureSensor(MockedSensor.of(UUID.randomUUID(), detectionFactory)
+                        .setMockedBehaviour(List.of(Temperature.of(20, Temperature.Environment.HOT_WATER_PIPE))))
+                .build();
+        var sent = new AtomicInteger();
+        var service = RoomMonitoringService.of(EngineFactory.createScheduledEngine(1),
+                new ConsumptionUseCases.Builder<UUID>().build(), environmentUseCases, detectionFactory, msg -> {
+                    sent.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                }, element -> element.getDetection().toString());
+        service.setBackpressure(() -> true);
+        for (int i = 0; i < RoomMonitoringService.DEFAULT_MAX_DEFERRED_CYCLES; i++) {
+            service.publish().join();
+        }
+        assertEquals(0, sent.get());
+        // the output is still saturated, but the publication can not be deferred any longer
+        service.publish().join();
+        assertEquals(1, sent.get());
+        service.setMaxDeferredCycles(0);
+        service.publish().join();
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    public void testDeltaStatistics() {
+        var detectionFactory = DetectionFactory.of(UUID::randomUUID);
+        var environmentUseCases = new EnvironmentUseCases.Builder<UUID>()
+                .setHotWaterTemperatureSensor(MockedSensor.of(UUID.randomUUID(), detectionFactory)
+                        .setMockedBehaviour(List.of(Temperature.of(50, Temperature.Environment.HOT_WATER_PIPE))))
+                .setColdWaterTemperatureSensor(MockedSensor.of(UUID.randomUUID(), detectionFactory)
+                        .setMockedBehaviour(List.of(Temperature.of(10, Temperature.Environment.COLD_WATER_PIPE))))
+                .build();
+        var wrapper = new AtomicReference<DetectionWrapper>();
+        var service = RoomMonitoringService.of(EngineFactory.createScheduledEngine(1),
+                new ConsumptionUseCases.Builder<UUID>().build(), environmentUseCases, detectionFactory,
+                msg -> CompletableFuture.completedFuture(null), element -> {
+                    wrapper.set(element);
+                    return element.getDetection().toString();
+                });
+        service.setDeadband(MeasureType.HOT_WATER_TEMPERATURE, 1, 0);
+        service.publish().join();
+        assertFalse(wrapper.get().isDelta());
+        assertFalse(wrapper.get().getStatistics().get(MeasureType.HOT_WATER_TEMPERATURE).isEmpty());
+        // the hot water temperature does not change, so the delta does not report it
+        service.publish().join();
+        assertTrue(wrapper.get().isDelta());
+        assertTrue(wrapper.get().getStatistics().get(MeasureType.HOT_WATER_TEMPERATURE).isEmpty());
+        assertFalse(wrapper.get().getStatistics().get(MeasureType.COLD_WATER_TEMPERATURE).isEmpty());
+        var types = new ArrayList<MeasureType>();
+        wrapper.get().getStatistics().forEach((type, statistics) -> types.add(type));
+        assertEquals(List.of(MeasureType.COLD_WATER_TEMPERATURE), types);
+    }
+
+    @Test
+    public void testNoDetections() {
+        var sent = new AtomicInteger();
+        var service = RoomMonitoringService.of(EngineFactory.createScheduledEngine(1),
+                new ConsumptionUseCases.Builder<UUID>().build(), new EnvironmentUseCases.Builder<UUID>().build(),
+                DetectionFactory.of(UUID::randomUUID), msg -> {
+                    sent.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                }, element -> element.getDetection().toString());
+        assertThrows(CompletionException.class, () -> service.publish().join());
+        assertEquals(0, sent.get());
+    }
 }
@@ -0,0 +1,125 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.exception.UnassignedSensorException;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.measure.energy.Current;
+import io.github.ecotrip.pipeline.SensorSampler;
+import io.github.ecotrip.sensor.Detection;
+import io.github.ecotrip.sensor.DetectionFactory;
+import io.github.ecotrip.sensor.DetectionFrame;
+
+public class SensorSamplerTest {
+    private final DetectionFactory<UUID> detectionFactory = DetectionFactory.of(UUID::randomUUID);
+    private final AtomicInteger counter = new AtomicInteger();
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void beforeTest() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void afterTest() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testContinuousSampling() throws InterruptedException {
+        // the fourth request is made after the third detection has been stored
+        var requested = new CountDownLatch(4);
+        var sampler = SensorSampler.of(() -> countingDetection(requested), executor, 50);
+        sampler.start();
+        assertTrue(requested.await(1, TimeUnit.SECONDS));
+        var detections = sampler.drain();
+        assertTrue(detections.size() >= 3);
+        assertEquals(Current.of(1), detections.get(0).getMeasures().get(0));
+        assertTrue(sampler.drain().size() <= 1);
+        sampler.stop();
+        assertFalse(sampler.isRunning());
+    }
+
+    @Test
+    public void testBoundedBuffer() throws InterruptedException {
+        var requested = new CountDownLatch(5);
+        var sampler = SensorSampler.of(() -> countingDetection(requested), executor, 10, 2);
+        sampler.start();
+        assertTrue(requested.await(1, TimeUnit.SECONDS));
+        sampler.stop();
+        var detections = sampler.drain();
+        assertEquals(2, detections.size());
+        assertTrue(detections.get(0).getMeasures().get(0).getValue() > 1);
+    }
+
+    @Test
+    public void testDrainToFrame() throws InterruptedException {
+        var requested = new CountDownLatch(3);
+        var sampler = SensorSampler.of(() -> countingDetection(requested), executor, 10);
+        sampler.start();
+        assertTrue(requested.await(1, TimeUnit.SECONDS));
+        sampler.stop();
+        var frame = DetectionFrame.create();
+        var drained = sampler.drainTo(frame);
+        assertTrue(drained > 0);
+        assertEquals(drained, frame.size(MeasureType.CURRENT));
+        assertEquals(1, frame.getValue(MeasureType.CURRENT, 0));
+        assertTrue(sampler.drain().size() <= 1);
+    }
+
+    @Test
+    public void testUnassignedSensor() {
+        var sampler = SensorSampler.<UUID>of(() -> CompletableFuture.failedFuture(
+                new UnassignedSensorException("CURRENT")), executor, 10);
+        sampler.start();
+        assertFalse(sampler.isRunning());
+        assertTrue(sampler.drain().isEmpty());
+    }
+
+    @Test
+    public void testRestart() {
+        var scheduled = new ConcurrentLinkedQueue<Runnable>();
+        var requested = new CountDownLatch(Integer.MAX_VALUE);
+        var sampler = SensorSampler.of(() -> countingDetection(requested), scheduled::add, 0);
+        sampler.start();
+        sampler.stop();
+        sampler.start();
+        // both loops have scheduled their next sample
+        var deadline = System.currentTimeMillis() + 1000;
+        while (scheduled.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(2, scheduled.size());
+        scheduled.poll().run();
+        scheduled.poll().run();
+        // only the loop of the last start keeps sampling
+        assertEquals(3, counter.get());
+        sampler.stop();
+    }
+
+    /**
+     * Creates a detection whose current is the number of requests made so far, counting down the latch.
+     */
+    private CompletableFuture<Detection<UUID>> countingDetection(final CountDownLatch requested) {
+        requested.countDown();
+        var count = counter.incrementAndGet();
+        return CompletableFuture.completedFuture(detectionFactory.create(List.of(Current.of(count))));
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.measure.MeasureStatistics;
+import io.github.ecotrip.measure.MeasureType;
+import io.github.ecotrip.pipeline.WindowSpec;
+import io.github.ecotrip.pipeline.WindowedAggregator;
+import io.github.ecotrip.sensor.DetectionFrame;
+
+public class WindowedAggregatorTest {
+    private static final long CYCLE = 1000;
+
+    @Test
+    public void testTumblingWindows() {
+        var aggregator = WindowedAggregator.of(WindowSpec.tumbling(CYCLE, WindowSpec.Aggregation.MEAN));
+        aggregator.setWindow(MeasureType.ROOM_TEMPERATURE, WindowSpec.tumbling(CYCLE * 3, WindowSpec.Aggregation.MAX));
+        var output = DetectionFrame.create();
+        var statistics = MeasureStatistics.create();
+        for (int cycle = 1; cycle <= 6; cycle++) {
+            aggregator.add(MeasureType.CURRENT, cycle);
+            aggregator.add(MeasureType.CURRENT, cycle + 1);
+            aggregator.add(MeasureType.ROOM_TEMPERATURE, 20 + cycle);
+            aggregator.advance(CYCLE, cycle, output, statistics);
+        }
+        assertEquals(6, output.size(MeasureType.CURRENT));
+        assertEquals(1.5, output.getValue(MeasureType.CURRENT, 0));
+        assertEquals(6.5, output.getValue(MeasureType.CURRENT, 5));
+        assertEquals(6, output.getTimestampInMicros(MeasureType.CURRENT, 5));
+        assertEquals(2, output.size(MeasureType.ROOM_TEMPERATURE));
+        assertEquals(23, output.getValue(MeasureType.ROOM_TEMPERATURE, 0));
+        assertEquals(26, output.getValue(MeasureType.ROOM_TEMPERATURE, 1));
+        assertEquals(12, statistics.get(MeasureType.CURRENT).getCount());
+        assertEquals(6, statistics.get(MeasureType.ROOM_TEMPERATURE).getCount());
+        // empty windows produce nothing
+        assertEquals(0, output.size(MeasureType.HUMIDITY));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        var aggregator = WindowedAggregator.of(WindowSpec.tumbling(CYCLE, WindowSpec.Aggregation.MEAN));
+        aggregator.setWindow(MeasureType.CURRENT, WindowSpec.sliding(CYCLE * 3, CYCLE, WindowSpec.Aggregation.SUM));
+        var output = DetectionFrame.create();
+        var statistics = MeasureStatistics.create();
+        for (int cycle = 1; cycle <= 5; cycle++) {
+            aggregator.add(MeasureType.CURRENT, cycle);
+            aggregator.advance(CYCLE, cycle, output, MeasureStatistics.create());
+        }
+        assertEquals(5, output.size(MeasureType.CURRENT));
+        assertEquals(1, output.getValue(MeasureType.CURRENT, 0));
+        assertEquals(3, output.getValue(MeasureType.CURRENT, 1));
+        assertEquals(6, output.getValue(MeasureType.CURRENT, 2));
+        assertEquals(9, output.getValue(MeasureType.CURRENT, 3));
+        assertEquals(12, output.getValue(MeasureType.CURRENT, 4));
+
+        // the window is closed only when its slide is elapsed
+        aggregator.setWindow(MeasureType.CURRENT, WindowSpec.sliding(CYCLE * 4, CYCLE * 2,
+                WindowSpec.Aggregation.COUNT));
+        output.clear();
+        aggregator.add(MeasureType.CURRENT, 1);
+        assertEquals(0, aggregator.advance(CYCLE, 0, output, statistics));
+        aggregator.add(MeasureType.CURRENT, 1);
+        assertEquals(1, aggregator.advance(CYCLE, 0, output, statistics));
+        assertEquals(2, output.getValue(MeasureType.CURRENT, 0));
+    }
+
+    @Test
+    public void testDefaultWindow() {
+        var aggregator = WindowedAggregator.of(WindowSpec.tumbling(CYCLE, WindowSpec.Aggregation.MEAN));
+        var custom = WindowSpec.tumbling(CYCLE * 10, WindowSpec.Aggregation.MIN);
+        aggregator.setWindow(MeasureType.HUMIDITY, custom);
+        var longer = WindowSpec.tumbling(CYCLE * 2, WindowSpec.Aggregation.MEAN);
+        aggregator.setDefaultWindow(longer);
+        assertEquals(longer, aggregator.getWindow(MeasureType.CURRENT));
+        assertEquals(custom, aggregator.getWindow(MeasureType.HUMIDITY));
+        assertEquals(1, custom.getPanes());
+        assertEquals(3, WindowSpec.sliding(CYCLE * 5, CYCLE * 2, WindowSpec.Aggregation.MEAN).getPanes());
+        var aggregation = WindowSpec.Aggregation.MEAN;
+        assertThrows(IllegalArgumentException.class, () -> WindowSpec.sliding(CYCLE, CYCLE * 2, aggregation));
+    }
+}
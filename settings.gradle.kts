@@ -6,6 +6,7 @@ include("core")
 include("room-monitoring")
 include("authorization")
 include("examples")
+include("benchmarks")
 
 plugins {
     id("com.gradle.enterprise") version "3.11.1"
@@ -0,0 +1,72 @@
+package io.github.ecotrip;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The claims of a JSON Web Token used by the control unit.
+ */
+public class JwtClaims {
+    private final String stayId;
+    private final String roomId;
+    private final Long expiration;
+
+    private JwtClaims(final String stayId, final String roomId, final Long expiration) {
+        this.stayId = stayId;
+        this.roomId = roomId;
+        this.expiration = expiration;
+    }
+
+    /**
+     * The "stayId" claim.
+     * @return the stay identifier or null if missing.
+     */
+    public String getStayId() {
+        return stayId;
+    }
+
+    /**
+     * The "roomId" claim.
+     * @return the room identifier or null if missing.
+     */
+    public String getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * The "exp" claim, it can be used to schedule the token expiry.
+     * @return the expiration time if present.
+     */
+    public Optional<Instant> getExpiration() {
+        return Optional.ofNullable(expiration).map(Instant::ofEpochSecond);
+    }
+
+    /**
+     * Checks the expiration time, a token without "exp" never expires.
+     * @param now is the current instant.
+     * @return true if the token is expired.
+     */
+    public boolean isExpired(final Instant now) {
+        return expiration != null && now.getEpochSecond() >= expiration;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtClaims{"
+                + "stayId='" + stayId + '\''
+                + ", roomId='" + roomId + '\''
+                + ", expiration=" + expiration
+                + '}';
+    }
+
+    /**
+     * Factory method.
+     * @param stayId claim, nullable.
+     * @param roomId claim, nullable.
+     * @param expiration claim in seconds from epoch, nullable.
+     * @return a new {@link JwtClaims}.
+     */
+    public static JwtClaims of(final String stayId, final String roomId, final Long expiration) {
+        return new JwtClaims(stayId, roomId, expiration);
+    }
+}
@@ -3,6 +3,8 @@ package io.github.ecotrip;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.json.JSONObject;
 
@@ -10,7 +12,20 @@ import org.json.JSONObject;
  * JwtParser is a utility class for parsing JSON Web Tokens (JWT).
  */
 public class JwtParser {
+    /**
+     * Maximum number of tokens whose claims are kept in memory.
+     */
+    public static final int CLAIMS_CACHE_SIZE = 32;
     private static final Charset UTF_8 = StandardCharsets.UTF_8;
+    private static final byte[] STAY_ID = "stayId".getBytes(UTF_8);
+    private static final byte[] ROOM_ID = "roomId".getBytes(UTF_8);
+    private static final byte[] EXPIRATION = "exp".getBytes(UTF_8);
+    private static final Map<String, JwtClaims> CLAIMS_CACHE = new LinkedHashMap<>(CLAIMS_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, JwtClaims> eldest) {
+            return size() > CLAIMS_CACHE_SIZE;
+        }
+    };
 
     /**
      * Extracts the payload from a JWT token and returns it as a JSONObject.
@@ -19,8 +34,240 @@ public class JwtParser {
      * @return the payload of the token, as a JSONObject
      */
     public static JSONObject getPayload(final String token) {
-        String[] parts = token.split("\\.");
-        var payload = new String(Base64.getUrlDecoder().decode(parts[1]), UTF_8);
-        return new JSONObject(payload);
+        return new JSONObject(new String(decodePayload(token), UTF_8));
+    }
+
+    /**
+     * Extracts the claims used by the control unit (stayId, roomId and exp) from a JWT token.
+     * The payload is scanned without building the whole JSON tree and the result is cached per token,
+     * so the same token received again is not parsed twice.
+     *
+     * @param token the JWT token to parse
+     * @return the claims of the token
+     * @throws IllegalArgumentException if the token payload is not a valid JSON object
+     */
+    public static JwtClaims getClaims(final String token) {
+        synchronized (CLAIMS_CACHE) {
+            var claims = CLAIMS_CACHE.get(token);
+            if (claims != null) {
+                return claims;
+            }
+        }
+        var claims = new ClaimsScanner(decodePayload(token)).scan();
+        synchronized (CLAIMS_CACHE) {
+            CLAIMS_CACHE.put(token, claims);
+        }
+        return claims;
+    }
+
+    private static byte[] decodePayload(final String token) {
+        var start = token.indexOf('.');
+        if (start < 0) {
+            throw new IllegalArgumentException("Invalid JWT token");
+        }
+        // an unsigned token has no signature part
+        var end = token.indexOf('.', start + 1);
+        if (end < 0) {
+            end = token.length();
+        }
+        return Base64.getUrlDecoder().decode(token.substring(start + 1, end));
+    }
+
+    /**
+     * Single pass scanner of the top level fields of a JSON object, only the wanted values are decoded.
+     */
+    private static class ClaimsScanner {
+        private final byte[] json;
+        private int position;
+        private String stayId;
+        private String roomId;
+        private Long expiration;
+
+        ClaimsScanner(final byte[] json) {
+            this.json = json;
+        }
+
+        JwtClaims scan() {
+            expect('{');
+            skipWhitespaces();
+            if (peek() == '}') {
+                return JwtClaims.of(null, null, null);
+            }
+            do {
+                skipWhitespaces();
+                var keyStart = position + 1;
+                skipString();
+                var keyEnd = position - 1;
+                expect(':');
+                skipWhitespaces();
+                if (matches(keyStart, keyEnd, STAY_ID) && peek() == '"') {
+                    stayId = readString();
+                } else if (matches(keyStart, keyEnd, ROOM_ID) && peek() == '"') {
+                    roomId = readString();
+                } else if (matches(keyStart, keyEnd, EXPIRATION) && isNumberStart(peek())) {
+                    expiration = readLong();
+                } else {
+                    skipValue();
+                }
+                skipWhitespaces();
+            } while (next() == ',');
+            if (json[position - 1] != '}') {
+                throw invalid();
+            }
+            return JwtClaims.of(stayId, roomId, expiration);
+        }
+
+        private boolean matches(final int start, final int end, final byte[] key) {
+            if (end - start != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (json[start + i] != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String readString() {
+            var start = position + 1;
+            skipString();
+            var end = position - 1;
+            for (int i = start; i < end; i++) {
+                if (json[i] == '\\') {
+                    return unescape(start, end);
+                }
+            }
+            return new String(json, start, end - start, UTF_8);
+        }
+
+        private String unescape(final int start, final int end) {
+            var builder = new StringBuilder(end - start);
+            var i = start;
+            while (i < end) {
+                var chunkStart = i;
+                while (i < end && json[i] != '\\') {
+                    i++;
+                }
+                builder.append(new String(json, chunkStart, i - chunkStart, UTF_8));
+                if (i < end && json[i + 1] == 'u') {
+                    builder.append((char) Integer.parseInt(new String(json, i + 2, 4, UTF_8), 16));
+                    i += 6;
+                } else if (i < end) {
+                    builder.append(unescape(json[i + 1]));
+                    i += 2;
+                }
+            }
+            return builder.toString();
+        }
+
+        private static char unescape(final byte escaped) {
+            switch (escaped) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            default:
+                return (char) escaped;
+            }
+        }
+
+        private long readLong() {
+            var start = position;
+            var integer = true;
+            while (position < json.length && isNumberPart(json[position])) {
+                integer &= json[position] != '.' && json[position] != 'e' && json[position] != 'E';
+                position++;
+            }
+            var number = new String(json, start, position - start, StandardCharsets.US_ASCII);
+            return integer ? Long.parseLong(number) : (long) Double.parseDouble(number);
+        }
+
+        private void skipValue() {
+            var first = peek();
+            if (first == '"') {
+                skipString();
+            } else if (first == '{' || first == '[') {
+                skipNested();
+            } else {
+                while (position < json.length && json[position] != ',' && json[position] != '}'
+                        && json[position] != ']' && !isWhitespace(json[position])) {
+                    position++;
+                }
+            }
+        }
+
+        private void skipNested() {
+            var depth = 0;
+            do {
+                var current = peek();
+                if (current == '"') {
+                    skipString();
+                    continue;
+                }
+                if (current == '{' || current == '[') {
+                    depth++;
+                } else if (current == '}' || current == ']') {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0);
+        }
+
+        private void skipString() {
+            expect('"');
+            while (peek() != '"') {
+                position += json[position] == '\\' ? 2 : 1;
+            }
+            position++;
+        }
+
+        private void expect(final char expected) {
+            skipWhitespaces();
+            if (next() != expected) {
+                throw invalid();
+            }
+        }
+
+        private byte peek() {
+            if (position >= json.length) {
+                throw invalid();
+            }
+            return json[position];
+        }
+
+        private byte next() {
+            var current = peek();
+            position++;
+            return current;
+        }
+
+        private void skipWhitespaces() {
+            while (position < json.length && isWhitespace(json[position])) {
+                position++;
+            }
+        }
+
+        private static boolean isWhitespace(final byte b) {
+            return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+        }
+
+        private static boolean isNumberStart(final byte b) {
+            return b == '-' || (b >= '0' && b <= '9');
+        }
+
+        private static boolean isNumberPart(final byte b) {
+            return isNumberStart(b) || b == '.' || b == 'e' || b == 'E' || b == '+';
+        }
+
+        private IllegalArgumentException invalid() {
+            return new IllegalArgumentException("Invalid JWT payload at position " + position);
+        }
     }
 }
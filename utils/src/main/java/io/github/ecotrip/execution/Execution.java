@@ -52,15 +52,12 @@ public class Execution {
     }
 
     /**
-     * Blocks the current {@link Thread} thanks a busy waiting for performance reasons.
+     * Blocks the current {@link Thread} with microsecond precision.
+     * The thread is parked for most of the delay and busy waits only at the end, see {@link PreciseDelay}.
      * @param delayTime is the waiting before realising the current {@link Thread}.
      */
     public static void delayMicroseconds(int delayTime) {
-        long start = System.nanoTime();
-        long end;
-        do {
-            end = System.nanoTime();
-        } while(start + (long) delayTime * SECOND_IN_MILLIS >= end);
+        PreciseDelay.exact().delayMicroseconds(delayTime);
     }
 
     @SafeVarargs
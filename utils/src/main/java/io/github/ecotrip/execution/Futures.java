@@ -1,13 +1,11 @@
 package io.github.ecotrip.execution;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Utils class for Java {@link CompletableFuture}.
@@ -24,21 +22,37 @@ public class Futures {
 
     /**
      * Wait for all futures to end and then execution a provided function.
+     * The timeout is a single deadline for the whole group, see {@link #allWithin(List, long)}.
      * @param futures to wait.
-     * @param fn is the function to execution as last action.
-     * @param timeoutInMillis if exceed it will complete the future with an exception.
+     * @param fn is the function to execution as last action, it receives the results available by the deadline.
+     * @param timeoutInMillis is the deadline for the whole group.
      * @param <T> specify the type of futures' results.
      * @param <U> specify the type of returned {@link CompletableFuture}.
      * @return the possible result wrapped inside a {@link CompletableFuture}.
      */
     public static <T, U> CompletableFuture<U> thenAll(List<CompletableFuture<T>> futures, Function<List<T>, U> fn,
                                                       final int timeoutInMillis) {
-        return CompletableFuture.supplyAsync(() -> {
-            var results = futures.stream()
-                    .map(f -> safeGet(f, timeoutInMillis))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toUnmodifiableList());
-            return fn.apply(results);
+        return allWithin(futures, timeoutInMillis).thenApplyAsync(r -> fn.apply(r.getResults()));
+    }
+
+    /**
+     * Collects the results of a group of futures without blocking any thread.
+     * The returned future completes as soon as every future of the group is done, or at the deadline with the
+     * results arrived so far. The futures still running at the deadline are cancelled.
+     * @param futures to wait.
+     * @param timeoutInMillis is the deadline for the whole group.
+     * @param <T> specify the type of futures' results.
+     * @return the {@link PartialResults}, which tell which futures timed out or failed.
+     */
+    public static <T> CompletableFuture<PartialResults<T>> allWithin(final List<CompletableFuture<T>> futures,
+                                                                     final long timeoutInMillis) {
+        var deadline = new CompletableFuture<Void>();
+        mergeFutures(futures).whenComplete((u, t) -> deadline.complete(null));
+        deadline.completeOnTimeout(null, timeoutInMillis, TimeUnit.MILLISECONDS);
+        return deadline.thenApply(u -> {
+            var partialResults = PartialResults.of(futures);
+            partialResults.getTimedOut().forEach(i -> futures.get(i).cancel(true));
+            return partialResults;
         });
     }
 
@@ -0,0 +1,90 @@
+package io.github.ecotrip.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Results collected from a group of futures by a deadline.
+ * Indices refer to the position of the futures inside the group.
+ * @param <T> type of the futures' results.
+ */
+public class PartialResults<T> {
+    private final List<T> results;
+    private final List<Integer> timedOut;
+    private final List<Integer> failed;
+
+    private PartialResults(final List<T> results, final List<Integer> timedOut, final List<Integer> failed) {
+        this.results = Collections.unmodifiableList(results);
+        this.timedOut = Collections.unmodifiableList(timedOut);
+        this.failed = Collections.unmodifiableList(failed);
+    }
+
+    /**
+     * The non-null results of the futures completed normally, in the order of the group.
+     * @return the results.
+     */
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * Futures still running at the deadline.
+     * @return their indices.
+     */
+    public List<Integer> getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Futures completed exceptionally before the deadline.
+     * @return their indices.
+     */
+    public List<Integer> getFailed() {
+        return failed;
+    }
+
+    /**
+     * Tells if every future of the group completed normally.
+     * @return true if nothing timed out or failed.
+     */
+    public boolean isComplete() {
+        return timedOut.isEmpty() && failed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "PartialResults{"
+                + "results=" + results
+                + ", timedOut=" + timedOut
+                + ", failed=" + failed
+                + '}';
+    }
+
+    /**
+     * Takes a snapshot of the current state of the futures.
+     * @param futures of the group.
+     * @param <T> type of the futures' results.
+     * @return the {@link PartialResults}.
+     */
+    public static <T> PartialResults<T> of(final List<CompletableFuture<T>> futures) {
+        var results = new ArrayList<T>(futures.size());
+        var timedOut = new ArrayList<Integer>();
+        var failed = new ArrayList<Integer>();
+        for (int i = 0; i < futures.size(); i++) {
+            var future = futures.get(i);
+            if (!future.isDone()) {
+                timedOut.add(i);
+            } else if (future.isCompletedExceptionally()) {
+                failed.add(i);
+            } else {
+                var result = future.join();
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+        }
+        return new PartialResults<>(results, timedOut, failed);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.ecotrip.execution;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongBinaryOperator;
+
+import io.github.ecotrip.metrics.Histogram;
+
+/**
+ * Delays the current {@link Thread} with microsecond precision without burning a core for the whole delay.
+ * The thread is parked for the bulk of the delay and spins only for the final slice, whose length is calibrated
+ * on the measured park latency of the platform minus the accepted tolerance.
+ * With a tolerance greater than the park latency the thread never spins.
+ */
+public class PreciseDelay {
+    private static final long INITIAL_PARK_LATENCY_IN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int LATENCY_DECAY_SHIFT = 4;
+    private static final PreciseDelay EXACT = of(0);
+    private final long toleranceInNanos;
+    private final AtomicLong parkLatencyInNanos = new AtomicLong(INITIAL_PARK_LATENCY_IN_NANOS);
+    private final Histogram overshoot = new Histogram();
+
+    private PreciseDelay(final long toleranceInNanos) {
+        this.toleranceInNanos = Math.max(0, toleranceInNanos);
+    }
+
+    /**
+     * Blocks the current thread for at least the given time.
+     * @param delayInNanos is the minimum waiting time.
+     */
+    public void delay(final long delayInNanos) {
+        var deadline = System.nanoTime() + delayInNanos;
+        var spinSlice = Math.max(0, parkLatencyInNanos.get() - toleranceInNanos);
+        var remaining = deadline - System.nanoTime();
+        while (remaining > spinSlice) {
+            var parkTime = remaining - spinSlice;
+            var parkStart = System.nanoTime();
+            LockSupport.parkNanos(parkTime);
+            var parkEnd = System.nanoTime();
+            calibrate(parkEnd - parkStart - parkTime);
+            remaining = deadline - parkEnd;
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        overshoot.record(System.nanoTime() - deadline);
+    }
+
+    /**
+     * Blocks the current thread for at least the given time.
+     * @param delayInMicros is the minimum waiting time.
+     */
+    public void delayMicroseconds(final long delayInMicros) {
+        delay(TimeUnit.MICROSECONDS.toNanos(delayInMicros));
+    }
+
+    public long getToleranceInNanos() {
+        return toleranceInNanos;
+    }
+
+    /**
+     * The estimated time the platform needs to wake up a parked thread, used to size the final spin.
+     * @return the latency in nanoseconds.
+     */
+    public long getParkLatencyInNanos() {
+        return parkLatencyInNanos.get();
+    }
+
+    /**
+     * Distribution of the time elapsed between the requested deadline and the actual wake-up.
+     * @return the overshoot histogram in nanoseconds.
+     */
+    public Histogram getOvershoot() {
+        return overshoot;
+    }
+
+    /**
+     * Decaying maximum: grows immediately with a slower wake-up, shrinks slowly otherwise.
+     */
+    private void calibrate(final long latencyInNanos) {
+        LongBinaryOperator decayingMax = (current, sample) ->
+                Math.max(sample, current - (current >> LATENCY_DECAY_SHIFT));
+        parkLatencyInNanos.accumulateAndGet(Math.max(0, latencyInNanos), decayingMax);
+    }
+
+    /**
+     * Delay which parks and then spins to wake up as close as possible to the deadline.
+     * @return the shared instance with no tolerance.
+     */
+    public static PreciseDelay exact() {
+        return EXACT;
+    }
+
+    /**
+     * Factory method.
+     * @param toleranceInMicros is how late the caller accepts to wake up, the greater the less CPU is spent spinning.
+     * @return a new {@link PreciseDelay} with its own calibration and metrics.
+     */
+    public static PreciseDelay of(final long toleranceInMicros) {
+        return new PreciseDelay(TimeUnit.MICROSECONDS.toNanos(toleranceInMicros));
+    }
+}
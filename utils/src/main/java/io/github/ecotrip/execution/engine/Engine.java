@@ -2,6 +2,8 @@ package io.github.ecotrip.execution.engine;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -10,11 +12,49 @@ import java.util.function.Function;
 public interface Engine {
     CompletableFuture<Void> schedule(Runnable job, long repeatEvery);
 
+    /**
+     * Runs the job at a fixed rate, on the wall-clock multiples of the period (e.g. every :00, :05, :10 seconds
+     * with a 5 seconds period), so that devices using the same period tick together.
+     * The ticks are measured against a monotonic clock and do not drift with the job duration.
+     * @param job receives the {@link Tick} which describes the current execution.
+     * @param periodInMillis is the period.
+     * @param policy tells what to do with the ticks missed by an overrunning job.
+     * @return a handle which completes exceptionally if the job fails. Completing or cancelling it stops the job.
+     */
+    CompletableFuture<Void> scheduleAtFixedRate(Consumer<Tick> job, long periodInMillis, MissedTickPolicy policy);
+
     CompletableFuture<Void> submit(final Runnable job);
 
-    <T> CompletableFuture<T> submitAndRepeat(final Function<CompletableFuture<T>, CompletableFuture<T>> job,
-                                                         final CompletableFuture<T> accumulator,
-                                                         final int repetitions, final int delayInSeconds);
+    /**
+     * Applies the job to the accumulator the given number of times, waiting the delay between two repetitions.
+     * @param job receives the current accumulator and returns the next one.
+     * @param accumulator is the initial value.
+     * @param repetitions is the number of times the job is applied.
+     * @param delayInSeconds is the time between two consecutive repetitions.
+     * @param <T> type of the accumulated value.
+     * @return the final accumulator. Cancelling it stops the remaining repetitions.
+     */
+    default <T> CompletableFuture<T> submitAndRepeat(final Function<CompletableFuture<T>, CompletableFuture<T>> job,
+                                                     final CompletableFuture<T> accumulator,
+                                                     final int repetitions, final int delayInSeconds) {
+        return submitAndRepeat(job, accumulator, repetitions, TimeUnit.SECONDS.toMillis(delayInSeconds), t -> { });
+    }
+
+    /**
+     * Applies the job to the accumulator the given number of times, waiting the delay between two repetitions.
+     * The delay is handled by the scheduler, no thread is blocked meanwhile, and the stack depth does not depend
+     * on the number of repetitions.
+     * @param job receives the current accumulator and returns the next one.
+     * @param accumulator is the initial value.
+     * @param repetitions is the number of times the job is applied.
+     * @param delayInMillis is the time between two consecutive repetitions.
+     * @param onPartial receives the accumulator after every repetition.
+     * @param <T> type of the accumulated value.
+     * @return the final accumulator. Cancelling it stops the remaining repetitions.
+     */
+    <T> CompletableFuture<T> submitAndRepeat(Function<CompletableFuture<T>, CompletableFuture<T>> job,
+                                             CompletableFuture<T> accumulator, int repetitions,
+                                             long delayInMillis, Consumer<T> onPartial);
 
     Executor getContext();
 }
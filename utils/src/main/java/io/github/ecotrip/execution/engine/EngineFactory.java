@@ -1,17 +1,32 @@
 package io.github.ecotrip.execution.engine;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utils class which simplify the {@link Engine} construction.
  */
 public class EngineFactory {
+    /**
+     * First Java version providing virtual threads.
+     */
+    public static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+    /**
+     * Default number of threads used by the blocking I/O engine.
+     */
+    public static final int DEFAULT_IO_THREADS = 8;
+    /**
+     * Default number of pending jobs accepted by the blocking I/O engine.
+     */
+    public static final int DEFAULT_IO_QUEUE_CAPACITY = 64;
+    private static final long IO_KEEP_ALIVE_SECONDS = 60;
+
     /**
      * Creates a scheduled engine.
      * @param threadPoolSize used by the engine.
@@ -19,43 +34,71 @@ public class EngineFactory {
      * @return the engine.
      * */
     public static <T> Engine createScheduledEngine(int threadPoolSize) {
-        return new Engine() {
-            private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(threadPoolSize);
-
-            @Override
-            public CompletableFuture<Void> schedule(Runnable toBeScheduled, final long repeatEveryInMillis) {
-                var scheduledJob = executor.scheduleWithFixedDelay(toBeScheduled, 0,
-                        repeatEveryInMillis, TimeUnit.MILLISECONDS);
-                return CompletableFuture.runAsync(() -> {
-                    try {
-                        scheduledJob.get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
-            }
-
-            @Override
-            public CompletableFuture<Void> submit(Runnable job) {
-                return CompletableFuture.runAsync(job, executor);
-            }
-
-            @Override
-            public <T> CompletableFuture<T> submitAndRepeat(final Function<CompletableFuture<T>,
-                    CompletableFuture<T>> job,
-                                                        final CompletableFuture<T> accumulator,
-                                                        final int repetitions, final int delayInSeconds) {
-                if (repetitions > 0) {
-                    return CompletableFuture.supplyAsync(() -> job.apply(accumulator), executor)
-                            .thenCompose(t -> submitAndRepeat(job, t, repetitions - 1, delayInSeconds));
-                }
-                return accumulator;
-            }
-
-            @Override
-            public Executor getContext() {
-                return executor;
-            }
+        var executor = Executors.newScheduledThreadPool(threadPoolSize);
+        return new ExecutorEngine(executor, executor);
+    }
+
+    /**
+     * Creates an engine which runs every job inside a new virtual thread.
+     * @return the engine.
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads.
+     */
+    public static Engine createVirtualThreadEngine() {
+        return new ExecutorEngine(createTimer("virtual-engine-timer"), newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Creates an engine suited for blocking I/O (e.g. I2C or GPIO reads).
+     * The number of threads and the number of pending jobs are bounded, when the queue is full
+     * the job is rejected: the future returned by the engine fails with a
+     * {@link java.util.concurrent.RejectedExecutionException}, while {@link Engine#getContext()} throws it
+     * to the submitter. The job is never run by the submitting thread, which may be the engine timer.
+     * @param maxThreads is the maximum number of threads.
+     * @param queueCapacity is the maximum number of pending jobs.
+     * @return the engine.
+     */
+    public static Engine createBlockingIoEngine(final int maxThreads, final int queueCapacity) {
+        var executor = new ThreadPoolExecutor(maxThreads, maxThreads, IO_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreadFactory("blocking-io-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new ExecutorEngine(createTimer("blocking-io-timer"), executor);
+    }
+
+    /**
+     * Creates the best engine for blocking I/O available on the running JVM:
+     * a virtual thread engine since Java 21, a bounded blocking I/O engine otherwise.
+     * @return the engine.
+     */
+    public static Engine createIoEngine() {
+        return isVirtualThreadSupported()
+                ? createVirtualThreadEngine()
+                : createBlockingIoEngine(DEFAULT_IO_THREADS, DEFAULT_IO_QUEUE_CAPACITY);
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= VIRTUAL_THREADS_JAVA_VERSION;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java "
+                    + VIRTUAL_THREADS_JAVA_VERSION + " or later", e);
+        }
+    }
+
+    private static ScheduledExecutorService createTimer(final String name) {
+        return Executors.newSingleThreadScheduledExecutor(daemonThreadFactory(name));
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String prefix) {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         };
     }
 }
@@ -0,0 +1,100 @@
+package io.github.ecotrip.execution.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.github.ecotrip.object.ObjectUtils;
+
+/**
+ * {@link Engine} backed by a timer, used to keep track of the time, and by a worker {@link Executor},
+ * which runs the jobs. They can be the same {@link ScheduledExecutorService}.
+ */
+class ExecutorEngine implements Engine {
+    private final ScheduledExecutorService timer;
+    private final Executor worker;
+
+    ExecutorEngine(final ScheduledExecutorService timer, final Executor worker) {
+        this.timer = timer;
+        this.worker = worker;
+    }
+
+    /**
+     * Repeats the job with a fixed delay between the end of an execution and the start of the next one.
+     * No thread is blocked waiting for the schedule.
+     * @param toBeScheduled is the job.
+     * @param repeatEveryInMillis is the delay.
+     * @return a handle which completes exceptionally if the job fails. Completing or cancelling it stops the job.
+     */
+    @Override
+    public CompletableFuture<Void> schedule(final Runnable toBeScheduled, final long repeatEveryInMillis) {
+        var handle = new CompletableFuture<Void>();
+        var pending = new AtomicReference<ScheduledFuture<?>>();
+        handle.whenComplete((u, t) -> ObjectUtils.ifNotNull(pending.get(), f -> f.cancel(false)));
+        repeatWithFixedDelay(toBeScheduled, 0, repeatEveryInMillis, handle, pending);
+        return handle;
+    }
+
+    @Override
+    public CompletableFuture<Void> scheduleAtFixedRate(final Consumer<Tick> job, final long periodInMillis,
+                                                       final MissedTickPolicy policy) {
+        return new FixedRateJob(timer, worker, job, periodInMillis, policy).start();
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(final Runnable job) {
+        try {
+            return CompletableFuture.runAsync(job, worker);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submitAndRepeat(final Function<CompletableFuture<T>, CompletableFuture<T>> job,
+                                                    final CompletableFuture<T> accumulator, final int repetitions,
+                                                    final long delayInMillis, final Consumer<T> onPartial) {
+        return new RepeatingJob<>(timer, worker, job, repetitions, delayInMillis, onPartial).start(accumulator);
+    }
+
+    @Override
+    public Executor getContext() {
+        return worker;
+    }
+
+    private void repeatWithFixedDelay(final Runnable job, final long delayInMillis, final long repeatEveryInMillis,
+                                      final CompletableFuture<Void> handle,
+                                      final AtomicReference<ScheduledFuture<?>> pending) {
+        if (handle.isDone()) {
+            return;
+        }
+        pending.set(timer.schedule(() -> runOnWorker(job).whenComplete((u, t) -> {
+            if (t != null) {
+                handle.completeExceptionally(t);
+            } else {
+                repeatWithFixedDelay(job, repeatEveryInMillis, repeatEveryInMillis, handle, pending);
+            }
+        }), delayInMillis, TimeUnit.MILLISECONDS));
+        if (handle.isDone()) {
+            pending.get().cancel(false);
+        }
+    }
+
+    private CompletableFuture<Void> runOnWorker(final Runnable job) {
+        if (worker != timer) {
+            return submit(job);
+        }
+        try {
+            job.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
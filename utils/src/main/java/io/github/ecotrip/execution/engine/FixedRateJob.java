@@ -0,0 +1,107 @@
+package io.github.ecotrip.execution.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs a job at a fixed rate, with ticks aligned to the wall-clock multiples of the period.
+ * Deadlines are computed once from {@link System#nanoTime()}, so they do not drift with the job duration
+ * nor with wall-clock adjustments. A tick never overlaps the previous one.
+ */
+class FixedRateJob {
+    private final ScheduledExecutorService timer;
+    private final Executor worker;
+    private final Consumer<Tick> job;
+    private final MissedTickPolicy policy;
+    private final long periodInNanos;
+    private final long periodInMillis;
+    private final long originInNanos;
+    private final long originInMillis;
+    private final CompletableFuture<Void> handle = new CompletableFuture<>();
+    private volatile ScheduledFuture<?> pending;
+
+    FixedRateJob(final ScheduledExecutorService timer, final Executor worker, final Consumer<Tick> job,
+                 final long periodInMillis, final MissedTickPolicy policy) {
+        if (periodInMillis <= 0) {
+            throw new IllegalArgumentException("The period must be positive");
+        }
+        this.timer = timer;
+        this.worker = worker;
+        this.job = job;
+        this.policy = policy;
+        this.periodInMillis = periodInMillis;
+        this.periodInNanos = TimeUnit.MILLISECONDS.toNanos(periodInMillis);
+        var nowInMillis = System.currentTimeMillis();
+        var nowInNanos = System.nanoTime();
+        this.originInMillis = (nowInMillis / periodInMillis + 1) * periodInMillis;
+        this.originInNanos = nowInNanos + TimeUnit.MILLISECONDS.toNanos(originInMillis - nowInMillis);
+    }
+
+    /**
+     * Schedules the first tick.
+     * @return a handle which completes exceptionally if the job fails. Completing or cancelling it stops the job.
+     */
+    CompletableFuture<Void> start() {
+        handle.whenComplete((u, t) -> {
+            var next = pending;
+            if (next != null) {
+                next.cancel(false);
+            }
+        });
+        scheduleTick(0, 0);
+        return handle;
+    }
+
+    private void scheduleTick(final long index, final long skippedTicks) {
+        if (handle.isDone()) {
+            return;
+        }
+        var delay = Math.max(0, deadlineOf(index) - System.nanoTime());
+        pending = timer.schedule(() -> dispatch(index, skippedTicks), delay, TimeUnit.NANOSECONDS);
+        if (handle.isDone()) {
+            pending.cancel(false);
+        }
+    }
+
+    private void dispatch(final long index, final long skippedTicks) {
+        if (worker == timer) {
+            runTick(index, skippedTicks);
+        } else {
+            try {
+                worker.execute(() -> runTick(index, skippedTicks));
+            } catch (RejectedExecutionException e) {
+                handle.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void runTick(final long index, final long skippedTicks) {
+        if (handle.isDone()) {
+            return;
+        }
+        var lateness = Math.max(0, System.nanoTime() - deadlineOf(index));
+        try {
+            job.accept(Tick.of(index, originInMillis + index * periodInMillis, lateness, skippedTicks));
+        } catch (RuntimeException e) {
+            handle.completeExceptionally(e);
+            return;
+        }
+        var next = index + 1;
+        var now = System.nanoTime();
+        if (policy == MissedTickPolicy.SKIP && now > deadlineOf(next)) {
+            var firstOnTime = (now - originInNanos + periodInNanos - 1) / periodInNanos;
+            scheduleTick(firstOnTime, firstOnTime - next);
+        } else {
+            scheduleTick(next, 0);
+        }
+    }
+
+    private long deadlineOf(final long index) {
+        return originInNanos + index * periodInNanos;
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.ecotrip.execution.engine;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link Engine} decorator which records the {@link JobMetrics} of every job, labelled by job name.
+ * The name is given by {@link #withJobName(String)} followed by the kind of operation, e.g. "nfc.submit" or
+ * "nfc.context" for the jobs executed through {@link #getContext()}.
+ * Recording costs a couple of clock reads and atomic increments per job.
+ */
+public class InstrumentedEngine implements Engine {
+    private final Engine delegate;
+    private final String jobName;
+    private final Map<String, JobMetrics> metrics;
+    private final AtomicInteger activeThreads;
+    private final AtomicInteger peakActiveThreads;
+    private final Executor context;
+
+    private InstrumentedEngine(final Engine delegate, final String jobName, final Map<String, JobMetrics> metrics,
+                               final AtomicInteger activeThreads, final AtomicInteger peakActiveThreads) {
+        this.delegate = delegate;
+        this.jobName = jobName;
+        this.metrics = metrics;
+        this.activeThreads = activeThreads;
+        this.peakActiveThreads = peakActiveThreads;
+        var contextMetrics = metricsOf("context");
+        this.context = job -> {
+            var submittedAt = System.nanoTime();
+            delegate.getContext().execute(() -> run(job, contextMetrics, submittedAt));
+        };
+    }
+
+    /**
+     * Returns a view of this engine which labels its jobs with the given name.
+     * The view shares the delegate and the metrics with this engine.
+     * @param name of the jobs.
+     * @return the named view.
+     */
+    public InstrumentedEngine withJobName(final String name) {
+        return new InstrumentedEngine(delegate, name, metrics, activeThreads, peakActiveThreads);
+    }
+
+    @Override
+    public CompletableFuture<Void> schedule(final Runnable job, final long repeatEvery) {
+        var jobMetrics = metricsOf("schedule");
+        var delayInNanos = TimeUnit.MILLISECONDS.toNanos(repeatEvery);
+        var lastEnd = new AtomicLong(System.nanoTime() - delayInNanos);
+        return delegate.schedule(() -> {
+            jobMetrics.getJitter().record(System.nanoTime() - lastEnd.get() - delayInNanos);
+            try {
+                run(job, jobMetrics, System.nanoTime());
+            } finally {
+                lastEnd.set(System.nanoTime());
+            }
+        }, repeatEvery);
+    }
+
+    @Override
+    public CompletableFuture<Void> scheduleAtFixedRate(final Consumer<Tick> job, final long periodInMillis,
+                                                       final MissedTickPolicy policy) {
+        var jobMetrics = metricsOf("scheduleAtFixedRate");
+        var periodInNanos = TimeUnit.MILLISECONDS.toNanos(periodInMillis);
+        var previousIndex = new AtomicLong(-1);
+        var previousStart = new AtomicLong();
+        return delegate.scheduleAtFixedRate(tick -> {
+            var start = System.nanoTime();
+            // ticks never overlap: the spacing is measured against the previous tick, skipped ticks included
+            if (previousIndex.get() >= 0) {
+                var expectedSpacing = (tick.getIndex() - previousIndex.get()) * periodInNanos;
+                jobMetrics.getJitter().record(Math.abs(start - previousStart.get() - expectedSpacing));
+            }
+            previousIndex.set(tick.getIndex());
+            previousStart.set(start);
+            // a tick is submitted at its deadline, so it waits for as long as it is late
+            run(() -> job.accept(tick), jobMetrics, start - tick.getLatenessInNanos());
+            if (System.nanoTime() - start > periodInNanos) {
+                jobMetrics.recordOverrun();
+            }
+        }, periodInMillis, policy);
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(final Runnable job) {
+        var jobMetrics = metricsOf("submit");
+        var submittedAt = System.nanoTime();
+        return delegate.submit(() -> run(job, jobMetrics, submittedAt));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submitAndRepeat(final Function<CompletableFuture<T>, CompletableFuture<T>> job,
+                                                    final CompletableFuture<T> accumulator, final int repetitions,
+                                                    final long delayInMillis, final Consumer<T> onPartial) {
+        var jobMetrics = metricsOf("submitAndRepeat");
+        var delayInNanos = TimeUnit.MILLISECONDS.toNanos(delayInMillis);
+        var lastEnd = new AtomicLong(System.nanoTime() - delayInNanos);
+        return delegate.submitAndRepeat(acc -> {
+            var start = System.nanoTime();
+            jobMetrics.getJitter().record(start - lastEnd.get() - delayInNanos);
+            enter();
+            try {
+                return job.apply(acc).whenComplete((v, t) -> {
+                    var end = System.nanoTime();
+                    jobMetrics.getExecution().record(end - start);
+                    lastEnd.set(end);
+                });
+            } finally {
+                exit();
+            }
+        }, accumulator, repetitions, delayInMillis, onPartial);
+    }
+
+    /**
+     * An executor which records the metrics of the jobs submitted to the delegate context.
+     * @return the instrumented context.
+     */
+    @Override
+    public Executor getContext() {
+        return context;
+    }
+
+    /**
+     * Number of instrumented jobs running right now, that is the number of busy threads.
+     * @return the number of active threads.
+     */
+    public int getActiveThreads() {
+        return activeThreads.get();
+    }
+
+    /**
+     * The metrics of a job.
+     * @param name is the complete name of the job, e.g. "nfc.submit".
+     * @return the metrics or null if no job with the given name has run.
+     */
+    public JobMetrics getJobMetrics(final String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * Summarizes the metrics of every job, it can be used to log or export them periodically.
+     * @return the {@link Snapshot}.
+     */
+    public Snapshot snapshot() {
+        var jobs = new TreeMap<String, JobMetrics.Snapshot>();
+        metrics.forEach((name, m) -> jobs.put(name, m.snapshot()));
+        return new Snapshot(activeThreads.get(), peakActiveThreads.get(), jobs);
+    }
+
+    private void run(final Runnable job, final JobMetrics jobMetrics, final long submittedAt) {
+        var start = System.nanoTime();
+        jobMetrics.getQueueWait().record(start - submittedAt);
+        enter();
+        try {
+            job.run();
+        } finally {
+            exit();
+            jobMetrics.getExecution().record(System.nanoTime() - start);
+        }
+    }
+
+    private void enter() {
+        peakActiveThreads.accumulateAndGet(activeThreads.incrementAndGet(), Math::max);
+    }
+
+    private void exit() {
+        activeThreads.decrementAndGet();
+    }
+
+    private JobMetrics metricsOf(final String operation) {
+        return metrics.computeIfAbsent(jobName + "." + operation, k -> new JobMetrics());
+    }
+
+    /**
+     * Decorates the engine.
+     * @param name of the jobs submitted directly to the returned engine.
+     * @param engine to be instrumented.
+     * @return the {@link InstrumentedEngine}.
+     */
+    public static InstrumentedEngine of(final String name, final Engine engine) {
+        return new InstrumentedEngine(engine, name, new ConcurrentHashMap<>(), new AtomicInteger(),
+                new AtomicInteger());
+    }
+
+    /**
+     * Immutable summary of the engine metrics.
+     */
+    public static class Snapshot {
+        private final int activeThreads;
+        private final int peakActiveThreads;
+        private final Map<String, JobMetrics.Snapshot> jobs;
+
+        private Snapshot(final int activeThreads, final int peakActiveThreads,
+                         final Map<String, JobMetrics.Snapshot> jobs) {
+            this.activeThreads = activeThreads;
+            this.peakActiveThreads = peakActiveThreads;
+            this.jobs = Collections.unmodifiableMap(jobs);
+        }
+
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        public int getPeakActiveThreads() {
+            return peakActiveThreads;
+        }
+
+        public Map<String, JobMetrics.Snapshot> getJobs() {
+            return jobs;
+        }
+
+        @Override
+        public String toString() {
+            return "EngineSnapshot{"
+                    + "activeThreads=" + activeThreads
+                    + ", peakActiveThreads=" + peakActiveThreads
+                    + ", jobs=" + jobs
+                    + '}';
+        }
+    }
+}
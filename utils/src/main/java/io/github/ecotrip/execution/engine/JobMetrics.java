@@ -0,0 +1,106 @@
+package io.github.ecotrip.execution.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.ecotrip.metrics.Histogram;
+import io.github.ecotrip.metrics.HistogramSnapshot;
+
+/**
+ * Metrics recorded by an {@link InstrumentedEngine} for the jobs sharing the same name.
+ * All the durations are in nanoseconds.
+ */
+public class JobMetrics {
+    private final Histogram queueWait = new Histogram();
+    private final Histogram execution = new Histogram();
+    private final Histogram jitter = new Histogram();
+    private final AtomicLong overruns = new AtomicLong();
+
+    /**
+     * Time between the submission of a job and the start of its execution.
+     * @return the histogram.
+     */
+    public Histogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Execution time of the jobs.
+     * @return the histogram.
+     */
+    public Histogram getExecution() {
+        return execution;
+    }
+
+    /**
+     * Variation of the spacing between two consecutive executions of a scheduled job with respect to the
+     * intended one: the delay for the jobs with a fixed delay, the tick spacing for the jobs with a fixed rate.
+     * The lateness of a fixed-rate tick is recorded by {@link #getQueueWait()}.
+     * @return the histogram.
+     */
+    public Histogram getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Number of periodic executions which lasted longer than their period.
+     * @return the number of overruns.
+     */
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    void recordOverrun() {
+        overruns.incrementAndGet();
+    }
+
+    /**
+     * Summarizes the metrics.
+     * @return the {@link Snapshot}.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(queueWait.snapshot(), execution.snapshot(), jitter.snapshot(), overruns.get());
+    }
+
+    /**
+     * Immutable summary of the {@link JobMetrics}.
+     */
+    public static class Snapshot {
+        private final HistogramSnapshot queueWait;
+        private final HistogramSnapshot execution;
+        private final HistogramSnapshot jitter;
+        private final long overruns;
+
+        private Snapshot(final HistogramSnapshot queueWait, final HistogramSnapshot execution,
+                         final HistogramSnapshot jitter, final long overruns) {
+            this.queueWait = queueWait;
+            this.execution = execution;
+            this.jitter = jitter;
+            this.overruns = overruns;
+        }
+
+        public HistogramSnapshot getQueueWait() {
+            return queueWait;
+        }
+
+        public HistogramSnapshot getExecution() {
+            return execution;
+        }
+
+        public HistogramSnapshot getJitter() {
+            return jitter;
+        }
+
+        public long getOverruns() {
+            return overruns;
+        }
+
+        @Override
+        public String toString() {
+            return "{queueWait=" + queueWait
+                    + ", execution=" + execution
+                    + ", jitter=" + jitter
+                    + ", overruns=" + overruns
+                    + '}';
+        }
+    }
+}
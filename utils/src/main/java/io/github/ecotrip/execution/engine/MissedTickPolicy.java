@@ -0,0 +1,15 @@
+package io.github.ecotrip.execution.engine;
+
+/**
+ * Tells a fixed-rate schedule what to do with the ticks missed because a job took longer than the period.
+ */
+public enum MissedTickPolicy {
+    /**
+     * Every missed tick is executed as soon as possible, one after the other, until the schedule is back on time.
+     */
+    CATCH_UP,
+    /**
+     * Missed ticks are dropped, the next execution happens at the first boundary still in the future.
+     */
+    SKIP
+}
@@ -0,0 +1,115 @@
+package io.github.ecotrip.execution.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Applies a job to an accumulator a fixed number of times, waiting a delay between two repetitions.
+ * Every repetition is dispatched to the worker (through the timer when there is a delay), so neither the stack
+ * nor the future chain grow with the number of repetitions.
+ * @param <T> type of the accumulated value.
+ */
+class RepeatingJob<T> {
+    private final ScheduledExecutorService timer;
+    private final Executor worker;
+    private final Function<CompletableFuture<T>, CompletableFuture<T>> job;
+    private final int repetitions;
+    private final long delayInMillis;
+    private final Consumer<T> onPartial;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private volatile ScheduledFuture<?> pending;
+
+    RepeatingJob(final ScheduledExecutorService timer, final Executor worker,
+                 final Function<CompletableFuture<T>, CompletableFuture<T>> job, final int repetitions,
+                 final long delayInMillis, final Consumer<T> onPartial) {
+        this.timer = timer;
+        this.worker = worker;
+        this.job = job;
+        this.repetitions = repetitions;
+        this.delayInMillis = delayInMillis;
+        this.onPartial = onPartial;
+    }
+
+    /**
+     * Starts the repetitions as soon as the initial accumulator is available.
+     * @param accumulator is the initial value.
+     * @return the final accumulator. Cancelling it stops the remaining repetitions.
+     */
+    CompletableFuture<T> start(final CompletableFuture<T> accumulator) {
+        result.whenComplete((v, t) -> {
+            var next = pending;
+            if (next != null) {
+                next.cancel(false);
+            }
+        });
+        accumulator.whenComplete((v, t) -> {
+            if (t != null) {
+                result.completeExceptionally(t);
+            } else if (repetitions <= 0) {
+                result.complete(v);
+            } else {
+                dispatch(v, repetitions);
+            }
+        });
+        return result;
+    }
+
+    private void repeat(final T value, final int remaining) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<T> partial;
+        try {
+            partial = job.apply(CompletableFuture.completedFuture(value));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        partial.whenComplete((v, t) -> {
+            if (t != null) {
+                result.completeExceptionally(t);
+                return;
+            }
+            try {
+                onPartial.accept(v);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (remaining == 1) {
+                result.complete(v);
+            } else {
+                scheduleNext(v, remaining - 1);
+            }
+        });
+    }
+
+    private void scheduleNext(final T value, final int remaining) {
+        if (result.isDone()) {
+            return;
+        }
+        if (delayInMillis <= 0) {
+            dispatch(value, remaining);
+            return;
+        }
+        pending = timer.schedule(() -> dispatch(value, remaining),
+                delayInMillis, TimeUnit.MILLISECONDS);
+        if (result.isDone()) {
+            pending.cancel(false);
+        }
+    }
+
+    private void dispatch(final T value, final int remaining) {
+        try {
+            worker.execute(() -> repeat(value, remaining));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
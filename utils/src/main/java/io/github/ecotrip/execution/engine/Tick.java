@@ -0,0 +1,74 @@
+package io.github.ecotrip.execution.engine;
+
+/**
+ * Describes a single execution of a fixed-rate schedule.
+ */
+public class Tick {
+    private final long index;
+    private final long scheduledTimeInMillis;
+    private final long latenessInNanos;
+    private final long skippedTicks;
+
+    private Tick(final long index, final long scheduledTimeInMillis, final long latenessInNanos,
+                 final long skippedTicks) {
+        this.index = index;
+        this.scheduledTimeInMillis = scheduledTimeInMillis;
+        this.latenessInNanos = latenessInNanos;
+        this.skippedTicks = skippedTicks;
+    }
+
+    /**
+     * Position of the tick inside the schedule, it keeps counting the skipped ticks.
+     * @return the index starting from 0.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Wall-clock instant the tick was intended for, always a multiple of the period.
+     * @return the epoch time in milliseconds.
+     */
+    public long getScheduledTimeInMillis() {
+        return scheduledTimeInMillis;
+    }
+
+    /**
+     * How late the job started with respect to its monotonic deadline.
+     * @return the lateness in nanoseconds, never negative.
+     */
+    public long getLatenessInNanos() {
+        return latenessInNanos;
+    }
+
+    /**
+     * Number of ticks dropped right before this one by {@link MissedTickPolicy#SKIP}.
+     * @return the number of skipped ticks.
+     */
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    @Override
+    public String toString() {
+        return "Tick{"
+                + "index=" + index
+                + ", scheduledTimeInMillis=" + scheduledTimeInMillis
+                + ", latenessInNanos=" + latenessInNanos
+                + ", skippedTicks=" + skippedTicks
+                + '}';
+    }
+
+    /**
+     * Factory method.
+     * @param index of the tick.
+     * @param scheduledTimeInMillis intended wall-clock time.
+     * @param latenessInNanos delay of the actual execution.
+     * @param skippedTicks dropped before this one.
+     * @return a new {@link Tick}.
+     */
+    public static Tick of(final long index, final long scheduledTimeInMillis, final long latenessInNanos,
+                          final long skippedTicks) {
+        return new Tick(index, scheduledTimeInMillis, latenessInNanos, skippedTicks);
+    }
+}
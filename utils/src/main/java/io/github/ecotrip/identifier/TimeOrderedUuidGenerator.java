@@ -0,0 +1,91 @@
+package io.github.ecotrip.identifier;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free generator of time-ordered UUIDs (version 7).
+ * The 48 most significant bits hold the Unix time in milliseconds, followed by a 12 bits sequence
+ * which orders the identifiers created in the same millisecond; the remaining 62 bits hold the stripe
+ * of the sequence and random bits.
+ * Each thread is bound to one of a few striped sequences, so concurrent threads do not contend on the same
+ * compare-and-set. Time and sequence of a stripe are advanced together, so the identifiers created by a thread
+ * are strictly increasing even when the clock goes back; when the sequence overflows the timestamp moves to
+ * the next millisecond. Identifiers created by different threads are ordered by millisecond only, and the
+ * stripe bits keep them unique. The random bits come from {@link ThreadLocalRandom}, the identifiers must not
+ * be used as secrets.
+ */
+public final class TimeOrderedUuidGenerator implements Supplier<UUID> {
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final int STRIPE_BITS = 6;
+    private static final int RANDOM_BITS = 62 - STRIPE_BITS;
+    private static final long RANDOM_MASK = (1L << RANDOM_BITS) - 1;
+    // one stripe every 8 longs, so that two stripes never share a cache line
+    private static final int STRIPE_PADDING = 8;
+    private static final AtomicInteger NEXT_THREAD_STRIPE = new AtomicInteger();
+    private static final ThreadLocal<Integer> THREAD_STRIPE =
+            ThreadLocal.withInitial(NEXT_THREAD_STRIPE::getAndIncrement);
+    private final LongSupplier clock;
+    private final int stripeMask;
+    private final AtomicLongArray lastTimeAndSequence;
+
+    private TimeOrderedUuidGenerator(final LongSupplier clock, final int stripes) {
+        this.clock = clock;
+        this.stripeMask = stripes - 1;
+        this.lastTimeAndSequence = new AtomicLongArray(stripes * STRIPE_PADDING);
+    }
+
+    @Override
+    public UUID get() {
+        var stripe = THREAD_STRIPE.get() & stripeMask;
+        var index = stripe * STRIPE_PADDING;
+        var now = clock.getAsLong() << SEQUENCE_BITS;
+        long last;
+        long timeAndSequence;
+        do {
+            last = lastTimeAndSequence.get(index);
+            timeAndSequence = Math.max(now, last + 1);
+        } while (!lastTimeAndSequence.compareAndSet(index, last, timeAndSequence));
+        var mostSignificantBits = (timeAndSequence >>> SEQUENCE_BITS) << 16
+                | VERSION
+                | timeAndSequence & SEQUENCE_MASK;
+        var leastSignificantBits = VARIANT
+                | (long) stripe << RANDOM_BITS
+                | ThreadLocalRandom.current().nextLong() & RANDOM_MASK;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Extracts the creation time from a time-ordered UUID.
+     * @param uuid created by this generator.
+     * @return the Unix time in milliseconds.
+     */
+    public static long getTimestampInMillis(final UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a time-ordered UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    public static TimeOrderedUuidGenerator create() {
+        return of(System::currentTimeMillis);
+    }
+
+    /**
+     * Factory method to create a {@link TimeOrderedUuidGenerator} instance.
+     * @param clock returns the current Unix time in milliseconds.
+     * @return the generator.
+     */
+    public static TimeOrderedUuidGenerator of(final LongSupplier clock) {
+        var processors = Runtime.getRuntime().availableProcessors();
+        var stripes = Math.min(1 << STRIPE_BITS, Integer.highestOneBit(Math.max(1, 2 * processors - 1)) << 1);
+        return new TimeOrderedUuidGenerator(clock, stripes);
+    }
+}
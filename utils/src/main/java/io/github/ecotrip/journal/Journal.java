@@ -0,0 +1,330 @@
+package io.github.ecotrip.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+
+import io.github.ecotrip.execution.Execution;
+
+/**
+ * Append-only log of binary records, stored in memory-mapped segment files of fixed size.
+ * Every record gets a sequence number, starting from 1, and is framed as
+ * {@code [length][CRC32C][sequence][payload]}, where the checksum covers the sequence and the payload.
+ * The records are read in order with {@link #next()} and acknowledged with {@link #ack(long)}: the segments
+ * whose records are all acknowledged are deleted, and the last acknowledged sequence is kept in a checkpoint
+ * file, so the delivery is at-least-once.
+ * Writes go to the page cache, {@link #sync()} flushes them to the storage. After a crash, or a power loss,
+ * the segments are scanned and the log is truncated at the first record which is incomplete, corrupted or out
+ * of sequence: only the records appended after the last sync can be lost.
+ * The journal is not thread-safe.
+ */
+public class Journal implements Closeable {
+    /**
+     * Default size of the segment files.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    private static final int CHECKPOINT_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int ZEROS_SIZE = 4096;
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final FileChannel checkpointChannel;
+    private final MappedByteBuffer checkpoint;
+    private final CRC32C crc = new CRC32C();
+    private long nextSequence;
+    private long acknowledged;
+    private Segment readSegment;
+    private int readPosition;
+
+    private Journal(final Path directory, final int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, CHECKPOINT_SIZE);
+        recover();
+    }
+
+    /**
+     * Appends a record at the end of the log, a new segment is created when the current one is full.
+     * @param payload of the record.
+     * @return the sequence number of the record.
+     * @throws IOException if the segment can not be created.
+     * @throws IllegalArgumentException if the record is bigger than a segment.
+     */
+    public long append(final byte[] payload) throws IOException {
+        if (payload.length > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes bigger than the segments");
+        }
+        var segment = getLast();
+        if (segment.writePosition + HEADER_SIZE + payload.length > segmentSize) {
+            segment.buffer.force();
+            segment = createSegment(nextSequence);
+        }
+        var sequence = nextSequence++;
+        var position = segment.writePosition;
+        segment.buffer.putLong(position + Integer.BYTES * 2, sequence);
+        segment.buffer.duplicate().position(position + HEADER_SIZE).put(payload);
+        segment.buffer.putInt(position + Integer.BYTES, checksum(segment.buffer, position, payload.length));
+        segment.buffer.putInt(position, payload.length);
+        segment.writePosition = position + HEADER_SIZE + payload.length;
+        segment.lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Reads the record following the last one read, starting from the oldest record not acknowledged.
+     * The records acknowledged in the meantime are skipped.
+     * @return the record, or null if all the records have been read.
+     */
+    public Record next() {
+        while (readSegment != null) {
+            skipAcknowledged();
+            if (readPosition < readSegment.writePosition) {
+                var length = readSegment.buffer.getInt(readPosition);
+                var sequence = readSegment.buffer.getLong(readPosition + Integer.BYTES * 2);
+                var payload = new byte[length];
+                readSegment.buffer.duplicate().position(readPosition + HEADER_SIZE).get(payload);
+                readPosition += HEADER_SIZE + length;
+                return new Record(sequence, payload);
+            }
+            var index = segments.indexOf(readSegment);
+            if (index == segments.size() - 1) {
+                return null;
+            }
+            readSegment = segments.get(index + 1);
+            readPosition = 0;
+        }
+        return null;
+    }
+
+    /**
+     * Moves the reading back to the oldest record not acknowledged, e.g. after a failed delivery.
+     */
+    public void rewind() {
+        readSegment = segments.get(0);
+        readPosition = 0;
+        skipAcknowledged();
+    }
+
+    /**
+     * Acknowledges all the records up to the given sequence, deleting the segments which are no longer needed.
+     * @param sequence of the last delivered record.
+     * @throws IOException if a segment can not be deleted.
+     */
+    public void ack(final long sequence) throws IOException {
+        if (sequence <= acknowledged) {
+            return;
+        }
+        acknowledged = Math.min(sequence, nextSequence - 1);
+        checkpoint.putLong(0, acknowledged);
+        checkpoint.putInt(Long.BYTES, checksum(acknowledged));
+        while (segments.size() > 1 && segments.get(0).lastSequence <= acknowledged) {
+            var segment = segments.remove(0);
+            if (segment == readSegment) {
+                readSegment = segments.get(0);
+                readPosition = 0;
+            }
+            segment.channel.close();
+            Files.delete(segment.path);
+        }
+    }
+
+    /**
+     * Flushes the appended records and the checkpoint to the storage.
+     */
+    public void sync() {
+        getLast().buffer.force();
+        checkpoint.force();
+    }
+
+    public long getAcknowledged() {
+        return acknowledged;
+    }
+
+    public long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Number of records appended and not acknowledged yet.
+     * @return the number of records.
+     */
+    public long getPendingCount() {
+        return nextSequence - 1 - acknowledged;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+        checkpointChannel.close();
+    }
+
+    private void recover() throws IOException {
+        acknowledged = checkpoint.getInt(Long.BYTES) == checksum(checkpoint.getLong(0)) ? checkpoint.getLong(0) : 0;
+        List<Path> paths;
+        try (var files = Files.list(directory)) {
+            paths = files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            var segment = openSegment(path);
+            if (segment.lastSequence <= acknowledged && !path.equals(paths.get(paths.size() - 1))) {
+                segment.channel.close();
+                Files.delete(path);
+            } else {
+                segments.add(segment);
+            }
+        }
+        nextSequence = Math.max(acknowledged, segments.isEmpty() ? 0 : getLast().lastSequence) + 1;
+        if (segments.isEmpty() || getLast().lastSequence + 1 != nextSequence) {
+            createSegment(nextSequence);
+        }
+        rewind();
+    }
+
+    private Segment openSegment(final Path path) throws IOException {
+        var name = path.getFileName().toString();
+        var firstSequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        var segment = new Segment(path, channel, buffer, firstSequence);
+        var position = 0;
+        var expected = firstSequence;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            var length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()
+                    || buffer.getLong(position + Integer.BYTES * 2) != expected
+                    || buffer.getInt(position + Integer.BYTES) != checksum(buffer, position, length)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+            segment.lastSequence = expected++;
+        }
+        if (position + HEADER_SIZE <= buffer.capacity() && buffer.getInt(position) != 0) {
+            Execution.logsInfo("Journal " + name + " truncated after sequence " + segment.lastSequence);
+        }
+        segment.writePosition = position;
+        // stale records after the truncation point must not be mistaken for new ones
+        var zeros = new byte[ZEROS_SIZE];
+        var tail = buffer.duplicate().position(position);
+        while (tail.hasRemaining()) {
+            tail.put(zeros, 0, Math.min(ZEROS_SIZE, tail.remaining()));
+        }
+        return segment;
+    }
+
+    private Segment createSegment(final long firstSequence) throws IOException {
+        var path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        var segment = new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize),
+                firstSequence);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void skipAcknowledged() {
+        while (readSegment != null && readPosition < readSegment.writePosition
+                && readSegment.buffer.getLong(readPosition + Integer.BYTES * 2) <= acknowledged) {
+            readPosition += HEADER_SIZE + readSegment.buffer.getInt(readPosition);
+        }
+    }
+
+    private Segment getLast() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private int checksum(final ByteBuffer buffer, final int position, final int length) {
+        crc.reset();
+        crc.update(buffer.duplicate().position(position + Integer.BYTES * 2).limit(position + HEADER_SIZE + length));
+        return (int) crc.getValue();
+    }
+
+    private int checksum(final long value) {
+        crc.reset();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, value));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Opens the journal stored in the given directory, recovering its records, or creates a new one.
+     * @param directory where the segments are stored.
+     * @return the journal.
+     * @throws IOException if the directory can not be read or written.
+     */
+    public static Journal open(final Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the journal stored in the given directory, recovering its records, or creates a new one.
+     * @param directory where the segments are stored.
+     * @param segmentSize is the size of the new segment files.
+     * @return the journal.
+     * @throws IOException if the directory can not be read or written.
+     */
+    public static Journal open(final Path directory, final int segmentSize) throws IOException {
+        return new Journal(directory, segmentSize);
+    }
+
+    /**
+     * A record read from the journal.
+     */
+    public static class Record {
+        private final long sequence;
+        private final byte[] payload;
+
+        private Record(final long sequence, final byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    private static class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long firstSequence;
+        private long lastSequence;
+        private int writePosition;
+
+        Segment(final Path path, final FileChannel channel, final MappedByteBuffer buffer,
+                final long firstSequence) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.firstSequence = firstSequence;
+            this.lastSequence = firstSequence - 1;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.ecotrip.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative long values (e.g. durations in nanoseconds).
+ * Values are grouped in power-of-two buckets, so percentiles are approximated by the upper bound of their bucket,
+ * that is with an error lower than 2x. Recording never allocates and never blocks.
+ */
+public class Histogram {
+    private static final int BUCKETS = Long.SIZE;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value, negative values are recorded as 0.
+     * @param value to be recorded.
+     */
+    public void record(final long value) {
+        var positive = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(positive));
+        count.incrementAndGet();
+        sum.addAndGet(positive);
+        max.accumulateAndGet(positive, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Arithmetic mean of the recorded values.
+     * @return the mean or 0 if nothing has been recorded.
+     */
+    public double getMean() {
+        var n = count.get();
+        return n == 0 ? 0 : sum.get() / (double) n;
+    }
+
+    /**
+     * Approximates the value below which the given percentage of the recorded values falls.
+     * @param percentile between 0 and 100.
+     * @return the upper bound of the bucket containing the percentile, capped to the maximum recorded value.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        var n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        var rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Summarizes the recorded values, e.g. to log or export them.
+     * @return the {@link HistogramSnapshot}.
+     */
+    public HistogramSnapshot snapshot() {
+        return HistogramSnapshot.of(this);
+    }
+
+    /**
+     * Clears the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{"
+                + "count=" + getCount()
+                + ", mean=" + getMean()
+                + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99)
+                + ", max=" + getMax()
+                + '}';
+    }
+
+    private static int bucketOf(final long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long upperBoundOf(final int bucket) {
+        return bucket == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
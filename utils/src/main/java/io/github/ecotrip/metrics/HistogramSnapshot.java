@@ -0,0 +1,68 @@
+package io.github.ecotrip.metrics;
+
+/**
+ * Immutable summary of a {@link Histogram} at a given time.
+ */
+public class HistogramSnapshot {
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    private HistogramSnapshot(final long count, final double mean, final long p50, final long p90, final long p99,
+                              final long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "{count=" + count
+                + ", mean=" + Math.round(mean)
+                + ", p50=" + p50
+                + ", p90=" + p90
+                + ", p99=" + p99
+                + ", max=" + max
+                + '}';
+    }
+
+    /**
+     * Summarizes the histogram, the values recorded meanwhile may be partially included.
+     * @param histogram to be summarized.
+     * @return the {@link HistogramSnapshot}.
+     */
+    public static HistogramSnapshot of(final Histogram histogram) {
+        return new HistogramSnapshot(histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99), histogram.getMax());
+    }
+}
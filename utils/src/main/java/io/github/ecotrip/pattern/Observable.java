@@ -1,24 +1,135 @@
 package io.github.ecotrip.pattern;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Observable pattern
+ * Observable pattern.
+ * It is thread-safe: observers can be added or removed while notifying and the notification does not lock.
+ * Each observer can be notified on the caller's thread or through its own {@link Executor}, in the latter case
+ * the values are delivered one at a time and in order.
  * @param <T> observer type.
  */
 public class Observable<T> {
-    private final Set<Observer<T>> observers;
+    private final List<Subscription<T>> subscriptions;
 
     public Observable() {
-        this.observers = new HashSet<>();
+        this.subscriptions = new CopyOnWriteArrayList<>();
     }
 
+    /**
+     * Adds an observer notified synchronously on the thread which calls {@link #notifyObservers(Object)}.
+     * @param observer to be added, if already present nothing changes.
+     */
     public void addObserver(Observer<T> observer) {
-        observers.add(observer);
+        add(new Subscription<>(observer, null, false));
+    }
+
+    /**
+     * Adds an observer notified through the given executor, so the notifying thread never runs its logic.
+     * @param observer to be added, if already present nothing changes.
+     * @param executor where the observer is notified.
+     */
+    public void addObserver(final Observer<T> observer, final Executor executor) {
+        add(new Subscription<>(observer, executor, false));
+    }
+
+    /**
+     * Adds an observer notified through the given executor, which only receives the latest value:
+     * the values notified while the observer is busy or waiting for the executor replace each other.
+     * @param observer to be added, if already present nothing changes.
+     * @param executor where the observer is notified.
+     */
+    public void addCoalescingObserver(final Observer<T> observer, final Executor executor) {
+        add(new Subscription<>(observer, executor, true));
+    }
+
+    /**
+     * Removes the observer, values already dispatched to its executor may still be delivered.
+     * @param observer to be removed.
+     */
+    public void removeObserver(final Observer<T> observer) {
+        subscriptions.removeIf(s -> s.observer.equals(observer));
     }
 
     public void notifyObservers(final T value) {
-        observers.forEach(o -> o.notify(value));
+        subscriptions.forEach(s -> s.offer(value));
+    }
+
+    private synchronized void add(final Subscription<T> subscription) {
+        if (subscriptions.stream().noneMatch(s -> s.observer.equals(subscription.observer))) {
+            subscriptions.add(subscription);
+        }
+    }
+
+    /**
+     * Delivers the values to an observer. A synchronous observer is called directly by the notifying thread,
+     * otherwise at most one drain is running on the executor at any time.
+     * Null values are wrapped into a sentinel, since null marks an empty slot.
+     */
+    private static class Subscription<T> {
+        private static final Object NULL = new Object();
+        private final Observer<T> observer;
+        private final Executor executor;
+        private final boolean coalescing;
+        private final AtomicReference<Object> latest = new AtomicReference<>();
+        private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(final Observer<T> observer, final Executor executor, final boolean coalescing) {
+            this.observer = observer;
+            this.executor = executor;
+            this.coalescing = coalescing;
+        }
+
+        void offer(final T value) {
+            if (executor == null) {
+                observer.notify(value);
+                return;
+            }
+            var wrapped = value == null ? NULL : value;
+            if (coalescing) {
+                latest.set(wrapped);
+            } else {
+                pending.add(wrapped);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            try {
+                var next = poll();
+                while (next != null) {
+                    observer.notify(next == NULL ? null : (T) next);
+                    next = poll();
+                }
+            } finally {
+                draining.set(false);
+                // the values queued behind a failed notification are not left pending until the next one
+                if (hasPending()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private Object poll() {
+            return coalescing ? latest.getAndSet(null) : pending.poll();
+        }
+
+        private boolean hasPending() {
+            return coalescing ? latest.get() != null : !pending.isEmpty();
+        }
     }
 }
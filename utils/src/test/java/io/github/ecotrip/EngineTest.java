@@ -1,23 +1,33 @@
 package io.github.ecotrip;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
 import io.github.ecotrip.execution.Execution;
 import io.github.ecotrip.execution.engine.EngineFactory;
+import io.github.ecotrip.execution.engine.MissedTickPolicy;
+import io.github.ecotrip.execution.engine.Tick;
 
 
 public class EngineTest {
     @Test
     public void testSingleThreadEngine() {
         var engine = EngineFactory.createScheduledEngine(1);
-        var fut1 = engine.submit(() -> Execution.delayMicroseconds(Execution.SECOND_IN_MICRO));
-        assertTrue(Execution.getComputationalTimeInMillis(fut1::join) >= Execution.SECOND_IN_MILLIS);
+        Runnable delayed = () -> engine.submit(() -> Execution.delayMicroseconds(Execution.SECOND_IN_MICRO)).join();
+        assertTrue(Execution.getComputationalTimeInMillis(delayed) >= Execution.SECOND_IN_MILLIS);
         var counter = new AtomicInteger(0);
         var counting = engine.schedule(counter::incrementAndGet, 100);
         Execution.safeSleep(500);
@@ -29,4 +39,179 @@ public class EngineTest {
                 CompletableFuture.supplyAsync(futureCounter::incrementAndGet), Integer::sum), count, 5, 0);
         assertEquals(finalCount.join(), 15);
     }
+
+    @Test
+    public void testBlockingIoEngine() throws InterruptedException {
+        var engine = EngineFactory.createBlockingIoEngine(2, 1);
+        var release = new CountDownLatch(1);
+        var running = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            engine.submit(() -> {
+                running.countDown();
+                awaitQuietly(release);
+            });
+        }
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+        var queued = engine.submit(() -> { });
+        // pool and queue are full: the job is rejected and never executed by the caller
+        var executed = new AtomicInteger(0);
+        var rejected = engine.submit(executed::incrementAndGet);
+        var error = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(error.getCause() instanceof RejectedExecutionException);
+        assertThrows(RejectedExecutionException.class, () -> engine.getContext().execute(executed::incrementAndGet));
+        var repeated = engine.submitAndRepeat(c -> c, CompletableFuture.completedFuture(0), 1, 0, v -> { });
+        assertThrows(CompletionException.class, repeated::join);
+        release.countDown();
+        queued.join();
+        assertEquals(0, executed.get());
+    }
+
+    @Test
+    public void testVirtualThreadEngine() {
+        if (!EngineFactory.isVirtualThreadSupported()) {
+            assertThrows(UnsupportedOperationException.class, EngineFactory::createVirtualThreadEngine);
+            return;
+        }
+        var engine = EngineFactory.createVirtualThreadEngine();
+        var counter = new AtomicInteger(0);
+        var jobs = new CompletableFuture<?>[100];
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i] = engine.submit(() -> {
+                Execution.safeSleep(100);
+                counter.incrementAndGet();
+            });
+        }
+        assertTrue(Execution.getComputationalTimeInMillis(() -> CompletableFuture.allOf(jobs).join())
+                < Execution.SECOND_IN_MILLIS);
+        assertEquals(jobs.length, counter.get());
+    }
+
+    @Test
+    public void testFixedRateTicksAreAlignedToWallClock() {
+        var engine = EngineFactory.createScheduledEngine(1);
+        var ticks = new CopyOnWriteArrayList<Tick>();
+        var period = 100;
+        var handle = engine.scheduleAtFixedRate(ticks::add, period, MissedTickPolicy.CATCH_UP);
+        Execution.safeSleep(period * 5);
+        handle.cancel(false);
+        assertTrue(ticks.size() >= 3);
+        for (int i = 0; i < ticks.size(); i++) {
+            var tick = ticks.get(i);
+            assertEquals(i, tick.getIndex());
+            assertEquals(0, tick.getScheduledTimeInMillis() % period);
+            assertEquals(ticks.get(0).getScheduledTimeInMillis() + (long) i * period, tick.getScheduledTimeInMillis());
+        }
+        var stoppedAt = ticks.size();
+        Execution.safeSleep(period * 2);
+        assertTrue(ticks.size() <= stoppedAt + 1);
+    }
+
+    @Test
+    public void testFixedRateMissedTickPolicies() {
+        var period = 50;
+        var skipped = collectTicksWithOverrun(MissedTickPolicy.SKIP, period);
+        assertTrue(skipped.get(1).getSkippedTicks() > 0);
+        assertEquals(skipped.get(1).getIndex(), 1 + skipped.get(1).getSkippedTicks());
+        assertTrue(skipped.get(1).getLatenessInNanos() < TimeUnit.MILLISECONDS.toNanos(period));
+
+        var caughtUp = collectTicksWithOverrun(MissedTickPolicy.CATCH_UP, period);
+        assertEquals(1, caughtUp.get(1).getIndex());
+        assertEquals(0, caughtUp.get(1).getSkippedTicks());
+        assertTrue(caughtUp.get(1).getLatenessInNanos() >= TimeUnit.MILLISECONDS.toNanos(period));
+    }
+
+    @Test
+    public void testScheduleDoesNotBlockThreads() {
+        var engine = EngineFactory.createScheduledEngine(1);
+        var counter = new AtomicInteger(0);
+        var handles = new CompletableFuture<?>[50];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = engine.schedule(counter::incrementAndGet, 10);
+        }
+        Execution.safeSleep(100);
+        assertTrue(counter.get() >= handles.length);
+        var failing = engine.schedule(() -> {
+            throw new IllegalStateException();
+        }, 10);
+        assertTrue(failing.handle((u, t) -> t != null).join());
+        for (var handle : handles) {
+            handle.complete(null);
+        }
+    }
+
+    @Test
+    public void testSubmitAndRepeatWithDelay() {
+        var engine = EngineFactory.createScheduledEngine(1);
+        var partials = new CopyOnWriteArrayList<Integer>();
+        var delay = 50;
+        var repetitions = 5;
+        var result = new AtomicInteger();
+        var elapsed = Execution.getComputationalTimeInMillis(() -> result.set(engine.submitAndRepeat(
+                c -> c.thenApply(v -> v + 1), CompletableFuture.completedFuture(0), repetitions, delay,
+                partials::add).join()));
+        assertEquals(repetitions, result.get());
+        assertEquals(List.of(1, 2, 3, 4, 5), partials);
+        assertTrue(elapsed >= delay * (repetitions - 1));
+    }
+
+    @Test
+    public void testSubmitAndRepeatIsStackSafe() {
+        var engine = EngineFactory.createScheduledEngine(1);
+        var repetitions = 100000;
+        var result = engine.submitAndRepeat(c -> c.thenApply(v -> v + 1), CompletableFuture.completedFuture(0),
+                repetitions, 0, v -> { });
+        assertEquals(repetitions, result.join());
+    }
+
+    @Test
+    public void testSubmitAndRepeatCancellation() {
+        var engine = EngineFactory.createScheduledEngine(1);
+        var counter = new AtomicInteger();
+        var result = engine.submitAndRepeat(c -> c.thenApply(v -> counter.incrementAndGet()),
+                CompletableFuture.completedFuture(0), 100, 20, v -> { });
+        Execution.safeSleep(100);
+        result.cancel(false);
+        var stoppedAt = counter.get();
+        Execution.safeSleep(100);
+        assertTrue(stoppedAt < 100);
+        assertTrue(counter.get() <= stoppedAt + 1);
+    }
+
+    @Test
+    public void testSubmitAndRepeatFailingOnPartial() {
+        var engine = EngineFactory.createScheduledEngine(1);
+        var counter = new AtomicInteger();
+        var error = new IllegalStateException("partial");
+        var result = engine.submitAndRepeat(c -> c.thenApply(v -> counter.incrementAndGet()),
+                CompletableFuture.completedFuture(0), 5, 0, v -> {
+                    throw error;
+                });
+        var thrown = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertEquals(error, thrown.getCause());
+        assertEquals(1, counter.get());
+    }
+
+    private static List<Tick> collectTicksWithOverrun(final MissedTickPolicy policy, final int period) {
+        var engine = EngineFactory.createScheduledEngine(1);
+        var ticks = new CopyOnWriteArrayList<Tick>();
+        var done = new CountDownLatch(2);
+        var handle = engine.scheduleAtFixedRate(tick -> {
+            ticks.add(tick);
+            if (ticks.size() == 1) {
+                Execution.safeSleep(period * 3L + period / 2);
+            }
+            done.countDown();
+        }, period, policy);
+        awaitQuietly(done);
+        handle.cancel(false);
+        return ticks;
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
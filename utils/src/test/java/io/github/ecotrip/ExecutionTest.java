@@ -1,17 +1,21 @@
 package io.github.ecotrip;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 
 import io.github.ecotrip.execution.Execution;
 import io.github.ecotrip.execution.Futures;
+import io.github.ecotrip.execution.PartialResults;
+import io.github.ecotrip.execution.PreciseDelay;
 
 public class ExecutionTest {
     @Test
@@ -44,6 +48,24 @@ public class ExecutionTest {
         assertTrue(time1 >= Execution.SECOND_IN_MILLIS);
     }
 
+    @Test
+    public void testPreciseDelay() {
+        var exact = PreciseDelay.of(0);
+        var tolerant = PreciseDelay.of(Execution.SECOND_IN_MICRO);
+        for (int i = 0; i < 20; i++) {
+            var start = System.nanoTime();
+            exact.delayMicroseconds(800);
+            assertTrue(System.nanoTime() - start >= 800000);
+            start = System.nanoTime();
+            tolerant.delayMicroseconds(800);
+            assertTrue(System.nanoTime() - start >= 800000);
+        }
+        assertEquals(20, exact.getOvershoot().getCount());
+        assertEquals(20, tolerant.getOvershoot().getCount());
+        assertTrue(exact.getParkLatencyInNanos() > 0);
+        assertTrue(tolerant.getOvershoot().getMax() < Execution.SECOND_IN_MILLIS * 1000000L);
+    }
+
     @Test
     public void testFuturesOps() {
         var fut1 = CompletableFuture.completedFuture(5);
@@ -54,4 +76,34 @@ public class ExecutionTest {
         assertTrue(sum.isPresent());
         assertEquals(7, sum.get());
     }
+
+    @Test
+    public void testAllWithinSingleDeadline() {
+        var fast = CompletableFuture.completedFuture(1);
+        var failing = CompletableFuture.<Integer>failedFuture(new IllegalStateException());
+        var slow1 = new CompletableFuture<Integer>();
+        var slow2 = new CompletableFuture<Integer>();
+        var timeout = 200;
+        var results = new AtomicReference<PartialResults<Integer>>();
+        var elapsed = Execution.getComputationalTimeInMillis(() ->
+                results.set(Futures.allWithin(List.of(fast, slow1, failing, slow2), timeout).join()));
+        assertTrue(elapsed >= timeout);
+        assertTrue(elapsed < timeout * 2);
+        assertEquals(List.of(1), results.get().getResults());
+        assertEquals(List.of(1, 3), results.get().getTimedOut());
+        assertEquals(List.of(2), results.get().getFailed());
+        assertFalse(results.get().isComplete());
+        assertTrue(slow1.isCancelled());
+        assertTrue(slow2.isCancelled());
+    }
+
+    @Test
+    public void testAllWithinCompletesEarly() {
+        var fut1 = CompletableFuture.supplyAsync(() -> 1);
+        var fut2 = CompletableFuture.supplyAsync(() -> 2);
+        var elapsed = Execution.getComputationalTimeInMillis(() ->
+                assertTrue(Futures.allWithin(List.of(fut1, fut2), Execution.SECOND_IN_MILLIS * 10).join()
+                        .isComplete()));
+        assertTrue(elapsed < Execution.SECOND_IN_MILLIS);
+    }
 }
@@ -0,0 +1,41 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.metrics.Histogram;
+
+public class HistogramTest {
+    @Test
+    public void testPercentiles() {
+        var histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        IntStream.rangeClosed(1, 1000).forEach(histogram::record);
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean());
+        var median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500 && median < 1000);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+        histogram.record(-5);
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void testConcurrentRecording() {
+        var histogram = new Histogram();
+        var writers = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> IntStream.range(0, 10000).forEach(histogram::record)))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(writers).join();
+        assertEquals(40000, histogram.getCount());
+        assertEquals(9999, histogram.getMax());
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.execution.Execution;
+import io.github.ecotrip.execution.engine.EngineFactory;
+import io.github.ecotrip.execution.engine.InstrumentedEngine;
+import io.github.ecotrip.execution.engine.MissedTickPolicy;
+
+public class InstrumentedEngineTest {
+    @Test
+    public void testJobMetrics() {
+        var engine = InstrumentedEngine.of("test", EngineFactory.createScheduledEngine(1));
+        var blocking = engine.withJobName("blocking").submit(() -> Execution.safeSleep(100));
+        var queued = engine.submit(() -> { });
+        CompletableFuture.allOf(blocking, queued).join();
+
+        var blockingMetrics = engine.getJobMetrics("blocking.submit");
+        assertEquals(1, blockingMetrics.getExecution().getCount());
+        assertTrue(blockingMetrics.getExecution().getMax() >= TimeUnit.MILLISECONDS.toNanos(100));
+        var queuedMetrics = engine.getJobMetrics("test.submit");
+        assertTrue(queuedMetrics.getQueueWait().getMax() >= TimeUnit.MILLISECONDS.toNanos(90));
+        assertNull(engine.getJobMetrics("test.schedule"));
+
+        var context = new CompletableFuture<Void>();
+        engine.getContext().execute(() -> context.complete(null));
+        context.join();
+        // the engine has a single thread: this job runs after the context job has exited
+        engine.submit(() -> { }).join();
+        assertTrue(engine.snapshot().getJobs().containsKey("test.context"));
+        assertEquals(1, engine.snapshot().getPeakActiveThreads());
+        assertEquals(0, engine.getActiveThreads());
+    }
+
+    @Test
+    public void testScheduledMetrics() throws InterruptedException {
+        var engine = InstrumentedEngine.of("test", EngineFactory.createScheduledEngine(1));
+        var period = 50;
+        var ticks = new CountDownLatch(4);
+        var handle = engine.scheduleAtFixedRate(t -> {
+            Execution.safeSleep(period + 10);
+            ticks.countDown();
+        }, period, MissedTickPolicy.CATCH_UP);
+        assertTrue(ticks.await(1, TimeUnit.SECONDS));
+        handle.cancel(false);
+        // the engine has a single thread: this job runs after the metrics of the last tick are recorded
+        engine.submit(() -> { }).join();
+        var metrics = engine.snapshot().getJobs().get("test.scheduleAtFixedRate");
+        assertTrue(metrics.getExecution().getCount() >= 4);
+        assertTrue(metrics.getOverruns() >= 4);
+        assertEquals(metrics.getExecution().getCount() - 1, metrics.getJitter().getCount());
+        // every overrun stretches the tick spacing by 10 milliseconds, and delays the following ticks by as much
+        assertTrue(metrics.getJitter().getMax() >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(metrics.getQueueWait().getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}
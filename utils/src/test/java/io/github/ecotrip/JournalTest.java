@@ -0,0 +1,114 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.ecotrip.journal.Journal;
+
+public class JournalTest {
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAppendAndRead() throws IOException {
+        try (var journal = Journal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 20; i++) {
+                assertEquals(i, journal.append(bytes("message-" + i)));
+            }
+            assertEquals(20, journal.getPendingCount());
+            assertEquals(3, journal.getSegmentCount());
+            for (int i = 1; i <= 20; i++) {
+                var record = journal.next();
+                assertEquals(i, record.getSequence());
+                assertArrayEquals(bytes("message-" + i), record.getPayload());
+            }
+            assertNull(journal.next());
+            journal.rewind();
+            assertEquals(1, journal.next().getSequence());
+            assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[SEGMENT_SIZE]));
+        }
+    }
+
+    @Test
+    public void testAckDeletesSegments() throws IOException {
+        try (var journal = Journal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append(bytes("message-" + i));
+            }
+            journal.ack(10);
+            assertEquals(10, journal.getPendingCount());
+            assertEquals(2, journal.getSegmentCount());
+            assertEquals(11, journal.next().getSequence());
+            journal.ack(20);
+            assertEquals(1, journal.getSegmentCount());
+            assertNull(journal.next());
+        }
+        assertEquals(1, listSegments().size());
+    }
+
+    @Test
+    public void testRecovery() throws IOException {
+        try (var journal = Journal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append(bytes("message-" + i));
+            }
+            journal.ack(5);
+        }
+        try (var journal = Journal.open(directory, SEGMENT_SIZE)) {
+            assertEquals(5, journal.getAcknowledged());
+            assertEquals(20, journal.getLastSequence());
+            assertEquals(6, journal.next().getSequence());
+            assertEquals(21, journal.append(bytes("message-21")));
+        }
+    }
+
+    @Test
+    public void testTruncatesCorruptedTail() throws IOException {
+        try (var journal = Journal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.append(bytes("message-" + i));
+            }
+        }
+        // flips a byte of the second record's payload, as a torn write would do
+        try (var channel = FileChannel.open(listSegments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), 16 + 9 + 16 + 2);
+        }
+        try (var journal = Journal.open(directory, SEGMENT_SIZE)) {
+            assertEquals(1, journal.getLastSequence());
+            assertEquals(2, journal.append(bytes("new-2")));
+            assertEquals(1, journal.next().getSequence());
+            assertArrayEquals(bytes("new-2"), journal.next().getPayload());
+            assertNull(journal.next());
+        }
+        try (var journal = Journal.open(directory, SEGMENT_SIZE)) {
+            assertEquals(2, journal.getLastSequence());
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(p -> p.toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
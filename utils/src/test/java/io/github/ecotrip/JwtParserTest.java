@@ -0,0 +1,63 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+public class JwtParserTest {
+    private static String createToken(final String payload) {
+        var encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + ".signature";
+    }
+
+    @Test
+    public void testClaims() {
+        var token = createToken("{\"nested\": {\"stayId\": \"wrong\", \"list\": [1, \"}\", {\"a\": null}]},"
+                + " \"stayId\": \"stay-\\\"1\\\"\\u00e8\", \"admin\": true, \"exp\": 1700000000, \"roomId\": \"101\"}");
+        var claims = JwtParser.getClaims(token);
+        assertEquals(JwtParser.getPayload(token).getString("stayId"), claims.getStayId());
+        assertEquals("stay-\"1\"è", claims.getStayId());
+        assertEquals("101", claims.getRoomId());
+        assertEquals(Instant.ofEpochSecond(1700000000), claims.getExpiration().orElseThrow());
+        assertTrue(claims.isExpired(Instant.ofEpochSecond(1700000000)));
+        assertFalse(claims.isExpired(Instant.ofEpochSecond(1699999999)));
+        assertSame(claims, JwtParser.getClaims(token));
+    }
+
+    @Test
+    public void testMissingClaims() {
+        var claims = JwtParser.getClaims(createToken("{}"));
+        assertNull(claims.getStayId());
+        assertNull(claims.getRoomId());
+        assertTrue(claims.getExpiration().isEmpty());
+        assertFalse(claims.isExpired(Instant.now()));
+        assertEquals(1700000000L, JwtParser.getClaims(createToken("{\"exp\":1.7e9}")).getExpiration()
+                .orElseThrow().getEpochSecond());
+    }
+
+    @Test
+    public void testTokenWithoutSignature() {
+        var token = createToken("{\"roomId\": \"102\"}");
+        var unsigned = token.substring(0, token.lastIndexOf('.'));
+        assertEquals("102", JwtParser.getPayload(unsigned).getString("roomId"));
+        assertEquals("102", JwtParser.getClaims(unsigned).getRoomId());
+    }
+
+    @Test
+    public void testInvalidToken() {
+        assertThrows(IllegalArgumentException.class, () -> JwtParser.getClaims("invalid"));
+        assertThrows(IllegalArgumentException.class, () -> JwtParser.getClaims(createToken("{\"stayId\": ")));
+        assertThrows(IllegalArgumentException.class, () -> JwtParser.getClaims(createToken("[]")));
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.pattern.Observable;
+import io.github.ecotrip.pattern.Observer;
+
+public class ObservableTest {
+    @Test
+    public void testSynchronousObserver() {
+        var observable = new Observable<Integer>();
+        var received = new ArrayList<Integer>();
+        Observer<Integer> observer = received::add;
+        observable.addObserver(observer);
+        observable.addObserver(observer);
+        observable.notifyObservers(1);
+        observable.notifyObservers(null);
+        assertEquals(2, received.size());
+        assertNull(received.get(1));
+        observable.removeObserver(observer);
+        observable.notifyObservers(2);
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    public void testAsyncObserverKeepsOrder() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(4);
+        var observable = new Observable<Integer>();
+        var received = new CopyOnWriteArrayList<Integer>();
+        var done = new CountDownLatch(1000);
+        observable.addObserver(v -> {
+            received.add(v);
+            done.countDown();
+        }, executor);
+        var expected = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            observable.notifyObservers(i);
+            expected.add(i);
+        }
+        // shutting down before the delivery ends would reject the rescheduled drains
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(expected, received);
+    }
+
+    @Test
+    public void testFailingAsyncObserver() throws InterruptedException {
+        var executor = Executors.newSingleThreadExecutor();
+        var observable = new Observable<Integer>();
+        var received = new CopyOnWriteArrayList<Integer>();
+        var done = new CountDownLatch(1);
+        // block the executor until the values are queued, so they are delivered by the same drain
+        var release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        observable.addObserver(v -> {
+            if (v == 1) {
+                throw new IllegalStateException("failed notification");
+            }
+            received.add(v);
+            if (v == 3) {
+                done.countDown();
+            }
+        }, executor);
+        observable.notifyObservers(1);
+        observable.notifyObservers(2);
+        observable.notifyObservers(3);
+        release.countDown();
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(List.of(2, 3), received);
+    }
+
+    @Test
+    public void testSynchronousObserverThread() throws InterruptedException {
+        var observable = new Observable<Integer>();
+        var threads = new ConcurrentHashMap<Integer, Thread>();
+        observable.addObserver(v -> threads.put(v, Thread.currentThread()));
+        var publisher = new Thread(() -> observable.notifyObservers(1));
+        publisher.start();
+        observable.notifyObservers(2);
+        publisher.join();
+        assertEquals(publisher, threads.get(1));
+        assertEquals(Thread.currentThread(), threads.get(2));
+    }
+
+    @Test
+    public void testCoalescingObserver() throws InterruptedException {
+        var executor = Executors.newSingleThreadExecutor();
+        var observable = new Observable<String>();
+        var received = new CopyOnWriteArrayList<String>();
+        var callerThread = Thread.currentThread();
+        var threads = new CopyOnWriteArrayList<Thread>();
+        observable.addCoalescingObserver(v -> {
+            threads.add(Thread.currentThread());
+            received.add(v);
+        }, executor);
+        // keep the executor busy so the burst is coalesced
+        executor.execute(() -> sleepQuietly(100));
+        for (int i = 0; i < 100; i++) {
+            observable.notifyObservers("token-" + i);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(List.of("token-99"), received);
+        assertTrue(threads.stream().noneMatch(callerThread::equals));
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.ecotrip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ecotrip.identifier.TimeOrderedUuidGenerator;
+
+public class TimeOrderedUuidGeneratorTest {
+    @Test
+    public void testLayout() {
+        var before = System.currentTimeMillis();
+        var uuid = TimeOrderedUuidGenerator.create().get();
+        var after = System.currentTimeMillis();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        var timestamp = TimeOrderedUuidGenerator.getTimestampInMillis(uuid);
+        assertTrue(timestamp >= before && timestamp <= after);
+        var randomUuid = UUID.randomUUID();
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedUuidGenerator.getTimestampInMillis(randomUuid));
+    }
+
+    @Test
+    public void testOrdering() {
+        var clock = new AtomicLong(1000);
+        var generator = TimeOrderedUuidGenerator.of(clock::get);
+        var previous = generator.get();
+        // the sequence overflows after 4096 identifiers in the same millisecond
+        for (int i = 0; i < 5000; i++) {
+            var next = generator.get();
+            assertTrue(previous.compareTo(next) < 0);
+            previous = next;
+        }
+        assertEquals(1001, TimeOrderedUuidGenerator.getTimestampInMillis(previous));
+        clock.set(500);
+        var afterClockMovedBack = generator.get();
+        assertTrue(previous.compareTo(afterClockMovedBack) < 0);
+        clock.set(2000);
+        assertEquals(2000, TimeOrderedUuidGenerator.getTimestampInMillis(generator.get()));
+    }
+
+    @Test
+    public void testConcurrentUniqueness() throws InterruptedException {
+        var generator = TimeOrderedUuidGenerator.create();
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        var threads = 4;
+        var perThread = 10000;
+        var executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.get());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    public void testPerThreadOrdering() throws InterruptedException {
+        // a frozen clock: the identifiers differ only by sequence and stripe
+        var generator = TimeOrderedUuidGenerator.of(() -> 1000);
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        var threads = 4;
+        var perThread = 2000;
+        var ordered = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                var previous = generator.get();
+                ids.add(previous);
+                var increasing = true;
+                for (int i = 1; i < perThread; i++) {
+                    var next = generator.get();
+                    increasing &= previous.compareTo(next) < 0;
+                    ids.add(next);
+                    previous = next;
+                }
+                if (increasing) {
+                    ordered.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threads, ordered.get());
+        assertEquals(threads * perThread, ids.size());
+    }
+}